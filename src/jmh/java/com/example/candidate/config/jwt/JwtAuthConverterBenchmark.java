@@ -0,0 +1,63 @@
+package com.example.candidate.config.jwt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a verified Keycloak token into an authentication, which runs once per token before the
+ * {@link CachingJwtAuthenticationManager} caches the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthConverterBenchmark {
+    private static final String RESOURCE_ID = "microservice-auth";
+
+    private JwtAuthConverter converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        converter = new JwtAuthConverter();
+        ReflectionTestUtils.setField(converter, "principleAttribute", "preferred_username");
+        ReflectionTestUtils.setField(converter, "resourceId", RESOURCE_ID);
+        Instant issuedAt = Instant.parse("2024-03-01T10:00:00Z");
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("2f1c8a57-1f0e-4b55-9d1e-6a0c3c1f9d10")
+                .issuer("http://localhost:9090/realms/springboot-microservice-realm")
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plusSeconds(300))
+                .claim("preferred_username", "jane.doe")
+                .claim("scope", "openid profile email")
+                .claim("realm_access", Map.of("roles", List.of("offline_access", "uma_authorization")))
+                .claim("resource_access", Map.of(
+                        RESOURCE_ID, Map.of("roles", List.of("client-hr", "client-developer")),
+                        "account", Map.of("roles", List.of("manage-account", "view-profile"))))
+                .build();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt).block();
+    }
+}
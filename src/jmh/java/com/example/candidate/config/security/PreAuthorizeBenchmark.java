@@ -0,0 +1,60 @@
+package com.example.candidate.config.security;
+
+import com.example.candidate.controller.CandidatesController;
+import com.example.candidate.service.CandidateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Authorization cost per call of {@code getCandidateById} for a developer, as reactive method security decides
+ * it (not counting the method-interception proxy itself): SpEL evaluation of its {@code @PreAuthorize}, and the
+ * role mask {@link RoleExpressionParser} compiles the expression into.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreAuthorizeBenchmark {
+    private final PreAuthorizeReactiveAuthorizationManager expressionAuthorizationManager = new PreAuthorizeReactiveAuthorizationManager();
+    private final PreAuthorizeReactiveAuthorizationManager compiledAuthorizationManager =
+            new PreAuthorizeReactiveAuthorizationManager(MethodSecurityConfig.roleExpressionHandler());
+    private Authentication developer;
+    private SimpleMethodInvocation invocation;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        developer = new TestingAuthenticationToken("user", null, "ROLE_client-developer");
+        invocation = new SimpleMethodInvocation(new CandidatesController(mock(CandidateService.class)),
+                CandidatesController.class.getMethod("getCandidateById", String.class, String.class));
+    }
+
+    @Benchmark
+    public AuthorizationDecision preAuthorizeExpression() {
+        return expressionAuthorizationManager.check(Mono.just(developer), invocation).block();
+    }
+
+    @Benchmark
+    public AuthorizationDecision compiledRoleMask() {
+        return compiledAuthorizationManager.check(Mono.just(developer), invocation).block();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.candidate.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic candidates and positions that pass validation, shaped like production data.
+ */
+public final class CandidateFixtures {
+    private CandidateFixtures() {
+    }
+
+    public static Candidate candidate(int index) {
+        return Candidate.builder()
+                .id(String.format("65f0c0ffee%014d", index))
+                .name("Candidate Number " + index)
+                .phoneNumber(String.format("07%02d %03d %03d", 20 + index % 60, index % 1000, (index * 7) % 1000))
+                .cvLink("https://cv.example-hiring.com/candidates/" + index + "/resume.pdf?version=3")
+                .email("candidate." + index + "@example.com")
+                .interviewDate(LocalDate.of(2024, 1, 1).plusDays(index % 365))
+                .documentId("DOC-" + index)
+                .assignedTo("developer-" + index % 20)
+                .positionId(position(index % 50).getId())
+                .isHired(index % 10 == 0)
+                .version((long) index % 5)
+                .build();
+    }
+
+    public static List<Candidate> candidates(int count) {
+        List<Candidate> candidates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            candidates.add(candidate(i));
+        }
+        return candidates;
+    }
+
+    public static Position position(int index) {
+        Status status = Status.values()[index % Status.values().length];
+        return Position.builder()
+                .id(String.format("65f0beef%016d", index))
+                .name("Position " + index % 40)
+                .status(status)
+                .version(0L)
+                .build();
+    }
+
+    public static List<Position> positions(int count) {
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            positions.add(position(i));
+        }
+        return positions;
+    }
+}
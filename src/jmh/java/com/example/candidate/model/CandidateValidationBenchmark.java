@@ -0,0 +1,90 @@
+package com.example.candidate.model;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of a {@link Candidate} as the controllers run it on every write, plus the {@code cvLink} and
+ * phone number constraints on their own. The rejected link has a long host without a top-level domain, which
+ * is what used to make the {@code cvLink} expression backtrack the most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CandidateValidationBenchmark {
+    private static final String REJECTED_CV_LINK = "https://" + "cv-".repeat(20) + "host/resume.pdf";
+    private static final String REJECTED_PHONE_NUMBER = "0799 123 45a";
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private Candidate valid;
+    private Candidate invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = CandidateFixtures.candidate(42);
+        invalid = valid.toBuilder()
+                .cvLink(REJECTED_CV_LINK)
+                .phoneNumber(REJECTED_PHONE_NUMBER)
+                .build();
+        if (!validator.validate(valid).isEmpty() || validator.validate(invalid).size() != 2) {
+            throw new IllegalStateException("Fixtures no longer match the constraints on Candidate");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Candidate>> validCandidate() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Candidate>> invalidCandidate() {
+        return validator.validate(invalid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Candidate>> validCvLink() {
+        return validator.validateValue(Candidate.class, "cvLink", valid.getCvLink());
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Candidate>> rejectedCvLink() {
+        return validator.validateValue(Candidate.class, "cvLink", REJECTED_CV_LINK);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Candidate>> validPhoneNumber() {
+        return validator.validateValue(Candidate.class, "phoneNumber", valid.getPhoneNumber());
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Candidate>> rejectedPhoneNumber() {
+        return validator.validateValue(Candidate.class, "phoneNumber", REJECTED_PHONE_NUMBER);
+    }
+}
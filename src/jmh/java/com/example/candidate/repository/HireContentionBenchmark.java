@@ -0,0 +1,79 @@
+package com.example.candidate.repository;
+
+import com.example.candidate.model.Position;
+import com.example.candidate.model.Status;
+import com.mongodb.ConnectionString;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for {@code contenders} concurrent hires to race {@link PositionsRepositoryCustomImpl#claimForHire} on the
+ * same open position until it is filled. Needs a running MongoDB; the benchmark database is dropped afterwards.
+ * That exactly one contender wins is checked by {@code PositionsRepositoryTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HireContentionBenchmark {
+    @Param("mongodb://localhost:27017/candidate-benchmarks")
+    private String uri;
+    @Param("32")
+    private int contenders;
+
+    private MongoClient mongoClient;
+    private ReactiveMongoTemplate mongoTemplate;
+    private PositionsRepositoryCustomImpl positionsRepository;
+    private String positionId;
+
+    @Setup
+    public void setUp() {
+        ConnectionString connectionString = new ConnectionString(uri);
+        mongoClient = MongoClients.create(connectionString);
+        mongoTemplate = new ReactiveMongoTemplate(mongoClient, connectionString.getDatabase());
+        positionsRepository = new PositionsRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Setup(Level.Invocation)
+    public void openPosition() {
+        positionId = mongoTemplate.insert(new Position(null, "Contended", Status.OPEN, null, null, null)).block().getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoTemplate.getMongoDatabase().flatMap(database -> Mono.from(database.drop())).block();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public Long claimContendedPosition() {
+        return Flux.range(0, contenders)
+                .parallel(contenders)
+                .runOn(Schedulers.parallel())
+                .flatMap(contender -> positionsRepository.claimForHire(positionId, "candidate-" + contender))
+                .sequential()
+                .count()
+                .block();
+    }
+}
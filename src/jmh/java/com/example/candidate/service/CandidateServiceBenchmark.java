@@ -0,0 +1,128 @@
+package com.example.candidate.service;
+
+import com.example.candidate.cache.CandidateCacheProperties;
+import com.example.candidate.cache.CandidateNearCache;
+import com.example.candidate.cache.PositionsReplica;
+import com.example.candidate.changes.ChangeFeedHub;
+import com.example.candidate.changes.ChangeFeedProperties;
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateFixtures;
+import com.example.candidate.pagination.PaginationProperties;
+import com.example.candidate.repository.CandidateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link CandidateServiceImpl} reads against an in-memory stand-in for the repository, with the
+ * {@link CandidateNearCache} either bypassed, as while it is not listening to the change feed, or listening and
+ * so serving repeated reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CandidateServiceBenchmark {
+    private static final int CANDIDATES = 1000;
+    private static final int LOOKUP_KEYS = 50;
+
+    @Param({"bypassed", "listening"})
+    public String nearCache;
+
+    private ChangeFeedHub changeFeedHub;
+    private CandidateNearCache candidateNearCache;
+    private CandidateService candidateService;
+    private Candidate candidate;
+    private BatchLookupRequest idLookup;
+    private BatchLookupRequest documentIdLookup;
+
+    @Setup
+    public void setUp() {
+        List<Candidate> candidates = CandidateFixtures.candidates(CANDIDATES);
+        CandidateRepository candidateRepository = InMemoryRepositories.candidates(candidates);
+        // An open cursor on which nothing ever changes, so the near cache listens and is never invalidated.
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(Mono.just(new Document("operationTime", new BsonTimestamp(1, 1))));
+        when(mongoTemplate.changeStream(any(), any(), eq(Document.class))).thenReturn(Flux.never());
+        changeFeedHub = new ChangeFeedHub(mongoTemplate, new ChangeFeedProperties());
+        changeFeedHub.start();
+        candidateNearCache = new CandidateNearCache(changeFeedHub, new CandidateCacheProperties(), new SimpleMeterRegistry());
+        if ("listening".equals(nearCache)) {
+            candidateNearCache.start();
+        }
+        PositionsReplica replica = new PositionsReplica();
+        replica.beginLoad();
+        replica.completeLoad(CandidateFixtures.positions(50));
+        // The merge patch translator only serves patches, which are not benchmarked.
+        PositionsService positionsService = new PositionsServiceImpl(InMemoryRepositories.positions(List.of()), candidateRepository,
+                new PaginationProperties(), replica, null, new BatchLookupProperties(), candidateNearCache);
+        candidateService = new CandidateServiceImpl(candidateRepository, positionsService, new PaginationProperties(), null,
+                candidateNearCache, new BatchLookupProperties());
+        candidate = candidates.get(CANDIDATES / 2);
+        idLookup = new BatchLookupRequest(candidates.stream().limit(LOOKUP_KEYS).map(Candidate::getId).toList(), null);
+        documentIdLookup = new BatchLookupRequest(null, candidates.stream().limit(LOOKUP_KEYS).map(Candidate::getDocumentId).toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        candidateNearCache.stop();
+        changeFeedHub.stop();
+    }
+
+    @Benchmark
+    public Candidate getCandidateById() {
+        return candidateService.getCandidateById(candidate.getId()).block();
+    }
+
+    @Benchmark
+    public Candidate findCandidateByDocumentId() {
+        return candidateService.findCandidateByDocumentId(candidate.getDocumentId()).block();
+    }
+
+    @Benchmark
+    public List<BatchLookupResult<Candidate>> lookupCandidatesById() {
+        return candidateService.lookupCandidates(idLookup).block();
+    }
+
+    @Benchmark
+    public List<BatchLookupResult<Candidate>> lookupCandidatesByDocumentId() {
+        return candidateService.lookupCandidates(documentIdLookup).block();
+    }
+
+    @Benchmark
+    public List<Candidate> getAllCandidates() {
+        return candidateService.getAllCandidates().collectList().block();
+    }
+
+    @Benchmark
+    public List<Candidate> getCandidatesByPositionId() {
+        return candidateService.getCandidatesByPositionId(candidate.getPositionId()).collectList().block();
+    }
+}
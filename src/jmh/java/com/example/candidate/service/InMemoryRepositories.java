@@ -0,0 +1,119 @@
+package com.example.candidate.service;
+
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.Position;
+import com.example.candidate.model.Status;
+import com.example.candidate.repository.CandidateRepository;
+import com.example.candidate.repository.PositionsRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repository stand-ins answering the reads the benchmarked service methods make from maps, so that the
+ * benchmarks measure the services and not MongoDB. Anything else fails with
+ * {@link UnsupportedOperationException}, which keeps a benchmark from silently measuring a method that is not
+ * backed here. Stored documents are copied on every read, as the driver hands out fresh objects.
+ */
+final class InMemoryRepositories {
+    private InMemoryRepositories() {
+    }
+
+    static CandidateRepository candidates(Collection<Candidate> candidates) {
+        Map<String, Candidate> byId = index(candidates, Candidate::getId);
+        return proxy(CandidateRepository.class, (method, args) -> switch (method.getName()) {
+            case "findById" -> Mono.justOrEmpty(byId.get((String) args[0])).map(InMemoryRepositories::copy);
+            case "findAllById" -> findAllById(byId, (Iterable<?>) args[0]).map(InMemoryRepositories::copy);
+            case "findAll" -> Flux.fromStream(byId.values().stream()
+                    .sorted(Comparator.comparing(Candidate::getName))
+                    .map(InMemoryRepositories::copy));
+            case "findByName" -> filter(byId, candidate -> candidate.getName().equalsIgnoreCase((String) args[0]))
+                    .map(InMemoryRepositories::copy);
+            case "findCandidatesByPositionId" -> filter(byId, candidate -> Objects.equals(candidate.getPositionId(), args[0]))
+                    .map(InMemoryRepositories::copy);
+            case "findCandidateByDocumentId" -> filter(byId, candidate -> Objects.equals(candidate.getDocumentId(), args[0]))
+                    .next()
+                    .map(InMemoryRepositories::copy);
+            case "findCandidatesByDocumentIdIn" -> filter(byId, candidate -> ((Collection<?>) args[0]).contains(candidate.getDocumentId()))
+                    .map(InMemoryRepositories::copy);
+            default -> throw unsupported(method);
+        });
+    }
+
+    static PositionsRepository positions(Collection<Position> positions) {
+        Map<String, Position> byId = index(positions, Position::getId);
+        return proxy(PositionsRepository.class, (method, args) -> switch (method.getName()) {
+            case "findById" -> Mono.justOrEmpty(byId.get((String) args[0])).map(InMemoryRepositories::copy);
+            case "findAllById" -> findAllById(byId, (Iterable<?>) args[0]).map(InMemoryRepositories::copy);
+            case "findAll" -> Flux.fromIterable(byId.values()).map(InMemoryRepositories::copy);
+            case "findPositionsByName" -> filter(byId, position -> position.getName().equals(args[0]))
+                    .map(InMemoryRepositories::copy);
+            case "findPositionsByStatus" -> filter(byId, position -> position.getStatus() == (Status) args[0])
+                    .map(InMemoryRepositories::copy);
+            default -> throw unsupported(method);
+        });
+    }
+
+    private static <T> Map<String, T> index(Collection<T> documents, Function<T, String> idOf) {
+        Map<String, T> byId = new LinkedHashMap<>();
+        for (T document : documents) {
+            byId.put(idOf.apply(document), document);
+        }
+        return byId;
+    }
+
+    private static <T> Flux<T> findAllById(Map<String, T> byId, Iterable<?> ids) {
+        List<T> found = StreamSupport.stream(ids.spliterator(), false)
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return Flux.fromIterable(found);
+    }
+
+    private static <T> Flux<T> filter(Map<String, T> byId, Predicate<T> predicate) {
+        return Flux.fromStream(() -> byId.values().stream().filter(predicate));
+    }
+
+    private static Candidate copy(Candidate candidate) {
+        return candidate.toBuilder().build();
+    }
+
+    private static Position copy(Position position) {
+        return position.toBuilder().build();
+    }
+
+    private static UnsupportedOperationException unsupported(Method method) {
+        return new UnsupportedOperationException(method.getName() + " is not backed by the in-memory repository");
+    }
+
+    @FunctionalInterface
+    private interface Reads {
+        Object invoke(Method method, Object[] args);
+    }
+
+    private static <R> R proxy(Class<R> repositoryType, Reads reads) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "InMemory" + repositoryType.getSimpleName();
+                };
+            }
+            return reads.invoke(method, args);
+        };
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType}, handler));
+    }
+}
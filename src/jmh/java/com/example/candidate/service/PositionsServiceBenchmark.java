@@ -0,0 +1,93 @@
+package com.example.candidate.service;
+
+import com.example.candidate.cache.PositionsReplica;
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
+import com.example.candidate.model.CandidateFixtures;
+import com.example.candidate.model.Position;
+import com.example.candidate.model.Status;
+import com.example.candidate.pagination.PaginationProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PositionsServiceImpl} reads served by the loaded {@link PositionsReplica} or, before it has loaded, by
+ * the repository, here an in-memory stand-in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionsServiceBenchmark {
+    private static final int POSITIONS = 200;
+    private static final int LOOKUP_KEYS = 50;
+
+    @Param({"replica", "repository"})
+    public String source;
+
+    private PositionsService positionsService;
+    private String positionId;
+    private String positionName;
+    private BatchLookupRequest lookupRequest;
+
+    @Setup
+    public void setUp() {
+        List<Position> positions = CandidateFixtures.positions(POSITIONS);
+        PositionsReplica replica = new PositionsReplica();
+        if ("replica".equals(source)) {
+            replica.beginLoad();
+            replica.completeLoad(positions);
+        }
+        // The merge patch translator and the candidate near cache only serve writes, which are not benchmarked.
+        positionsService = new PositionsServiceImpl(InMemoryRepositories.positions(positions), InMemoryRepositories.candidates(List.of()),
+                new PaginationProperties(), replica, null, new BatchLookupProperties(), null);
+        positionId = positions.get(POSITIONS / 2).getId();
+        positionName = positions.get(POSITIONS / 2).getName();
+        lookupRequest = new BatchLookupRequest(positions.stream().limit(LOOKUP_KEYS).map(Position::getId).toList(), null);
+    }
+
+    @Benchmark
+    public Position getPositionById() {
+        return positionsService.getPositionById(positionId).block();
+    }
+
+    @Benchmark
+    public List<BatchLookupResult<Position>> lookupPositions() {
+        return positionsService.lookupPositions(lookupRequest).block();
+    }
+
+    @Benchmark
+    public List<Position> getAllPositions() {
+        return positionsService.getAllPositions().collectList().block();
+    }
+
+    @Benchmark
+    public List<Position> getPositionsByName() {
+        return positionsService.getPositionsByName(positionName).collectList().block();
+    }
+
+    @Benchmark
+    public List<Position> getPositionsByStatus() {
+        return positionsService.getPositionsByStatus(Status.OPEN).collectList().block();
+    }
+
+    @Benchmark
+    public Set<String> getUniquePositionNames() {
+        return positionsService.getUniquePositionNames().block();
+    }
+}
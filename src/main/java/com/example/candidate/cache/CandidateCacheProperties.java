@@ -0,0 +1,16 @@
+package com.example.candidate.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "candidates.cache")
+public class CandidateCacheProperties {
+    private boolean enabled = true;
+    private int maximumSize = 10_000;
+    private Duration timeToLive = Duration.ofMinutes(5);
+}
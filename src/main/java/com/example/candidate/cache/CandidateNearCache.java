@@ -0,0 +1,240 @@
+package com.example.candidate.cache;
+
+import com.example.candidate.changes.ChangeFeedHub;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.ChangeEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Node-local cache of candidates read by id or document id, bounded in size and in age. Reads do not lock: the
+ * entries live in a Caffeine cache, and the document id index in a concurrent map.
+ * <p>
+ * Entries are dropped when the shared {@link ChangeFeedHub} reports a change to the candidate, whichever instance
+ * made it. The cache is bypassed until the hub confirms its cursor is open, and from a reset of the feed until it
+ * has been subscribed to again while open, so it is never read while changes could be missed. A read that raced
+ * with an invalidation is returned but not cached, so it can never overwrite the invalidation with the value it
+ * replaced.
+ */
+@Slf4j
+@Component
+public class CandidateNearCache {
+    private static final String CACHE_NAME = "candidates";
+
+    private final ChangeFeedHub changeFeedHub;
+    private final CandidateCacheProperties properties;
+    private final Cache<String, Candidate> byId;
+    private final Map<String, String> idsByDocumentId = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+    private final Counter invalidations;
+    private volatile boolean listening;
+    private Disposable subscription;
+
+    @Autowired
+    public CandidateNearCache(ChangeFeedHub changeFeedHub, CandidateCacheProperties properties, MeterRegistry meterRegistry) {
+        this(changeFeedHub, properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    CandidateNearCache(ChangeFeedHub changeFeedHub, CandidateCacheProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+        this.changeFeedHub = changeFeedHub;
+        this.properties = properties;
+        this.hits = cacheCounter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = cacheCounter(meterRegistry, "cache.gets", "result", "miss");
+        this.sizeEvictions = cacheCounter(meterRegistry, "cache.evictions", "cause", "size");
+        this.expirations = cacheCounter(meterRegistry, "cache.evictions", "cause", "expired");
+        this.invalidations = cacheCounter(meterRegistry, "cache.evictions", "cause", "invalidated");
+        // Removals are handled on the calling thread so that the document id index never lags behind.
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .<String, Candidate>removalListener((id, candidate, cause) -> removed(candidate, cause))
+                .build();
+        Gauge.builder("cache.size", this, CandidateNearCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        subscription = changeFeedHub.events(null)
+                .doOnSubscribe(ignored -> listening = changeFeedHub.isOpen())
+                .doOnNext(this::apply)
+                .doOnError(error -> {
+                    log.warn("Candidate cache lost the change feed, bypassing it until it recovers", error);
+                    listening = false;
+                    invalidateAll();
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)).transientErrors(true))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        listening = false;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public Mono<Candidate> getById(String id, Supplier<Mono<Candidate>> loader) {
+        return Mono.defer(() -> {
+            if (!listening) {
+                return loader.get();
+            }
+            Candidate cached = lookup(id);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return load(loader);
+        });
+    }
+
+    public Mono<Candidate> getByDocumentId(String documentId, Supplier<Mono<Candidate>> loader) {
+        return Mono.defer(() -> {
+            if (!listening) {
+                return loader.get();
+            }
+            Candidate cached = lookupByDocumentId(documentId);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return load(loader);
+        });
+    }
+
+    /**
+     * Version of the cached candidate, without counting as a read.
+     */
+    public Optional<Long> peekVersion(String id) {
+        if (!listening) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byId.policy().getIfPresentQuietly(id)).map(Candidate::getVersion);
+    }
+
+    public void invalidate(String id) {
+        invalidationCount.incrementAndGet();
+        byId.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        invalidationCount.incrementAndGet();
+        byId.invalidateAll();
+    }
+
+    long size() {
+        return byId.estimatedSize();
+    }
+
+    private Mono<Candidate> load(Supplier<Mono<Candidate>> loader) {
+        long invalidationsBeforeLoad = invalidationCount.get();
+        return loader.get().doOnNext(candidate -> store(candidate, invalidationsBeforeLoad));
+    }
+
+    private Candidate lookup(String id) {
+        Candidate cached = byId.getIfPresent(id);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(cached);
+    }
+
+    private Candidate lookupByDocumentId(String documentId) {
+        String id = idsByDocumentId.get(documentId);
+        Candidate cached = id == null ? null : byId.policy().getIfPresentQuietly(id);
+        if (cached == null || !documentId.equals(cached.getDocumentId())) {
+            misses.increment();
+            return null;
+        }
+        return lookup(id);
+    }
+
+    /**
+     * Caches the candidate unless an invalidation happened since the load started. An invalidation racing with
+     * the store itself is caught by checking again afterwards: it either sees the new entry and removes it, or
+     * has bumped the count before that second check.
+     */
+    private void store(Candidate candidate, long invalidationsBeforeLoad) {
+        String id = candidate.getId();
+        if (id == null || invalidationCount.get() != invalidationsBeforeLoad) {
+            return;
+        }
+        Candidate stored = copy(candidate);
+        if (stored.getDocumentId() != null) {
+            idsByDocumentId.put(stored.getDocumentId(), id);
+        }
+        Candidate replaced = byId.asMap().put(id, stored);
+        if (replaced != null && replaced.getDocumentId() != null && !replaced.getDocumentId().equals(stored.getDocumentId())) {
+            idsByDocumentId.remove(replaced.getDocumentId(), id);
+        }
+        if (invalidationCount.get() != invalidationsBeforeLoad) {
+            byId.asMap().remove(id, stored);
+        }
+    }
+
+    private void removed(Candidate candidate, RemovalCause cause) {
+        switch (cause) {
+            case REPLACED -> {
+                return;
+            }
+            case SIZE -> sizeEvictions.increment();
+            case EXPIRED -> expirations.increment();
+            default -> invalidations.increment();
+        }
+        if (candidate != null && candidate.getDocumentId() != null) {
+            idsByDocumentId.remove(candidate.getDocumentId(), candidate.getId());
+        }
+    }
+
+    private void apply(ChangeEvent event) {
+        if (event.getOperation() == ChangeEvent.Operation.RESET) {
+            throw new IllegalStateException("Change feed reset, candidate changes may have been missed");
+        }
+        if (ChangeFeedHub.CANDIDATES.equals(event.getCollection()) && event.getDocumentId() != null) {
+            invalidate(event.getDocumentId());
+        }
+    }
+
+    private static Candidate copy(Candidate candidate) {
+        return candidate.toBuilder().build();
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+}
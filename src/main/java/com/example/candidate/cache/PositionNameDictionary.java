@@ -0,0 +1,79 @@
+package com.example.candidate.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted dictionary of distinct position names, kept as reference counts so that a name disappears only
+ * when the last position using it is renamed or removed.
+ * <p>
+ * Keys are the lower-cased name followed by the original one, which orders names by
+ * {@link PositionsReplica#NAME_ORDER} and turns a case-insensitive prefix lookup into a single range scan of the skip list. A reset builds a
+ * new skip list and swaps it in, so readers see either the old names or the new ones, never an empty map.
+ */
+class PositionNameDictionary {
+    private static final char SEPARATOR = '\u0000';
+    private static final char MAX_CHAR = '\uffff';
+
+    private volatile ConcurrentSkipListMap<String, Integer> names = new ConcurrentSkipListMap<>();
+
+    void add(String name) {
+        add(names, name);
+    }
+
+    void remove(String name) {
+        if (name != null) {
+            names.computeIfPresent(key(name), (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    void replace(String oldName, String newName) {
+        if (oldName != null && oldName.equals(newName)) {
+            return;
+        }
+        add(newName);
+        remove(oldName);
+    }
+
+    void reset(Collection<String> allNames) {
+        ConcurrentSkipListMap<String, Integer> loaded = new ConcurrentSkipListMap<>();
+        allNames.forEach(name -> add(loaded, name));
+        names = loaded;
+    }
+
+    List<String> all() {
+        return collect(names.keySet(), new ArrayList<>(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix}, ignoring case. The result is sized by the limit,
+     * since counting the range would walk all of it.
+     */
+    List<String> startingWith(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        return collect(names.subMap(from, true, from + MAX_CHAR, false).keySet(), new ArrayList<>(limit), limit);
+    }
+
+    private static void add(ConcurrentSkipListMap<String, Integer> names, String name) {
+        if (name != null) {
+            names.merge(key(name), 1, Integer::sum);
+        }
+    }
+
+    private static List<String> collect(Collection<String> keys, List<String> result, int limit) {
+        for (String key : keys) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(key.substring(key.indexOf(SEPARATOR) + 1));
+        }
+        return result;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT) + SEPARATOR + name;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.candidate.cache;
+
+import com.example.candidate.model.Position;
+import com.example.candidate.model.Status;
+import com.example.candidate.model.SubStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+/**
+ * Node-local copy of the positions collection with lookups by id, name and status buckets, plus a sorted
+ * dictionary of distinct names for autocomplete.
+ * <p>
+ * Reads are lock-free against an immutable snapshot; writes are rare and rebuild the snapshot under a lock.
+ * Stored positions are never handed out directly because {@link Position} is mutable, so every read
+ * returns copies. Until {@link #completeLoad(Collection)} has run the replica reports itself as not loaded
+ * and callers are expected to go to the database instead.
+ * <p>
+ * Every change moves the {@link #changeToken() change token} on, which lets list endpoints answer
+ * conditional requests without building the list.
+ */
+@Component
+public class PositionsReplica {
+    /**
+     * Order of {@link #findUniqueNames()}: ignoring case, then by case so that names differing only in case
+     * stay distinct. Anything listing names without the replica sorts them the same way.
+     */
+    public static final Comparator<String> NAME_ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    private final PositionNameDictionary names = new PositionNameDictionary();
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+    private volatile long generation;
+    private List<UnaryOperator<Snapshot>> pendingChanges;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Starts recording changes so that those arriving while the initial query runs are re-applied on top of it.
+     */
+    public synchronized void beginLoad() {
+        pendingChanges = new ArrayList<>();
+    }
+
+    public synchronized void completeLoad(Collection<Position> positions) {
+        Snapshot loadedSnapshot = Snapshot.of(positions);
+        if (pendingChanges != null) {
+            for (UnaryOperator<Snapshot> change : pendingChanges) {
+                loadedSnapshot = change.apply(loadedSnapshot);
+            }
+        }
+        pendingChanges = null;
+        snapshot = loadedSnapshot;
+        names.reset(loadedSnapshot.byId.values().stream().map(Position::getName).toList());
+        generation++;
+        loaded = true;
+    }
+
+    public synchronized void invalidate() {
+        loaded = false;
+        pendingChanges = null;
+        snapshot = Snapshot.EMPTY;
+        names.reset(List.of());
+    }
+
+    /**
+     * Opaque token that differs whenever the contents may have changed, or empty while the replica is not
+     * loaded. The epoch keeps tokens from different nodes or restarts from ever matching. Read the token
+     * before the data it describes: a change landing in between then leaves the token older than the data,
+     * which costs a needless download but never hides a change.
+     */
+    public Optional<String> changeToken() {
+        long current = generation;
+        return loaded ? Optional.of(epoch + "-" + current) : Optional.empty();
+    }
+
+    /**
+     * Stores the position unless the replica already holds a higher version of it. Writes on this node and
+     * change events can arrive in either order, so an older copy landing late must not roll the replica back.
+     */
+    public void upsert(Position position) {
+        Position copy = position.toBuilder().build();
+        apply(copy.getId(), current -> current.with(copy));
+    }
+
+    public void remove(String id) {
+        apply(id, current -> current.without(id));
+    }
+
+    public Optional<Position> findById(String id) {
+        return Optional.ofNullable(snapshot.byId.get(id)).map(PositionsReplica::copy);
+    }
+
+    public List<Position> findAll() {
+        return copies(snapshot.byId.values());
+    }
+
+    public List<Position> findByName(String name) {
+        return copies(snapshot.byName.getOrDefault(name, List.of()));
+    }
+
+    public List<Position> findByStatus(Status status) {
+        return copies(snapshot.byStatus.getOrDefault(status, List.of()));
+    }
+
+    public List<Position> findByStatusAndSubStatus(Status status, SubStatus subStatus) {
+        return copies(snapshot.byStatusAndSubStatus.getOrDefault(new Bucket(status, subStatus), List.of()));
+    }
+
+    public List<Position> findByStatuses(Status status1, Status status2) {
+        if (status1 == status2) {
+            return findByStatus(status1);
+        }
+        List<Position> positions = new ArrayList<>();
+        for (Position position : snapshot.byId.values()) {
+            if (position.getStatus() == status1 || position.getStatus() == status2) {
+                positions.add(copy(position));
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Distinct position names in {@link #NAME_ORDER}.
+     */
+    public List<String> findUniqueNames() {
+        return names.all();
+    }
+
+    public List<String> findNamesStartingWith(String prefix, int limit) {
+        return names.startingWith(prefix, limit);
+    }
+
+    private synchronized void apply(String id, UnaryOperator<Snapshot> change) {
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+        Snapshot before = snapshot;
+        Snapshot after = change.apply(before);
+        if (after == before) {
+            return;
+        }
+        snapshot = after;
+        names.replace(nameOf(before.byId.get(id)), nameOf(after.byId.get(id)));
+        // Only after the new contents are visible, so a reader never pairs the new token with old contents.
+        generation++;
+    }
+
+    private static String nameOf(Position position) {
+        return position == null ? null : position.getName();
+    }
+
+    private static Position copy(Position position) {
+        return position.toBuilder().build();
+    }
+
+    private static List<Position> copies(Collection<Position> positions) {
+        List<Position> copies = new ArrayList<>(positions.size());
+        for (Position position : positions) {
+            copies.add(copy(position));
+        }
+        return copies;
+    }
+
+    private record Bucket(Status status, SubStatus subStatus) {
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of());
+
+        final Map<String, Position> byId;
+        final Map<String, List<Position>> byName = new HashMap<>();
+        final Map<Status, List<Position>> byStatus = new EnumMap<>(Status.class);
+        final Map<Bucket, List<Position>> byStatusAndSubStatus = new HashMap<>();
+
+        private Snapshot(Map<String, Position> byId) {
+            this.byId = Collections.unmodifiableMap(byId);
+            for (Position position : byId.values()) {
+                byName.computeIfAbsent(position.getName(), name -> new ArrayList<>()).add(position);
+                byStatus.computeIfAbsent(position.getStatus(), status -> new ArrayList<>()).add(position);
+                byStatusAndSubStatus.computeIfAbsent(new Bucket(position.getStatus(), position.getSubStatus()), bucket -> new ArrayList<>()).add(position);
+            }
+        }
+
+        static Snapshot of(Collection<Position> positions) {
+            Map<String, Position> byId = new LinkedHashMap<>();
+            for (Position position : positions) {
+                byId.put(position.getId(), copy(position));
+            }
+            return new Snapshot(byId);
+        }
+
+        Snapshot with(Position position) {
+            if (isOlder(position, this.byId.get(position.getId()))) {
+                return this;
+            }
+            Map<String, Position> byId = new LinkedHashMap<>(this.byId);
+            byId.put(position.getId(), position);
+            return new Snapshot(byId);
+        }
+
+        private static boolean isOlder(Position position, Position current) {
+            return current != null && current.getVersion() != null && position.getVersion() != null
+                    && position.getVersion() < current.getVersion();
+        }
+
+        Snapshot without(String id) {
+            if (!byId.containsKey(id)) {
+                return this;
+            }
+            Map<String, Position> byId = new LinkedHashMap<>(this.byId);
+            byId.remove(id);
+            return new Snapshot(byId);
+        }
+    }
+}
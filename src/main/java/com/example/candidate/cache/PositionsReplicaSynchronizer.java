@@ -0,0 +1,87 @@
+package com.example.candidate.cache;
+
+import com.example.candidate.changes.ChangeFeedHub;
+import com.example.candidate.model.ChangeEvent;
+import com.example.candidate.model.Position;
+import com.example.candidate.repository.PositionsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Keeps {@link PositionsReplica} in step with the positions collection: loads it once the application is ready
+ * and then applies the position events of the shared {@link ChangeFeedHub}, so writes made by other instances
+ * show up here as well. Whenever the feed fails or resets the replica is invalidated (reads fall back to MongoDB)
+ * and a full reload is retried.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "positions.replica.enabled", havingValue = "true", matchIfMissing = true)
+public class PositionsReplicaSynchronizer {
+    private final PositionsReplica positionsReplica;
+    private final PositionsRepository positionsRepository;
+    private final ChangeFeedHub changeFeedHub;
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = synchronize()
+                .doOnError(error -> {
+                    log.warn("Positions replica lost its change stream, reading from MongoDB until it recovers", error);
+                    positionsReplica.invalidate();
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Flux<Void> synchronize() {
+        return Flux.defer(() -> {
+            positionsReplica.beginLoad();
+            Flux<Void> changes = changeFeedHub.events(null)
+                    .doOnNext(this::apply)
+                    .thenMany(Flux.error(new IllegalStateException("Change feed completed")));
+            Mono<Void> initialLoad = positionsRepository.findAll()
+                    .collectList()
+                    .doOnNext(positions -> {
+                        positionsReplica.completeLoad(positions);
+                        log.info("Positions replica loaded with {} positions", positions.size());
+                    })
+                    .then();
+            return Flux.merge(changes, initialLoad);
+        });
+    }
+
+    private void apply(ChangeEvent event) {
+        switch (event.getOperation()) {
+            case INSERT, UPDATE -> {
+                if (event.getDocument() instanceof Position position) {
+                    positionsReplica.upsert(position);
+                }
+            }
+            case DELETE -> {
+                if (ChangeFeedHub.POSITIONS.equals(event.getCollection()) && event.getDocumentId() != null) {
+                    positionsReplica.remove(event.getDocumentId());
+                }
+            }
+            case RESET -> throw new IllegalStateException("Change feed reset, positions may have been missed");
+        }
+    }
+}
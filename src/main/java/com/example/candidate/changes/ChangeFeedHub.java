@@ -0,0 +1,287 @@
+package com.example.candidate.changes;
+
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.ChangeEvent;
+import com.example.candidate.model.Position;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Fans the changes to candidates and positions out from a single change-stream cursor per instance.
+ * <p>
+ * Every subscriber gets its own bounded buffer; one that falls further behind than
+ * {@link ChangeFeedProperties#getSubscriberBuffer()} is failed on its own instead of slowing the cursor or the
+ * other subscribers down. The most recent {@link ChangeFeedProperties#getHistory()} events are kept so that a
+ * subscriber reconnecting with the resume token of the last event it saw is replayed what it missed. Any other
+ * token (too old, from before a restart or from another instance) gets a {@link ChangeEvent.Operation#RESET RESET}
+ * instead of a cursor of its own: a change stream reports no position until an event arrives, so on a quiet
+ * collection a private catch-up cursor would never learn that it had caught up.
+ * <p>
+ * If the shared cursor fails, for whatever reason, subscribers are sent a {@link ChangeEvent.Operation#RESET RESET}
+ * event, since nothing they derived from earlier events is kept up to date until it is back. The cursor is
+ * reopened after the last event seen, or from now when that is impossible (the oplog moved on, the database was
+ * dropped). It only counts as {@link #isOpen() open} once its starting point is fixed on the server, so that
+ * every later write is known to reach it; subscribers joining before that get a {@code RESET} first of all.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeFeedHub {
+    public static final String CANDIDATES = "candidates";
+    public static final String POSITIONS = "positions";
+    private static final Map<String, Class<?>> DOCUMENT_TYPES = Map.of(CANDIDATES, Candidate.class, POSITIONS, Position.class);
+    private static final Set<Integer> UNRESUMABLE_ERROR_CODES = Set.of(260, 280, 286);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ChangeFeedProperties properties;
+    private final List<Sinks.Many<Entry>> subscribers = new ArrayList<>();
+    private final Map<String, Entry> history = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > properties.getHistory();
+        }
+    };
+    private long sequence;
+    private volatile String resumeToken;
+    private volatile boolean open;
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.defer(this::openCursor)
+                .doOnNext(this::accept)
+                .thenMany(Flux.error(new IllegalStateException("Change stream completed")))
+                .doOnError(this::recover)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)).transientErrors(true))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Whether the shared cursor is open, so that a subscriber registered now sees every later change or a
+     * {@code RESET}.
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Changes from now on, or, given the resume token of the last event a client saw, the changes after it
+     * followed by the live ones. A token that is not in the history is answered with a {@code RESET}.
+     */
+    public Flux<ChangeEvent> events(String lastResumeToken) {
+        return Flux.defer(() -> {
+            Sinks.Many<Entry> sink = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(properties.getSubscriberBuffer()));
+            List<Entry> missed;
+            boolean cursorDown;
+            synchronized (this) {
+                subscribers.add(sink);
+                missed = lastResumeToken == null ? List.of() : entriesAfter(lastResumeToken);
+                cursorDown = !open;
+            }
+            Flux<ChangeEvent> live = sink.asFlux().map(Entry::event);
+            if (cursorDown) {
+                return Flux.just(ChangeEvent.reset(null)).concatWith(live)
+                        .doFinally(signal -> unsubscribe(sink));
+            }
+            if (missed == null) {
+                log.debug("Change feed resume token {} is no longer kept, asking the subscriber to reload", lastResumeToken);
+                return Flux.just(ChangeEvent.reset(null)).concatWith(live)
+                        .doFinally(signal -> unsubscribe(sink));
+            }
+            return Flux.fromIterable(missed).map(Entry::event).concatWith(live)
+                    .doFinally(signal -> unsubscribe(sink));
+        });
+    }
+
+    /**
+     * The shared cursor: resumed after the last event seen, or else started at the server's current operation
+     * time, read before the cursor is marked open. Change streams need a replica set, which is also what reports
+     * an operation time.
+     */
+    Flux<ChangeStreamEvent<Document>> openCursor() {
+        String token = resumeToken;
+        if (token != null) {
+            open = true;
+            return cursor(token, null);
+        }
+        return mongoTemplate.executeCommand(new Document("hello", 1))
+                .flatMapMany(reply -> {
+                    if (!(reply.get("operationTime") instanceof BsonTimestamp operationTime)) {
+                        return Flux.error(new IllegalStateException("MongoDB reported no operation time, change streams need a replica set"));
+                    }
+                    open = true;
+                    return cursor(null, operationTime);
+                });
+    }
+
+    Flux<ChangeStreamEvent<Document>> cursor(String resumeAfter, BsonTimestamp startAt) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .filter(Aggregation.newAggregation(Aggregation.match(new Criteria().orOperator(
+                        Criteria.where("ns.coll").in(DOCUMENT_TYPES.keySet()),
+                        Criteria.where("operationType").in("dropDatabase", "invalidate")))))
+                .returnFullDocumentOnUpdate();
+        if (resumeAfter != null) {
+            options.resumeAfter(new BsonDocument("_data", new BsonString(resumeAfter)));
+        } else if (startAt != null) {
+            options.resumeAt(startAt);
+        }
+        return mongoTemplate.changeStream(null, options.build(), Document.class);
+    }
+
+    synchronized void publish(ChangeEvent event) {
+        Entry entry = new Entry(++sequence, event);
+        history.put(event.getResumeToken() != null ? event.getResumeToken() : "#" + entry.sequence(), entry);
+        // A subscriber may cancel, and so unsubscribe, from inside tryEmitNext; iterate over a copy.
+        for (Sinks.Many<Entry> sink : List.copyOf(subscribers)) {
+            if (!deliver(sink, entry)) {
+                subscribers.remove(sink);
+            }
+        }
+    }
+
+    synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void accept(ChangeStreamEvent<Document> event) {
+        ChangeEvent change = toChangeEvent(event);
+        if (change != null) {
+            publish(change);
+        }
+        // An invalidated stream cannot be resumed after its own invalidate event.
+        resumeToken = event.getOperationType() == OperationType.INVALIDATE ? null : tokenOf(event.getResumeToken());
+    }
+
+    private void recover(Throwable error) {
+        if (isUnresumable(error)) {
+            log.warn("Change stream cannot be resumed, reopening it from now and resetting subscribers", error);
+            resumeToken = null;
+        } else {
+            log.warn("Change stream failed, resetting subscribers and resuming it after {}", resumeToken, error);
+        }
+        synchronized (this) {
+            open = false;
+            publish(ChangeEvent.reset(null));
+        }
+    }
+
+    private ChangeEvent toChangeEvent(ChangeStreamEvent<Document> event) {
+        OperationType operationType = event.getOperationType();
+        if (operationType == null) {
+            return null;
+        }
+        String token = tokenOf(event.getResumeToken());
+        String collection = event.getCollectionName();
+        ChangeStreamDocument<Document> raw = event.getRaw();
+        return switch (operationType) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document fullDocument = raw == null ? null : raw.getFullDocument();
+                Class<?> type = DOCUMENT_TYPES.get(collection);
+                if (fullDocument == null || type == null) {
+                    // Deleted again before the update lookup ran; the delete event follows.
+                    yield null;
+                }
+                ChangeEvent.Operation operation = operationType == OperationType.INSERT ? ChangeEvent.Operation.INSERT : ChangeEvent.Operation.UPDATE;
+                yield new ChangeEvent(token, collection, operation, documentId(raw), mongoTemplate.getConverter().read(type, fullDocument));
+            }
+            case DELETE -> new ChangeEvent(token, collection, ChangeEvent.Operation.DELETE, documentId(raw), null);
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> ChangeEvent.reset(token);
+            default -> null;
+        };
+    }
+
+    private synchronized void unsubscribe(Sinks.Many<Entry> sink) {
+        subscribers.remove(sink);
+    }
+
+    /**
+     * History entries after the one with {@code token}, or null if that event is no longer (or never was) kept.
+     */
+    private List<Entry> entriesAfter(String token) {
+        Entry last = history.get(token);
+        if (last == null) {
+            return null;
+        }
+        return history.values().stream()
+                .filter(entry -> entry.sequence() > last.sequence())
+                .toList();
+    }
+
+    private boolean deliver(Sinks.Many<Entry> sink, Entry entry) {
+        Sinks.EmitResult result = sink.tryEmitNext(entry);
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            sink.tryEmitError(Exceptions.failWithOverflow("Change feed subscriber fell more than "
+                    + properties.getSubscriberBuffer() + " events behind"));
+            return false;
+        }
+        return result.isSuccess();
+    }
+
+    private static boolean isUnresumable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && UNRESUMABLE_ERROR_CODES.contains(mongoException.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String tokenOf(BsonValue resumeToken) {
+        if (resumeToken == null || !resumeToken.isDocument()) {
+            return null;
+        }
+        BsonValue data = resumeToken.asDocument().get("_data");
+        return data != null && data.isString() ? data.asString().getValue() : null;
+    }
+
+    private static String documentId(ChangeStreamDocument<Document> raw) {
+        if (raw == null || raw.getDocumentKey() == null) {
+            return null;
+        }
+        BsonValue id = raw.getDocumentKey().get("_id");
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private record Entry(long sequence, ChangeEvent event) {
+    }
+}
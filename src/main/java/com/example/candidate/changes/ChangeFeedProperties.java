@@ -0,0 +1,16 @@
+package com.example.candidate.changes;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "changes.feed")
+public class ChangeFeedProperties {
+    private int subscriberBuffer = 256;
+    private int history = 1000;
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
@@ -0,0 +1,184 @@
+package com.example.candidate.config.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtReactiveAuthenticationManager;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticates bearer tokens like the default resource-server manager (signature check, claim validation and
+ * {@link JwtAuthConverter}), but remembers the verified {@link Jwt} and its authorities until the token's
+ * {@code exp}, so a client reusing its token is not verified again on every request.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token, so raw tokens are not kept in memory. They live in a Caffeine
+ * cache bounded by {@link JwtCacheProperties#getMaximumSize()}, each expiring at its own {@code exp}, so neither
+ * reads nor evictions take a lock. Every request gets a {@link JwtAuthenticationToken} of its own, since the token
+ * is mutable. Failed authentications are never cached, and a token accepted once stays accepted until it expires
+ * even if its signing key is rotated out in the meantime.
+ */
+@Component
+public class CachingJwtAuthenticationManager implements ReactiveAuthenticationManager {
+    private static final String CACHE_NAME = "jwt";
+
+    private final ReactiveAuthenticationManager delegate;
+    private final JwtCacheProperties properties;
+    private final Clock clock;
+    private final Cache<String, Entry> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+    private final Timer verifications;
+
+    @Autowired
+    public CachingJwtAuthenticationManager(ReactiveJwtDecoder jwtDecoder, JwtAuthConverter jwtAuthConverter,
+                                           JwtCacheProperties properties, MeterRegistry meterRegistry) {
+        this(jwtAuthenticationManager(jwtDecoder, jwtAuthConverter), properties, meterRegistry, Clock.systemUTC());
+    }
+
+    CachingJwtAuthenticationManager(ReactiveAuthenticationManager delegate, JwtCacheProperties properties,
+                                    MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.clock = clock;
+        this.hits = cacheCounter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = cacheCounter(meterRegistry, "cache.gets", "result", "miss");
+        this.sizeEvictions = cacheCounter(meterRegistry, "cache.evictions", "cause", "size");
+        this.expirations = cacheCounter(meterRegistry, "cache.evictions", "cause", "expired");
+        this.verifications = Timer.builder("jwt.verification")
+                .description("Time spent verifying and converting tokens the cache did not have")
+                .register(meterRegistry);
+        // Expiry follows the exp claim, so the cache keeps time with the same clock the claim is compared to.
+        Ticker ticker = () -> {
+            Instant now = clock.instant();
+            return TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+        };
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new UntilTokenExpires(clock))
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .<String, Entry>removalListener((key, entry, cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        sizeEvictions.increment();
+                    } else if (cause == RemovalCause.EXPIRED) {
+                        expirations.increment();
+                    }
+                })
+                .build();
+        Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!properties.isEnabled() || !(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+        return Mono.defer(() -> {
+            String key = digest(bearer.getToken());
+            Entry entry = cache.getIfPresent(key);
+            if (entry != null) {
+                hits.increment();
+                return Mono.just(entry.authenticate());
+            }
+            misses.increment();
+            long started = System.nanoTime();
+            return delegate.authenticate(authentication)
+                    .doOnNext(verified -> {
+                        verifications.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                        store(key, verified);
+                    });
+        });
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private void store(String key, Authentication verified) {
+        if (!(verified instanceof JwtAuthenticationToken jwtAuthentication)) {
+            return;
+        }
+        Jwt jwt = jwtAuthentication.getToken();
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null || !expiresAt.isAfter(clock.instant())) {
+            return;
+        }
+        cache.put(key, new Entry(jwt, List.copyOf(jwtAuthentication.getAuthorities()), jwtAuthentication.getName(), expiresAt));
+    }
+
+    @SneakyThrows
+    private static String digest(String token) {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    private static ReactiveAuthenticationManager jwtAuthenticationManager(ReactiveJwtDecoder jwtDecoder, JwtAuthConverter jwtAuthConverter) {
+        JwtReactiveAuthenticationManager manager = new JwtReactiveAuthenticationManager(jwtDecoder);
+        manager.setJwtAuthenticationConverter(jwtAuthConverter);
+        return manager;
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expires each entry at its token's {@code exp}, however it is read or replaced.
+     */
+    private record UntilTokenExpires(Clock clock) implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return Duration.between(clock.instant(), entry.expiresAt()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private record Entry(Jwt jwt, Collection<GrantedAuthority> authorities, String name, Instant expiresAt) {
+        JwtAuthenticationToken authenticate() {
+            return new JwtAuthenticationToken(jwt, authorities, name);
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.example.candidate.config.jwt;
 
+import com.example.candidate.config.security.Role;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimNames;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -68,7 +68,7 @@ public class JwtAuthConverter implements Converter<Jwt, Mono<AbstractAuthenticat
         resourceRoles = (Collection<String>) resource.get("roles");
         return resourceRoles
                 .stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .map(Role::authorityOf)
                 .collect(Collectors.toSet());
     }
 }
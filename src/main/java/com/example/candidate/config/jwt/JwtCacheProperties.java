@@ -0,0 +1,13 @@
+package com.example.candidate.config.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt.cache")
+public class JwtCacheProperties {
+    private boolean enabled = true;
+    private int maximumSize = 10_000;
+}
@@ -0,0 +1,67 @@
+package com.example.candidate.config.mongo;
+
+import com.example.candidate.model.BulkJob;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.Position;
+import com.example.candidate.repository.CandidateContactKeys;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Collation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every index the service relies on, keyed by the document class that owns the collection.
+ * Each repository query should be answerable by one of these; IndexUsageTest enforces that.
+ */
+public final class IndexCatalogue {
+    public static final String CASE_INSENSITIVE_COLLATION = "{ 'locale' : 'en', 'strength' : 2 }";
+    public static final Collation CASE_INSENSITIVE = Collation.parse(CASE_INSENSITIVE_COLLATION);
+
+    private static final List<Index> CANDIDATE_INDEXES = List.of(
+            new Index().named(CandidateContactKeys.EMAIL_INDEX).on(CandidateContactKeys.EMAIL, Sort.Direction.ASC).unique().sparse(),
+            new Index().named(CandidateContactKeys.PHONE_NUMBER_INDEX).on(CandidateContactKeys.PHONE_NUMBER, Sort.Direction.ASC).unique().sparse(),
+            new Index().named("documentId").on("documentId", Sort.Direction.ASC).sparse(),
+            new Index().named("name_id").on("name", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+            new Index().named("name_ci").on("name", Sort.Direction.ASC).collation(CASE_INSENSITIVE),
+            new Index().named("positionId_name_id").on("positionId", Sort.Direction.ASC).on("name", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+            new Index().named("interviewDate").on("interviewDate", Sort.Direction.ASC),
+            new Index().named("assignedTo_name_id").on("assignedTo", Sort.Direction.ASC).on("name", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+    );
+
+    private static final List<Index> POSITION_INDEXES = List.of(
+            new Index().named("name_id").on("name", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+            new Index().named("status_subStatus").on("status", Sort.Direction.ASC).on("subStatus", Sort.Direction.ASC),
+            new Index().named("status_name_id").on("status", Sort.Direction.ASC).on("name", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+    );
+
+    private static final List<Index> BULK_JOB_INDEXES = List.of(
+            new Index().named("expiresAt_ttl").on("expiresAt", Sort.Direction.ASC).expire(0)
+    );
+
+    private static final Map<Class<?>, List<Index>> INDEXES = Map.of(
+            Candidate.class, CANDIDATE_INDEXES,
+            Position.class, POSITION_INDEXES,
+            BulkJob.class, BULK_JOB_INDEXES
+    );
+
+    /**
+     * Indexes earlier versions created and nothing queries any more; kept only to be dropped where they exist.
+     * The raw email and phone number indexes were superseded by the unique ones on the {@link CandidateContactKeys}.
+     */
+    private static final Map<Class<?>, List<String>> RETIRED_INDEXES = Map.of(
+            Candidate.class, List.of("email_unique", "phoneNumber")
+    );
+
+    private IndexCatalogue() {
+    }
+
+    public static Map<Class<?>, List<Index>> indexes() {
+        return INDEXES;
+    }
+
+    public static Map<Class<?>, List<String>> retiredIndexes() {
+        return RETIRED_INDEXES;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.candidate.config.mongo;
+
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.Position;
+import com.example.candidate.repository.CandidateContactKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the {@link IndexCatalogue} on startup and refuses to start if any index is missing
+ * afterwards, so a failed build (for example duplicates blocking a unique index) is not silently
+ * turned into collection scans. Candidates stored before the {@link CandidateContactKeys} existed are
+ * given their keys first, so the unique indexes on them cover every document, and documents stored before
+ * versioning get version 0 so that saving them is not mistaken for an insert. Retired indexes are dropped
+ * before anything is built, so a stale unique index can neither reject writes nor fail the startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final int BACKFILL_CONCURRENCY = 16;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureIndexes().block(STARTUP_TIMEOUT);
+    }
+
+    public Mono<Void> ensureIndexes() {
+        return backfillVersions(Candidate.class)
+                .then(backfillVersions(Position.class))
+                .then(backfillCandidateContactKeys())
+                .thenMany(Flux.fromIterable(IndexCatalogue.retiredIndexes().entrySet()))
+                .concatMap(entry -> dropIndexes(mongoTemplate.indexOps(entry.getKey()), entry.getValue()))
+                .thenMany(Flux.fromIterable(IndexCatalogue.indexes().entrySet()))
+                .concatMap(entry -> ensureIndexes(mongoTemplate.indexOps(entry.getKey()), entry.getValue()))
+                .then();
+    }
+
+    private Mono<Void> backfillVersions(Class<?> documentClass) {
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("version").exists(false)), new Update().set("version", 0L), documentClass)
+                .filter(result -> result.getModifiedCount() > 0)
+                .doOnNext(result -> log.info("Backfilled version on {} {} documents", result.getModifiedCount(), documentClass.getSimpleName()))
+                .then();
+    }
+
+    private Mono<Void> backfillCandidateContactKeys() {
+        Query missingKeys = Query.query(new Criteria().orOperator(
+                Criteria.where("email").exists(true).and(CandidateContactKeys.EMAIL).exists(false),
+                Criteria.where("phoneNumber").exists(true).and(CandidateContactKeys.PHONE_NUMBER).exists(false)));
+        return mongoTemplate.find(missingKeys, Candidate.class)
+                .map(candidate -> Tuples.of(candidate.getId(), contactKeys(candidate)))
+                .filter(keys -> !keys.getT2().getUpdateObject().isEmpty())
+                .flatMap(keys -> mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(keys.getT1())), keys.getT2(), Candidate.class),
+                        BACKFILL_CONCURRENCY)
+                .count()
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.info("Backfilled contact keys on {} candidates", count))
+                .then();
+    }
+
+    private static Update contactKeys(Candidate candidate) {
+        Update update = new Update();
+        String email = CandidateContactKeys.email(candidate.getEmail());
+        String phoneNumber = CandidateContactKeys.phoneNumber(candidate.getPhoneNumber());
+        if (email != null) {
+            update.set(CandidateContactKeys.EMAIL, email);
+        }
+        if (phoneNumber != null) {
+            update.set(CandidateContactKeys.PHONE_NUMBER, phoneNumber);
+        }
+        return update;
+    }
+
+    private Mono<Void> dropIndexes(ReactiveIndexOperations indexOperations, List<String> retired) {
+        return indexOperations.getIndexInfo()
+                .map(IndexInfo::getName)
+                .filter(retired::contains)
+                .concatMap(name -> indexOperations.dropIndex(name)
+                        .doOnSuccess(ignored -> log.info("Dropped retired MongoDB index {}", name)))
+                .then();
+    }
+
+    private Mono<Void> ensureIndexes(ReactiveIndexOperations indexOperations, List<Index> indexes) {
+        return Flux.fromIterable(indexes)
+                .concatMap(indexOperations::ensureIndex)
+                .thenMany(indexOperations.getIndexInfo())
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet())
+                .flatMap(existing -> verify(existing, indexes));
+    }
+
+    private Mono<Void> verify(Set<String> existing, List<Index> indexes) {
+        List<String> missing = indexes.stream()
+                .map(index -> index.getIndexOptions().getString("name"))
+                .filter(name -> !existing.contains(name))
+                .toList();
+        if (!missing.isEmpty()) {
+            return Mono.error(new IllegalStateException("Missing MongoDB indexes: " + missing));
+        }
+        log.info("Verified MongoDB indexes: {}", indexes.stream().map(index -> index.getIndexOptions().getString("name")).toList());
+        return Mono.empty();
+    }
+}
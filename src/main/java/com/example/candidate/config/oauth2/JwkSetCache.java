@@ -0,0 +1,175 @@
+package com.example.candidate.config.oauth2;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The identity provider's signing keys, fetched when the application starts and refreshed in the background
+ * shortly before the provider's {@code Cache-Control: max-age} runs out (or every
+ * {@link JwkSetProperties#getRefreshInterval()} if it sends none), so no request waits for the JWK set.
+ * <p>
+ * The first fetch is waited for, up to {@link JwkSetProperties#getTimeout()}, in a lifecycle phase that starts
+ * before the web server does, so the application does not take requests before it has the keys. If that fetch
+ * fails the application starts anyway, and the background refresh keeps trying.
+ * <p>
+ * A token signed with a key that is not in the set, as happens right after a key rotation, triggers one
+ * refetch. Concurrent requests wait for that same fetch, and such refetches happen at most once per
+ * {@link JwkSetProperties#getMinimumRefetchInterval()}, so tokens with made-up key ids cannot flood the
+ * provider. If a fetch fails, the keys already known stay in use and the background refresh is retried after
+ * that same interval.
+ */
+@Slf4j
+public class JwkSetCache implements SmartLifecycle {
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final double REFRESH_AT_FRACTION_OF_MAX_AGE = 0.8;
+    /**
+     * Well ahead of the web server, which is started in one of the last phases.
+     */
+    private static final int PHASE = 0;
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final JwkSetProperties properties;
+    private final AtomicReference<Mono<JWKSet>> inFlight = new AtomicReference<>();
+    private volatile JWKSet jwkSet;
+    private volatile Instant lastFetchStarted = Instant.MIN;
+    private volatile Duration nextRefreshIn;
+    private volatile Disposable refresher;
+
+    public JwkSetCache(WebClient webClient, String jwkSetUri, JwkSetProperties properties) {
+        this.webClient = webClient;
+        this.jwkSetUri = jwkSetUri;
+        this.properties = properties;
+        this.nextRefreshIn = properties.getRefreshInterval();
+    }
+
+    @Override
+    public void start() {
+        refreshKeepingKnownKeys().block();
+        refresher = Mono.defer(() -> Mono.delay(nextRefreshIn))
+                .then(refreshKeepingKnownKeys())
+                .repeat()
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return refresher != null && !refresher.isDisposed();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * The keys that may have signed {@code jwt}, refetching the set once if none of the known keys match.
+     */
+    public Flux<JWK> keysFor(SignedJWT jwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+        JWKSet known = jwkSet;
+        List<JWK> keys = known == null ? List.of() : selector.select(known);
+        if (!keys.isEmpty()) {
+            return Flux.fromIterable(keys);
+        }
+        if (inFlight.get() == null && lastFetchStarted.plus(properties.getMinimumRefetchInterval()).isAfter(Instant.now())) {
+            // A fetch may have landed since the keys were read above.
+            JWKSet latest = jwkSet;
+            return latest == known ? Flux.empty() : Flux.fromIterable(selector.select(latest));
+        }
+        return refresh()
+                .flatMapIterable(selector::select);
+    }
+
+    /**
+     * Fetches the JWK set, or joins the fetch already in progress. The fetch stops being joinable before it
+     * hands out its result, so nobody who arrives after that result was stored is given it again as new.
+     */
+    Mono<JWKSet> refresh() {
+        return Mono.defer(() -> {
+            Mono<JWKSet> current = inFlight.get();
+            if (current != null) {
+                return current;
+            }
+            Mono<JWKSet> fetch = fetch()
+                    .doOnSuccess(fetched -> inFlight.set(null))
+                    .doOnError(error -> inFlight.set(null))
+                    .cache();
+            if (!inFlight.compareAndSet(null, fetch)) {
+                return refresh();
+            }
+            return fetch;
+        });
+    }
+
+    private Mono<JWKSet> refreshKeepingKnownKeys() {
+        return refresh()
+                .onErrorResume(error -> {
+                    log.warn("Could not fetch the JWK set from {}, keeping the keys already known", jwkSetUri, error);
+                    nextRefreshIn = properties.getMinimumRefetchInterval();
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<JWKSet> fetch() {
+        return Mono.defer(() -> {
+                    lastFetchStarted = Instant.now();
+                    return webClient.get()
+                            .uri(jwkSetUri)
+                            .retrieve()
+                            .toEntity(String.class);
+                })
+                .timeout(properties.getTimeout())
+                .map(this::accept);
+    }
+
+    private JWKSet accept(ResponseEntity<String> response) {
+        JWKSet fetched;
+        try {
+            fetched = JWKSet.parse(response.getBody());
+        } catch (ParseException e) {
+            throw new IllegalStateException("Malformed JWK set from " + jwkSetUri, e);
+        }
+        jwkSet = fetched;
+        nextRefreshIn = refreshDelay(response.getHeaders());
+        return fetched;
+    }
+
+    private Duration refreshDelay(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            Matcher maxAge = MAX_AGE.matcher(cacheControl);
+            if (maxAge.find()) {
+                Duration refreshIn = Duration.ofMillis((long) (Long.parseLong(maxAge.group(1)) * 1000 * REFRESH_AT_FRACTION_OF_MAX_AGE));
+                return refreshIn.compareTo(properties.getMinimumRefetchInterval()) < 0 ? properties.getMinimumRefetchInterval() : refreshIn;
+            }
+        }
+        return properties.getRefreshInterval();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.candidate.config.oauth2;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt.jwk-set")
+public class JwkSetProperties {
+    /**
+     * How often the keys are refreshed when the identity provider does not say how long they may be cached.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    /**
+     * Shortest time between two refetches caused by tokens signed with an unknown key.
+     */
+    private Duration minimumRefetchInterval = Duration.ofSeconds(10);
+    private Duration timeout = Duration.ofSeconds(5);
+}
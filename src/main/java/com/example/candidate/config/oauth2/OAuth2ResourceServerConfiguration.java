@@ -12,17 +12,25 @@ import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 
 @Configuration
 public class OAuth2ResourceServerConfiguration {
+    @Bean
+    @ConditionalOnProperty(name = {
+            "spring.security.oauth2.resourceserver.jwt.jwk-set-uri",
+            "spring.security.oauth2.resourceserver.jwt.useInsecureTrustManager"
+    })
+    JwkSetCache insecureJwkSetCache(OAuth2ResourceServerProperties properties, JwkSetProperties jwkSetProperties) {
+        return new JwkSetCache(InsecureWebClient.getInstance(), properties.getJwt().getJwkSetUri(), jwkSetProperties);
+    }
+
     @Bean
     @Primary
     @ConditionalOnProperty(name = {
             "spring.security.oauth2.resourceserver.jwt.jwk-set-uri",
             "spring.security.oauth2.resourceserver.jwt.useInsecureTrustManager"
     })
-    ReactiveJwtDecoder insecureJwtDecoder(OAuth2ResourceServerProperties properties) {
+    ReactiveJwtDecoder insecureJwtDecoder(JwkSetCache insecureJwkSetCache) {
         var jwtDecoder = NimbusReactiveJwtDecoder
-                .withJwkSetUri(properties.getJwt().getJwkSetUri())
-                .jwsAlgorithms(algorithms -> algorithms.add(SignatureAlgorithm.from("RS256")))
-                .webClient(InsecureWebClient.getInstance())
+                .withJwkSource(insecureJwkSetCache::keysFor)
+                .jwsAlgorithm(SignatureAlgorithm.RS256)
                 .build();
         jwtDecoder.setJwtValidator(JwtValidators.createDefault());
         return jwtDecoder;
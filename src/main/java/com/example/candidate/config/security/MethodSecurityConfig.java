@@ -0,0 +1,25 @@
+package com.example.candidate.config.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+
+/**
+ * Enforces the {@code @PreAuthorize} expressions of the controllers, parsed by {@link RoleExpressionParser} so
+ * that role checks are decided from role bits rather than by evaluating SpEL on every call.
+ */
+@Configuration
+@EnableReactiveMethodSecurity(useAuthorizationManager = true)
+public class MethodSecurityConfig {
+
+    @Bean
+    @Primary
+    static MethodSecurityExpressionHandler roleExpressionHandler() {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setExpressionParser(new RoleExpressionParser());
+        return expressionHandler;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.candidate.config.security;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Fails the startup when a handler's {@link PreAuthorize} expression is not one {@link RoleExpressionParser}
+ * compiles, so that no route is left to be decided by SpEL by accident.
+ */
+@Component
+public class PreAuthorizeExpressionVerifier {
+
+    public PreAuthorizeExpressionVerifier(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
+        for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+            PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), PreAuthorize.class);
+            if (preAuthorize == null) {
+                preAuthorize = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), PreAuthorize.class);
+            }
+            if (preAuthorize != null) {
+                RoleExpressionParser.compile(preAuthorize.value(), handlerMethod);
+            }
+        }
+    }
+}
@@ -1,20 +1,18 @@
 package com.example.candidate.config.security;
 
-import com.example.candidate.config.jwt.JwtAuthConverter;
+import com.example.candidate.config.jwt.CachingJwtAuthenticationManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
 @Configuration
 @EnableWebFluxSecurity
-@EnableReactiveMethodSecurity
 @RequiredArgsConstructor
 public class ReactiveSecurityConfig {
-    private final JwtAuthConverter jwtAuthConverter;
+    private final CachingJwtAuthenticationManager cachingJwtAuthenticationManager;
 
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
@@ -26,7 +24,7 @@ public class ReactiveSecurityConfig {
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(jwt -> jwt
-                                .jwtAuthenticationConverter(jwtAuthConverter)
+                                .authenticationManager(cachingJwtAuthenticationManager)
                         )
                 );
 
@@ -0,0 +1,77 @@
+package com.example.candidate.config.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The client roles routes are restricted to, each with its own bit so that the roles a route accepts and the
+ * roles a caller holds can be compared with a single AND.
+ */
+public enum Role {
+    HR("client-hr"),
+    ADMIN("client-admin"),
+    DEVELOPER("client-developer");
+
+    private static final String PREFIX = "ROLE_";
+    private static final int MAX_INTERNED_AUTHORITIES = 1024;
+    private static final Map<String, Role> BY_AUTHORITY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(role -> role.authority.getAuthority(), Function.identity()));
+    private static final Map<String, GrantedAuthority> INTERNED = new ConcurrentHashMap<>();
+
+    private final GrantedAuthority authority;
+    private final int bit;
+
+    Role(String name) {
+        this.authority = new SimpleGrantedAuthority(PREFIX + name);
+        this.bit = 1 << ordinal();
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * The {@code ROLE_} authority for a role name from the token, shared between requests instead of allocated
+     * for each one.
+     */
+    public static GrantedAuthority authorityOf(String roleName) {
+        String authority = PREFIX + roleName;
+        Role role = BY_AUTHORITY.get(authority);
+        if (role != null) {
+            return role.authority;
+        }
+        GrantedAuthority interned = INTERNED.get(authority);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED.size() >= MAX_INTERNED_AUTHORITIES) {
+            return new SimpleGrantedAuthority(authority);
+        }
+        return INTERNED.computeIfAbsent(authority, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * The role named by a {@code hasRole} argument, with or without the {@code ROLE_} prefix, or null.
+     */
+    public static Role fromRoleName(String roleName) {
+        return BY_AUTHORITY.get(roleName.startsWith(PREFIX) ? roleName : PREFIX + roleName);
+    }
+
+    public static int maskOf(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            Role role = BY_AUTHORITY.get(authority.getAuthority());
+            if (role != null) {
+                mask |= role.bit;
+            }
+        }
+        return mask;
+    }
+}
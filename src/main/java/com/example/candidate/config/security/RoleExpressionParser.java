@@ -0,0 +1,58 @@
+package com.example.candidate.config.security;
+
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses method security expressions as SpEL, except that disjunctions of {@code hasRole(...)} are compiled
+ * into a {@link RoleMaskExpression}, which decides with a single AND of role bits instead of evaluating SpEL.
+ * Method security parses each method's expression once and keeps it, so the compiled decision is cached per
+ * method.
+ */
+public class RoleExpressionParser extends SpelExpressionParser {
+    private static final Pattern HAS_ROLE = Pattern.compile("hasRole\\('([^']+)'\\)");
+    private static final Pattern OR = Pattern.compile("\\s+or\\s+");
+    private static final SpelParserConfiguration CONFIGURATION = new SpelParserConfiguration();
+
+    public RoleExpressionParser() {
+        super(CONFIGURATION);
+    }
+
+    @Override
+    protected SpelExpression doParseExpression(String expressionString, ParserContext context) {
+        SpelExpression expression = super.doParseExpression(expressionString, context);
+        int requiredRoles = compile(expressionString);
+        return requiredRoles == 0 ? expression : new RoleMaskExpression(expression, CONFIGURATION, requiredRoles);
+    }
+
+    /**
+     * The bitmask of the {@link Role}s an expression accepts, failing for anything but a disjunction of
+     * {@code hasRole(...)} of known roles.
+     */
+    static int compile(String expression, Object source) {
+        int mask = compile(expression);
+        if (mask == 0) {
+            throw new IllegalStateException("Unsupported @PreAuthorize expression \"" + expression + "\" on " + source
+                    + ": only hasRole(...) of known roles joined with 'or' is supported");
+        }
+        return mask;
+    }
+
+    private static int compile(String expression) {
+        int mask = 0;
+        for (String term : OR.split(expression.trim())) {
+            Matcher hasRole = HAS_ROLE.matcher(term.trim());
+            Role role = hasRole.matches() ? Role.fromRoleName(hasRole.group(1)) : null;
+            if (role == null) {
+                return 0;
+            }
+            mask |= role.bit();
+        }
+        return mask;
+    }
+}
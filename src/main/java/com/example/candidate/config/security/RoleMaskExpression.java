@@ -0,0 +1,46 @@
+package com.example.candidate.config.security;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.SpelNodeImpl;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.security.access.expression.SecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * A {@code hasRole(...) or ...} expression evaluated as an AND of the caller's role bits with the roles it
+ * accepts. Outside a security evaluation context it evaluates the SpEL it was compiled from.
+ */
+class RoleMaskExpression extends SpelExpression {
+    private final int requiredRoles;
+
+    RoleMaskExpression(SpelExpression expression, SpelParserConfiguration configuration, int requiredRoles) {
+        super(expression.getExpressionString(), (SpelNodeImpl) expression.getAST(), configuration);
+        this.requiredRoles = requiredRoles;
+    }
+
+    int requiredRoles() {
+        return requiredRoles;
+    }
+
+    @Override
+    public Object getValue(EvaluationContext context) throws EvaluationException {
+        if (context.getRootObject().getValue() instanceof SecurityExpressionOperations root) {
+            return isGranted(root.getAuthentication());
+        }
+        return super.getValue(context);
+    }
+
+    @Override
+    public <T> T getValue(EvaluationContext context, Class<T> expectedResultType) throws EvaluationException {
+        if (expectedResultType == Boolean.class && context.getRootObject().getValue() instanceof SecurityExpressionOperations root) {
+            return expectedResultType.cast(isGranted(root.getAuthentication()));
+        }
+        return super.getValue(context, expectedResultType);
+    }
+
+    private boolean isGranted(Authentication authentication) {
+        return authentication != null && (Role.maskOf(authentication.getAuthorities()) & requiredRoles) != 0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.candidate.controller;
+
+import com.example.candidate.model.BulkJob;
+import com.example.candidate.service.CandidateBulkService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Candidate bulk operations", description = "Operations applied to many candidates at once")
+@RequestMapping("/api/v1/candidates/bulk")
+public class CandidateBulkController {
+    private static final String JOBS_PATH = "/api/v1/candidates/bulk/jobs/";
+
+    private final CandidateBulkService candidateBulkService;
+
+    @Operation(summary = "Reassign candidates to another developer", description = "Moves every candidate assigned to a developer to another developer in one update")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates reassigned; the job reports how many", content = @Content(schema = @Schema(implementation = BulkJob.class))),
+            @ApiResponse(responseCode = "202", description = "Reassignment started; poll the job in the Location header", content = @Content(schema = @Schema(implementation = BulkJob.class)))
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @PutMapping("/assigned/{developerId}/reassign/{newDeveloperId}")
+    public Mono<ResponseEntity<BulkJob>> reassignCandidates(
+            @Parameter(description = "ID of the developer the candidates are currently assigned to") @PathVariable String developerId,
+            @Parameter(description = "ID of the developer to assign the candidates to") @PathVariable String newDeveloperId,
+            @Parameter(description = "Run in the background and return immediately") @RequestParam(defaultValue = "false") boolean async) {
+        return candidateBulkService.reassignCandidates(developerId, newDeveloperId, async)
+                .map(job -> toResponse(job, async));
+    }
+
+    @Operation(summary = "Move candidates to another position", description = "Moves every candidate of a position who has not been hired to another position in one update")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates moved; the job reports how many", content = @Content(schema = @Schema(implementation = BulkJob.class))),
+            @ApiResponse(responseCode = "202", description = "Move started; poll the job in the Location header", content = @Content(schema = @Schema(implementation = BulkJob.class))),
+            @ApiResponse(responseCode = "404", description = "Target position not found")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @PutMapping("/position/{positionId}/move/{newPositionId}")
+    public Mono<ResponseEntity<BulkJob>> moveCandidates(
+            @Parameter(description = "ID of the position the candidates currently belong to") @PathVariable String positionId,
+            @Parameter(description = "ID of the position to move the candidates to") @PathVariable String newPositionId,
+            @Parameter(description = "Run in the background and return immediately") @RequestParam(defaultValue = "false") boolean async) {
+        return candidateBulkService.moveCandidates(positionId, newPositionId, async)
+                .map(job -> toResponse(job, async));
+    }
+
+    @Operation(summary = "Delete all candidates of a position", description = "Deletes every candidate of a position who has not been hired in one delete, typically before cancelling it")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates deleted; the job reports how many", content = @Content(schema = @Schema(implementation = BulkJob.class))),
+            @ApiResponse(responseCode = "202", description = "Deletion started; poll the job in the Location header", content = @Content(schema = @Schema(implementation = BulkJob.class)))
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @DeleteMapping("/position/{positionId}")
+    public Mono<ResponseEntity<BulkJob>> deleteCandidatesByPositionId(
+            @Parameter(description = "ID of the position whose candidates are deleted") @PathVariable String positionId,
+            @Parameter(description = "Run in the background and return immediately") @RequestParam(defaultValue = "false") boolean async) {
+        return candidateBulkService.deleteCandidatesByPositionId(positionId, async)
+                .map(job -> toResponse(job, async));
+    }
+
+    @Operation(summary = "Get a bulk job", description = "Reports the progress of a background bulk operation")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Job retrieved successfully", content = @Content(schema = @Schema(implementation = BulkJob.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @GetMapping("/jobs/{jobId}")
+    public Mono<ResponseEntity<BulkJob>> getJob(
+            @Parameter(description = "ID of the bulk job") @PathVariable String jobId) {
+        return candidateBulkService.getJob(jobId)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Cancel a bulk job", description = "Stops a background bulk operation before its next batch; candidates already processed stay processed")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Job cancelled, or already finished; the job reports its state", content = @Content(schema = @Schema(implementation = BulkJob.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @DeleteMapping("/jobs/{jobId}")
+    public Mono<ResponseEntity<BulkJob>> cancelJob(
+            @Parameter(description = "ID of the bulk job") @PathVariable String jobId) {
+        return candidateBulkService.cancelJob(jobId)
+                .map(ResponseEntity::ok);
+    }
+
+    private static ResponseEntity<BulkJob> toResponse(BulkJob job, boolean async) {
+        if (!async) {
+            return ResponseEntity.ok(job);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create(JOBS_PATH + job.getId()))
+                .body(job);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.candidate.controller;
+
+import com.example.candidate.model.CandidateImportResult;
+import com.example.candidate.service.CandidateImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Candidate import", description = "Bulk import of candidates")
+@RequestMapping("/api/v1/candidates/import")
+public class CandidateImportController {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final CandidateImportService candidateImportService;
+
+    @Operation(summary = "Import candidates from NDJSON", description = "Creates one candidate per line and streams back one result per line, in input order")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import processed; see each row's outcome", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = CandidateImportResult.class)))
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CandidateImportResult> importCandidates(
+            @Parameter(description = "Newline-delimited candidate objects")
+            @RequestBody Flux<String> lines) {
+        return candidateImportService.importCandidates(lines);
+    }
+
+    @Operation(summary = "Import candidates from CSV", description = "Creates one candidate per CSV row after the header and streams back one result per row, in input order")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import processed; see each row's outcome", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = CandidateImportResult.class)))
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @PostMapping(consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CandidateImportResult> importCandidatesFromCsv(
+            @Parameter(description = "CSV with a header row naming the candidate fields")
+            @RequestBody Flux<String> lines) {
+        return candidateImportService.importCandidatesFromCsv(lines);
+    }
+}
@@ -1,7 +1,15 @@
 package com.example.candidate.controller;
 
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateSuggestion;
+import com.example.candidate.model.HiringStats;
+import com.example.candidate.pagination.CursorPage;
+import com.example.candidate.projection.FieldSelection;
+import com.example.candidate.projection.Projections;
 import com.example.candidate.service.CandidateService;
+import com.example.candidate.service.MergePatchTranslator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,13 +20,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @Tag(name = "Candidates", description = "Operations related to candidates")
 @RestController
@@ -38,8 +52,8 @@ public class CandidatesController {
     public Mono<ResponseEntity<Candidate>> addCandidate(
             @Parameter(description = "Candidate object containing the necessary information to create a new candidate record. This includes personal details, qualifications, and any other relevant information.")
             @Valid @RequestBody Candidate candidate) {
-        Candidate addedCandidate = candidateService.addCandidate(candidate);
-        return Mono.just(ResponseEntity.status(HttpStatus.CREATED).body(addedCandidate));
+        return candidateService.addCandidate(candidate)
+                .map(addedCandidate -> ResponseEntity.status(HttpStatus.CREATED).body(addedCandidate));
     }
 
     @Operation(summary = "Get all candidates", description = "Retrieves a list of all candidates")
@@ -49,35 +63,95 @@ public class CandidatesController {
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
     @GetMapping
     public Mono<ResponseEntity<List<Candidate>>> getAllCandidates() {
-        return Mono.just(ResponseEntity.ok(candidateService.getAllCandidates()));
+        return candidateService.getAllCandidates()
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get selected fields of all candidates", description = "Retrieves all candidates ordered by name with only the requested fields, which are the only ones read from the database")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @GetMapping(params = {"fields", "!name"})
+    public Mono<ResponseEntity<List<Map<String, Object>>>> getAllCandidateFields(
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name,positionId,assignedTo") @RequestParam String fields) {
+        FieldSelection<Candidate> selection = Projections.CANDIDATE.select(fields);
+        return candidateService.getAllCandidates(selection)
+                .map(selection::render)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Stream all candidates", description = "Streams candidates as newline-delimited JSON or server-sent events while they are read from the database")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates streamed successfully", content = {
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Candidate.class)),
+                    @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = Candidate.class))
+            })
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Candidate> streamAllCandidates() {
+        return candidateService.streamAllCandidates();
     }
 
     @Operation(summary = "Get a candidate by ID", description = "Retrieves a candidate by their ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Candidate retrieved successfully", content = @Content(schema = @Schema(implementation = Candidate.class))),
+            @ApiResponse(responseCode = "304", description = "Candidate has not changed since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Candidate not found")
     })
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-developer') or hasRole('ROLE_client-admin')")
     @GetMapping("/{id}")
     public Mono<ResponseEntity<Candidate>> getCandidateById(
-            @Parameter(description = "ID of the candidate to be retrieved") @PathVariable String id) {
-        Candidate candidate = candidateService.getCandidateById(id);
-        return Mono.just(ResponseEntity.ok(candidate));
+            @Parameter(description = "ID of the candidate to be retrieved") @PathVariable String id,
+            @Parameter(description = "ETag of the version the client already has") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<ResponseEntity<Candidate>> candidate = Mono.defer(() -> candidateService.getCandidateById(id))
+                .map(found -> ResponseEntity.ok().eTag(ETags.of(found.getVersion())).body(found));
+        if (ifNoneMatch == null) {
+            return candidate;
+        }
+        return candidateService.getCandidateVersion(id)
+                .map(ETags::of)
+                .filter(eTag -> ETags.matches(ifNoneMatch, eTag))
+                .map(ETags::<Candidate>notModified)
+                .switchIfEmpty(candidate);
     }
 
-    @Operation(summary = "Update a candidate", description = "Updates the details of an existing candidate")
+    @Operation(summary = "Update a candidate", description = "Updates the details of an existing candidate. Send the ETag of the version being edited in If-Match to reject the update if someone else changed the candidate first")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Candidate updated successfully", content = @Content(schema = @Schema(implementation = Candidate.class))),
             @ApiResponse(responseCode = "400", description = "Validation failed"),
-            @ApiResponse(responseCode = "404", description = "Candidate not found")
+            @ApiResponse(responseCode = "404", description = "Candidate not found"),
+            @ApiResponse(responseCode = "412", description = "Candidate was changed since the version in If-Match")
     })
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
     @PutMapping("/{id}")
     public Mono<ResponseEntity<Candidate>> updateCandidate(
             @Parameter(description = "ID of the candidate to be updated") @PathVariable String id,
+            @Parameter(description = "ETag of the version being updated") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Candidate object containing the updated information") @Valid @RequestBody Candidate candidate) {
-        Candidate updatedCandidate = candidateService.updateCandidate(id, candidate);
-        return Mono.just(ResponseEntity.ok(updatedCandidate));
+        return candidateService.updateCandidate(id, candidate, ETags.expectedVersion(ifMatch))
+                .map(updatedCandidate -> ResponseEntity.ok().eTag(ETags.of(updatedCandidate.getVersion())).body(updatedCandidate));
+    }
+
+    @Operation(summary = "Patch a candidate", description = "Changes only the fields present in a JSON Merge Patch document; a field set to null is removed. Send the ETag of the version being edited in If-Match to reject the patch if someone else changed the candidate first")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidate patched successfully", content = @Content(schema = @Schema(implementation = Candidate.class))),
+            @ApiResponse(responseCode = "400", description = "A patched field is unknown, read-only or invalid"),
+            @ApiResponse(responseCode = "404", description = "Candidate not found"),
+            @ApiResponse(responseCode = "412", description = "Candidate was changed since the version in If-Match")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @PatchMapping(value = "/{id}", consumes = MergePatchTranslator.MERGE_PATCH_JSON_VALUE)
+    public Mono<ResponseEntity<Candidate>> patchCandidate(
+            @Parameter(description = "ID of the candidate to be patched") @PathVariable String id,
+            @Parameter(description = "ETag of the version being patched") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "JSON Merge Patch with the fields to change") @RequestBody Map<String, Object> patch) {
+        return candidateService.patchCandidate(id, patch, ETags.expectedVersion(ifMatch))
+                .map(patchedCandidate -> ResponseEntity.ok().eTag(ETags.of(patchedCandidate.getVersion())).body(patchedCandidate));
     }
 
     @Operation(summary = "Get candidates by name", description = "Retrieves candidates by their name")
@@ -89,7 +163,36 @@ public class CandidatesController {
     @GetMapping(params = "name")
     public Mono<ResponseEntity<List<Candidate>>> getCandidateByName(
             @Parameter(description = "Name of the candidates to be retrieved") @RequestParam String name) {
-        return Mono.just(ResponseEntity.ok(candidateService.getCandidateByName(name)));
+        return candidateService.getCandidateByName(name)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Suggest candidate names", description = "Returns the first candidates whose name starts with the given prefix, ignoring case")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully", content = @Content(array = @ArraySchema(schema = @Schema(implementation = CandidateSuggestion.class))))
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-developer') or hasRole('ROLE_client-admin')")
+    @GetMapping("/typeahead")
+    public Mono<ResponseEntity<List<CandidateSuggestion>>> suggestCandidateNames(
+            @Parameter(description = "Beginning of the candidate name") @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions") @RequestParam(defaultValue = "10") int limit) {
+        return candidateService.suggestCandidateNames(prefix, limit)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get hiring statistics", description = "Counts candidates per position, per assigned developer and hired vs. not hired, and positions per status and sub-status, in a single query. The interview date range, inclusive on both ends, only narrows the candidates")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully", content = @Content(schema = @Schema(implementation = HiringStats.class)))
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<HiringStats>> getHiringStats(
+            @Parameter(description = "Earliest interview date to count, e.g. 2024-01-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate interviewFrom,
+            @Parameter(description = "Latest interview date to count, e.g. 2024-12-31") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate interviewTo) {
+        return candidateService.getHiringStats(interviewFrom, interviewTo)
+                .map(ResponseEntity::ok);
     }
 
     @Operation(summary = "Get candidates assigned to a developer", description = "Retrieves candidates assigned to a developer")
@@ -100,8 +203,27 @@ public class CandidatesController {
     @PreAuthorize("hasRole('ROLE_client-developer') or hasRole('ROLE_client-admin')")
     @GetMapping("/assigned/{developerId}")
     public Mono<ResponseEntity<List<Candidate>>> getCandidatesAssignedToDeveloper(@PathVariable String developerId) {
-        List<Candidate> assignedCandidates = candidateService.findCandidatesByAssignedTo(developerId);
-        return Mono.just(ResponseEntity.ok(assignedCandidates));
+        return candidateService.findCandidatesByAssignedTo(developerId)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get selected fields of candidates assigned to a developer", description = "Retrieves candidates assigned to a developer with only the requested fields")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested"),
+            @ApiResponse(responseCode = "404", description = "No candidates found")
+    })
+    @PreAuthorize("hasRole('ROLE_client-developer') or hasRole('ROLE_client-admin')")
+    @GetMapping(value = "/assigned/{developerId}", params = "fields")
+    public Mono<ResponseEntity<List<Map<String, Object>>>> getCandidateFieldsAssignedToDeveloper(
+            @PathVariable String developerId,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name,positionId,assignedTo") @RequestParam String fields) {
+        FieldSelection<Candidate> selection = Projections.CANDIDATE.select(fields);
+        return candidateService.findCandidatesByAssignedTo(developerId, selection)
+                .map(selection::render)
+                .collectList()
+                .map(ResponseEntity::ok);
     }
 
     @Operation(summary = "Delete a candidate", description = "Deletes a candidate by their ID")
@@ -113,8 +235,8 @@ public class CandidatesController {
     @DeleteMapping("/{id}")
     public Mono<ResponseEntity<Void>> deleteCandidate(
             @Parameter(description = "ID of the candidate to be deleted") @PathVariable String id) {
-        candidateService.deleteCandidate(id);
-        return Mono.just(ResponseEntity.noContent().build());
+        return candidateService.deleteCandidate(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
     }
     @Operation(summary = "Get candidates by position id", description = "Returns a list of candidates based on the position ID")
     @ApiResponses({
@@ -125,7 +247,26 @@ public class CandidatesController {
     @GetMapping("/position/{positionId}")
     public Mono<ResponseEntity<List<Candidate>>> getCandidatesByPositionId(
             @Parameter(description = "ID of the position to retrieve candidates") @PathVariable String positionId) {
-        return Mono.just(ResponseEntity.ok(candidateService.getCandidatesByPositionId(positionId)));
+        return candidateService.getCandidatesByPositionId(positionId)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get selected fields of candidates by position id", description = "Returns the candidates of a position with only the requested fields")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @GetMapping(value = "/position/{positionId}", params = "fields")
+    public Mono<ResponseEntity<List<Map<String, Object>>>> getCandidateFieldsByPositionId(
+            @Parameter(description = "ID of the position to retrieve candidates") @PathVariable String positionId,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name,positionId,assignedTo") @RequestParam String fields) {
+        FieldSelection<Candidate> selection = Projections.CANDIDATE.select(fields);
+        return candidateService.getCandidatesByPositionId(positionId, selection)
+                .map(selection::render)
+                .collectList()
+                .map(ResponseEntity::ok);
     }
 
     @Operation(summary = "Get a candidate by document ID", description = "Retrieves a candidate by their document ID")
@@ -137,8 +278,21 @@ public class CandidatesController {
     @GetMapping("/document/{documentId}")
     public Mono<ResponseEntity<Candidate>> findCandidateByDocumentId(
             @Parameter(description = "Document ID of the candidate to be retrieved") @PathVariable String documentId) {
-        Candidate candidate = candidateService.findCandidateByDocumentId(documentId);
-        return Mono.just(ResponseEntity.ok(candidate));
+        return candidateService.findCandidateByDocumentId(documentId)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get candidates by ids or document ids", description = "Resolves up to the configured number of candidate ids, or document ids, in one call. Results follow the order of the requested keys, with found=false for keys that match no candidate")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates resolved"),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and documentIds given, or too many keys")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-developer') or hasRole('ROLE_client-admin')")
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<BatchLookupResult<Candidate>>>> lookupCandidates(
+            @Parameter(description = "Either the candidate ids or the document ids to resolve") @RequestBody BatchLookupRequest request) {
+        return candidateService.lookupCandidates(request)
+                .map(ResponseEntity::ok);
     }
 
     @Operation(summary = "Hire a candidate", description = "Marks a candidate as hired")
@@ -151,7 +305,67 @@ public class CandidatesController {
     public Mono<ResponseEntity<Void>> hireCandidate(
             @Parameter(description = "ID of the candidate to be hired") @PathVariable String id,
             @Parameter(description = "ID of the position to which the candidate is hired") @PathVariable String positionId) {
-        candidateService.hireCandidate(id, positionId);
-        return Mono.just(ResponseEntity.noContent().build());
+        return candidateService.hireCandidate(id, positionId)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @Operation(summary = "Get a page of candidates", description = "Retrieves candidates ordered by name, one page at a time. Pass the returned nextCursor to fetch the following page")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @GetMapping("/page")
+    public Mono<ResponseEntity<CursorPage<Candidate>>> getCandidatesPage(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of candidates on the page") @RequestParam(required = false) Integer size) {
+        return candidateService.getCandidatesPage(cursor, size)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get a page of selected candidate fields", description = "Retrieves candidates ordered by name, one page at a time, with only the requested fields")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor or unknown field requested")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @GetMapping(value = "/page", params = "fields")
+    public Mono<ResponseEntity<CursorPage<Map<String, Object>>>> getCandidateFieldsPage(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of candidates on the page") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name,positionId,assignedTo") @RequestParam String fields) {
+        FieldSelection<Candidate> selection = Projections.CANDIDATE.select(fields);
+        return candidateService.getCandidatesPage(cursor, size, selection)
+                .map(page -> ResponseEntity.ok(new CursorPage<>(page.getContent().stream().map(selection::render).toList(), page.getNextCursor())));
+    }
+
+    @Operation(summary = "Get a page of candidates by position id", description = "Retrieves candidates of a position ordered by name, one page at a time")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor")
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    @GetMapping("/position/{positionId}/page")
+    public Mono<ResponseEntity<CursorPage<Candidate>>> getCandidatesPageByPositionId(
+            @Parameter(description = "ID of the position to retrieve candidates") @PathVariable String positionId,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of candidates on the page") @RequestParam(required = false) Integer size) {
+        return candidateService.getCandidatesPageByPositionId(positionId, cursor, size)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get a page of candidates assigned to a developer", description = "Retrieves candidates assigned to a developer ordered by name, one page at a time")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Candidates retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor")
+    })
+    @PreAuthorize("hasRole('ROLE_client-developer') or hasRole('ROLE_client-admin')")
+    @GetMapping("/assigned/{developerId}/page")
+    public Mono<ResponseEntity<CursorPage<Candidate>>> getCandidatesPageAssignedToDeveloper(
+            @PathVariable String developerId,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of candidates on the page") @RequestParam(required = false) Integer size) {
+        return candidateService.getCandidatesPageByAssignedTo(developerId, cursor, size)
+                .map(ResponseEntity::ok);
     }
 }
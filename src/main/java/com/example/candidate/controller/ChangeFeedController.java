@@ -0,0 +1,58 @@
+package com.example.candidate.controller;
+
+import com.example.candidate.changes.ChangeFeedHub;
+import com.example.candidate.changes.ChangeFeedProperties;
+import com.example.candidate.model.ChangeEvent;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Changes", description = "Live feed of changes to candidates and positions")
+@RequestMapping("/api/v1/changes")
+public class ChangeFeedController {
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ChangeFeedHub changeFeedHub;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    @Operation(summary = "Stream changes", description = "Pushes an event for every insert, update and delete of a candidate or position. "
+            + "Reconnect with the id of the last event received in Last-Event-ID to get the changes missed in between; "
+            + "a reset event means changes were lost and the client should reload")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Change stream opened", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = ChangeEvent.class)))
+    })
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin') or hasRole('ROLE_client-developer')")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChangeEvent>> streamChanges(
+            @Parameter(description = "Id of the last event received before reconnecting") @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId,
+            @Parameter(description = "Only changes to these collections (candidates, positions)") @RequestParam(required = false) Set<String> collection) {
+        Flux<ServerSentEvent<ChangeEvent>> changes = changeFeedHub.events(lastEventId)
+                .filter(event -> collection == null || event.getCollection() == null || collection.contains(event.getCollection()))
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.getResumeToken())
+                        .event(event.getOperation().name().toLowerCase(Locale.ROOT))
+                        .build());
+        Flux<ServerSentEvent<ChangeEvent>> heartbeats = Flux.interval(changeFeedProperties.getHeartbeat())
+                .map(tick -> ServerSentEvent.<ChangeEvent>builder().comment("heartbeat").build());
+        return Flux.merge(changes, heartbeats);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.candidate.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Maps document versions to strong entity tags and back.
+ */
+final class ETags {
+    /**
+     * Version that no document has, used for an If-Match value that does not name a version so the
+     * conditional write fails with 412 instead of being applied unconditionally.
+     */
+    private static final long UNMATCHABLE_VERSION = -1L;
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return version == null ? null : ofToken(version.toString());
+    }
+
+    static String ofToken(String token) {
+        return "\"" + token + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header names {@code eTag}, using the weak comparison RFC 9110 asks for on
+     * conditional reads. There is never a match when the current entity tag is unknown.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*") || stripWeakPrefix(tag).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    /**
+     * The version an If-Match header requires, or null when there is no precondition (no header or {@code *}).
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = stripWeakPrefix(ifMatch.strip());
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE_VERSION;
+        }
+    }
+
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
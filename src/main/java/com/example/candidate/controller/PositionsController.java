@@ -1,8 +1,15 @@
 package com.example.candidate.controller;
 
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Position;
+import com.example.candidate.model.PositionWithCandidates;
 import com.example.candidate.model.Status;
 import com.example.candidate.model.SubStatus;
+import com.example.candidate.pagination.CursorPage;
+import com.example.candidate.projection.FieldSelection;
+import com.example.candidate.projection.Projections;
+import com.example.candidate.service.MergePatchTranslator;
 import com.example.candidate.service.PositionsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Tag(name = "Positions", description = "Operations related to positions")
@@ -28,23 +37,98 @@ public class PositionsController {
 
     @Operation(summary = "Get all positions", description = "Retrieves a list of all positions")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Positions retrieved successfully")
+            @ApiResponse(responseCode = "200", description = "Positions retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "No position has changed since the ETag in If-None-Match")
     })
     @GetMapping
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin') or hasRole('ROLE_client-developer')")
-    public Mono<ResponseEntity<List<Position>>> getAllPositions() {
-        return Mono.just(ResponseEntity.ok(positionsService.getAllPositions()));
+    public Mono<ResponseEntity<List<Position>>> getAllPositions(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = positionsChangeETag();
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return Mono.just(ETags.notModified(eTag));
+        }
+        return positionsService.getAllPositions()
+                .collectList()
+                .map(positions -> ResponseEntity.ok().eTag(eTag).body(positions));
+    }
+
+    @Operation(summary = "Get selected fields of all positions", description = "Retrieves all positions with only the requested fields")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Positions retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "No position has changed since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    })
+    @GetMapping(params = {"fields", "!status"})
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin') or hasRole('ROLE_client-developer')")
+    public Mono<ResponseEntity<List<Map<String, Object>>>> getAllPositionFields(@RequestParam String fields,
+                                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection<Position> selection = Projections.POSITION.select(fields);
+        String eTag = positionsChangeETag();
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return Mono.just(ETags.notModified(eTag));
+        }
+        return positionsService.getAllPositions()
+                .map(selection::render)
+                .collectList()
+                .map(positions -> ResponseEntity.ok().eTag(eTag).body(positions));
     }
 
     @Operation(summary = "Get a position by ID", description = "Retrieves a position by its ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Position retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Position has not changed since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Position not found")
     })
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin') or hasRole('ROLE_client-developer')")
-    public Mono<ResponseEntity<Position>> getPositionById(@PathVariable String id) {
-        return Mono.just(ResponseEntity.ok(positionsService.getPositionById(id)));
+    public Mono<ResponseEntity<Position>> getPositionById(@PathVariable String id,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return positionsService.getPositionById(id)
+                .map(position -> {
+                    String eTag = ETags.of(position.getVersion());
+                    return ETags.matches(ifNoneMatch, eTag)
+                            ? ETags.<Position>notModified(eTag)
+                            : ResponseEntity.ok().eTag(eTag).body(position);
+                });
+    }
+
+    @Operation(summary = "Get a position with its candidates", description = "Retrieves a position together with a summary of its first candidates by name and the total number of its candidates, in a single query")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Position retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Position not found")
+    })
+    @GetMapping("/{id}/with-candidates")
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    public Mono<ResponseEntity<PositionWithCandidates>> getPositionWithCandidates(@PathVariable String id,
+                                                                                 @RequestParam(required = false) Integer candidateLimit) {
+        return positionsService.getPositionWithCandidates(id, candidateLimit)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get positions with their candidates", description = "Retrieves up to size positions by name, optionally only those with the given status, each with a summary of its first candidates by name and the total number of its candidates, in a single query")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Positions retrieved successfully")
+    })
+    @GetMapping("/with-candidates")
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    public Mono<ResponseEntity<List<PositionWithCandidates>>> getPositionsWithCandidates(@RequestParam(required = false) Status status,
+                                                                                        @RequestParam(required = false) Integer size,
+                                                                                        @RequestParam(required = false) Integer candidateLimit) {
+        return positionsService.getPositionsWithCandidates(status, size, candidateLimit)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get positions by ids", description = "Resolves up to the configured number of position ids in one call. Results follow the order of the requested ids, with found=false for ids that match no position")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Positions resolved"),
+            @ApiResponse(responseCode = "400", description = "No ids, document ids given, or too many ids")
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin') or hasRole('ROLE_client-developer')")
+    public Mono<ResponseEntity<List<BatchLookupResult<Position>>>> lookupPositions(@RequestBody BatchLookupRequest request) {
+        return positionsService.lookupPositions(request)
+                .map(ResponseEntity::ok);
     }
 
     @Operation(summary = "Add a new position", description = "Creates a new position with the provided details")
@@ -55,21 +139,40 @@ public class PositionsController {
     @PostMapping
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
     public Mono<ResponseEntity<Position>> addPosition(@RequestBody @Valid Position position) {
-        Position addedPosition = positionsService.addPosition(position);
-        return Mono.just(ResponseEntity.ok(addedPosition));
+        return positionsService.addPosition(position)
+                .map(ResponseEntity::ok);
     }
 
-    @Operation(summary = "Update a position", description = "Updates a position with the provided details")
+    @Operation(summary = "Update a position", description = "Updates a position with the provided details. Send the ETag of the version being edited in If-Match to reject the update if someone else changed the position first")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Position updated successfully"),
             @ApiResponse(responseCode = "400", description = "Validation failed"),
-            @ApiResponse(responseCode = "404", description = "Position not found")
+            @ApiResponse(responseCode = "404", description = "Position not found"),
+            @ApiResponse(responseCode = "412", description = "Position was changed since the version in If-Match")
     })
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
-    public Mono<ResponseEntity<Position>> updatePosition(@PathVariable String id, @RequestBody @Valid Position position) {
-        Position updatedPosition = positionsService.updatePosition(id, position);
-        return Mono.just(ResponseEntity.ok(updatedPosition));
+    public Mono<ResponseEntity<Position>> updatePosition(@PathVariable String id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestBody @Valid Position position) {
+        return positionsService.updatePosition(id, position, ETags.expectedVersion(ifMatch))
+                .map(updatedPosition -> ResponseEntity.ok().eTag(ETags.of(updatedPosition.getVersion())).body(updatedPosition));
+    }
+
+    @Operation(summary = "Patch a position", description = "Changes only the fields present in a JSON Merge Patch document. Send the ETag of the version being edited in If-Match to reject the patch if someone else changed the position first")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Position patched successfully"),
+            @ApiResponse(responseCode = "400", description = "A patched field is unknown, read-only or invalid"),
+            @ApiResponse(responseCode = "404", description = "Position not found"),
+            @ApiResponse(responseCode = "412", description = "Position was changed since the version in If-Match")
+    })
+    @PatchMapping(value = "/{id}", consumes = MergePatchTranslator.MERGE_PATCH_JSON_VALUE)
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
+    public Mono<ResponseEntity<Position>> patchPosition(@PathVariable String id,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @RequestBody Map<String, Object> patch) {
+        return positionsService.patchPosition(id, patch, ETags.expectedVersion(ifMatch))
+                .map(patchedPosition -> ResponseEntity.ok().eTag(ETags.of(patchedPosition.getVersion())).body(patchedPosition));
     }
 
     @Operation(summary = "Get positions by status", description = "Retrieves positions by their status")
@@ -80,7 +183,9 @@ public class PositionsController {
     @GetMapping(params = "status")
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
     public Mono<ResponseEntity<List<Position>>> getPositionsByStatus(@RequestParam Status status) {
-        return Mono.just(ResponseEntity.ok(positionsService.getPositionsByStatus(status)));
+        return positionsService.getPositionsByStatus(status)
+                .collectList()
+                .map(ResponseEntity::ok);
     }
 
     @Operation(summary = "Get positions by sub-status", description = "Retrieves positions by their sub-status")
@@ -91,19 +196,23 @@ public class PositionsController {
     @GetMapping("/sub-status")
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
     public Mono<ResponseEntity<List<Position>>> getPositionsByStatusAndSubStatus(@RequestParam Status status, @RequestParam SubStatus subStatus) {
-        return Mono.just(ResponseEntity.ok(positionsService.getPositionsByStatusAndSubStatus(status, subStatus)));
+        return positionsService.getPositionsByStatusAndSubStatus(status, subStatus)
+                .collectList()
+                .map(ResponseEntity::ok);
     }
 
-    @Operation(summary = "Cancel a position", description = "Cancels a position by its ID")
+    @Operation(summary = "Cancel a position", description = "Cancels a position by its ID. Send the ETag of the version being cancelled in If-Match to reject the cancel if someone else changed the position first")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Position cancelled successfully"),
-            @ApiResponse(responseCode = "404", description = "Position not found")
+            @ApiResponse(responseCode = "404", description = "Position not found"),
+            @ApiResponse(responseCode = "412", description = "Position was changed since the version in If-Match")
     })
     @PutMapping("/{id}/cancel")
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
-    public Mono<ResponseEntity<Void>> cancelPosition(@PathVariable String id) {
-        positionsService.cancelPosition(id);
-        return Mono.just(ResponseEntity.ok().build());
+    public Mono<ResponseEntity<Void>> cancelPosition(@PathVariable String id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return positionsService.cancelPosition(id, ETags.expectedVersion(ifMatch))
+                .then(Mono.just(ResponseEntity.ok().build()));
     }
 
     @Operation(summary = "Fill a position", description = "Fills a position with a hired candidate")
@@ -114,8 +223,8 @@ public class PositionsController {
     @PutMapping("/{id}/fill")
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
     public Mono<ResponseEntity<Void>> fillPosition(@PathVariable String id, @RequestParam String hiredCandidateId) {
-        positionsService.fillPosition(id, hiredCandidateId);
-        return Mono.just(ResponseEntity.ok().build());
+        return positionsService.fillPosition(id, hiredCandidateId)
+                .then(Mono.just(ResponseEntity.ok().build()));
     }
 
     @Operation(summary = "Get positions by multiple statuses", description = "Retrieves positions by multiple statuses")
@@ -126,17 +235,60 @@ public class PositionsController {
     @GetMapping("/statuses")
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin')")
     public Mono<ResponseEntity<List<Position>>> getPositionsByStatuses(@RequestParam Status status1, @RequestParam Status status2) {
-        return Mono.just(ResponseEntity.ok(positionsService.getPositionsByStatuses(status1, status2)));
+        return positionsService.getPositionsByStatuses(status1, status2)
+                .collectList()
+                .map(ResponseEntity::ok);
     }
 
     @Operation(summary = "Get unique positions by name", description = "Retrieves unique positions by name")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Positions retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "No position has changed since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "No positions found")
     })
     @GetMapping("/unique")
     @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin') or hasRole('ROLE_client-developer')")
-    public Mono<ResponseEntity<Set<String>>> getUniquePositionNames() {
-        return Mono.just(ResponseEntity.ok(positionsService.getUniquePositionNames()));
+    public Mono<ResponseEntity<Set<String>>> getUniquePositionNames(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = positionsChangeETag();
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return Mono.just(ETags.notModified(eTag));
+        }
+        return positionsService.getUniquePositionNames()
+                .map(names -> ResponseEntity.ok().eTag(eTag).body(names));
+    }
+
+    @Operation(summary = "Autocomplete position names", description = "Retrieves distinct position names starting with the given prefix, ignoring case")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Position names retrieved successfully")
+    })
+    @GetMapping("/unique/autocomplete")
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin') or hasRole('ROLE_client-developer')")
+    public Mono<ResponseEntity<List<String>>> autocompletePositionNames(@RequestParam String prefix,
+                                                                       @RequestParam(defaultValue = "10") int limit) {
+        return positionsService.getPositionNamesStartingWith(prefix, limit)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get a page of positions", description = "Retrieves positions ordered by name, one page at a time, optionally filtered by status. Pass the returned nextCursor to fetch the following page")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Positions retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor")
+    })
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ROLE_client-hr') or hasRole('ROLE_client-admin') or hasRole('ROLE_client-developer')")
+    public Mono<ResponseEntity<CursorPage<Position>>> getPositionsPage(@RequestParam(required = false) Status status,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer size) {
+        return positionsService.getPositionsPage(status, cursor, size)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Entity tag shared by the endpoints that are derived from the whole positions collection. It must be
+     * taken before the data is read so that it can only ever be older than the body it is sent with.
+     */
+    private String positionsChangeETag() {
+        return positionsService.getPositionsChangeToken().map(ETags::ofToken).orElse(null);
     }
 }
@@ -24,4 +24,58 @@ public class CandidateExceptionHandler {
         );
         return new ResponseEntity<>(candidateException, candidateException.getHttpStatus());
     }
+
+    @ExceptionHandler(value = {InvalidPageCursorException.class})
+    public ResponseEntity<Object> handleInvalidPageCursorException(InvalidPageCursorException invalidPageCursorException) {
+        CandidateException candidateException = new CandidateException(
+                invalidPageCursorException.getMessage(),
+                HttpStatus.BAD_REQUEST
+        );
+        return new ResponseEntity<>(candidateException, candidateException.getHttpStatus());
+    }
+
+    @ExceptionHandler(value = {BulkJobNotFoundException.class})
+    public ResponseEntity<Object> handleBulkJobNotFoundException(BulkJobNotFoundException bulkJobNotFoundException) {
+        CandidateException candidateException = new CandidateException(
+                bulkJobNotFoundException.getMessage(),
+                HttpStatus.NOT_FOUND
+        );
+        return new ResponseEntity<>(candidateException, candidateException.getHttpStatus());
+    }
+
+    @ExceptionHandler(value = {CandidateVersionConflictException.class})
+    public ResponseEntity<Object> handleCandidateVersionConflictException(CandidateVersionConflictException candidateVersionConflictException) {
+        CandidateException candidateException = new CandidateException(
+                candidateVersionConflictException.getMessage(),
+                HttpStatus.PRECONDITION_FAILED
+        );
+        return new ResponseEntity<>(candidateException, candidateException.getHttpStatus());
+    }
+
+    @ExceptionHandler(value = {InvalidFieldsException.class})
+    public ResponseEntity<Object> handleInvalidFieldsException(InvalidFieldsException invalidFieldsException) {
+        CandidateException candidateException = new CandidateException(
+                invalidFieldsException.getMessage(),
+                HttpStatus.BAD_REQUEST
+        );
+        return new ResponseEntity<>(candidateException, candidateException.getHttpStatus());
+    }
+
+    @ExceptionHandler(value = {InvalidBatchLookupException.class})
+    public ResponseEntity<Object> handleInvalidBatchLookupException(InvalidBatchLookupException invalidBatchLookupException) {
+        CandidateException candidateException = new CandidateException(
+                invalidBatchLookupException.getMessage(),
+                HttpStatus.BAD_REQUEST
+        );
+        return new ResponseEntity<>(candidateException, candidateException.getHttpStatus());
+    }
+
+    @ExceptionHandler(value = {InvalidPatchException.class})
+    public ResponseEntity<Object> handleInvalidPatchException(InvalidPatchException invalidPatchException) {
+        CandidateException candidateException = new CandidateException(
+                invalidPatchException.getMessage(),
+                HttpStatus.BAD_REQUEST
+        );
+        return new ResponseEntity<>(candidateException, candidateException.getHttpStatus());
+    }
 }
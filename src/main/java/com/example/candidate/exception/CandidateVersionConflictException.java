@@ -0,0 +1,7 @@
+package com.example.candidate.exception;
+
+public class CandidateVersionConflictException extends RuntimeException{
+    public CandidateVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.candidate.exception;
+
+public class InvalidBatchLookupException extends RuntimeException {
+    public InvalidBatchLookupException(String message) {
+        super(message);
+    }
+}
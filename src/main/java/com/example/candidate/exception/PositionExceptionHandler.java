@@ -42,4 +42,13 @@ public class PositionExceptionHandler {
         );
         return new ResponseEntity<>(positionException, positionException.getHttpStatus());
     }
+
+    @ExceptionHandler(value = {PositionVersionConflictException.class})
+    public ResponseEntity<Object> handlePositionVersionConflictException(PositionVersionConflictException positionVersionConflictException) {
+        PositionException positionException = new PositionException(
+                positionVersionConflictException.getMessage(),
+                HttpStatus.PRECONDITION_FAILED
+        );
+        return new ResponseEntity<>(positionException, positionException.getHttpStatus());
+    }
 }
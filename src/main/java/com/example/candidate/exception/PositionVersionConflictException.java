@@ -0,0 +1,7 @@
+package com.example.candidate.exception;
+
+public class PositionVersionConflictException extends RuntimeException{
+    public PositionVersionConflictException(String message) {
+        super(message);
+    }
+}
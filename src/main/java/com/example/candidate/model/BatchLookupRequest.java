@@ -0,0 +1,18 @@
+package com.example.candidate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keys to resolve in one call: either {@code ids} or, for candidates, {@code documentIds}, never both.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchLookupRequest {
+    private List<String> ids;
+    private List<String> documentIds;
+}
@@ -0,0 +1,41 @@
+package com.example.candidate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchLookupResult<T> {
+    private String key;
+    private boolean found;
+    private T value;
+
+    public static <T> BatchLookupResult<T> found(String key, T value) {
+        return new BatchLookupResult<>(key, true, value);
+    }
+
+    public static <T> BatchLookupResult<T> notFound(String key) {
+        return new BatchLookupResult<>(key, false, null);
+    }
+
+    /**
+     * One result per requested key, in request order, whatever order the matches were read in. A key requested
+     * twice is answered twice.
+     */
+    public static <T> List<BatchLookupResult<T>> inRequestOrder(List<String> keys, List<T> matches, Function<T, String> keyOf) {
+        Map<String, T> byKey = new HashMap<>();
+        for (T match : matches) {
+            byKey.put(keyOf.apply(match), match);
+        }
+        return keys.stream()
+                .map(key -> byKey.containsKey(key) ? found(key, byKey.get(key)) : BatchLookupResult.<T>notFound(key))
+                .toList();
+    }
+}
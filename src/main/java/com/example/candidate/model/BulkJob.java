@@ -0,0 +1,59 @@
+package com.example.candidate.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk candidate operation. Asynchronous jobs are stored in the {@code bulkJobs} collection so
+ * that any instance can report or cancel them; a TTL index on {@code expiresAt} drops them once they have not
+ * been updated for the job retention.
+ */
+@Getter
+@Document(collection = "bulkJobs")
+public class BulkJob {
+    public enum State {
+        RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    @Id
+    private String id = UUID.randomUUID().toString();
+    private String operation;
+    private Instant startedAt = Instant.now();
+    private long processed;
+    private long total;
+    private State state = State.RUNNING;
+    private String error;
+    private Instant finishedAt;
+    @JsonIgnore
+    private Instant expiresAt;
+
+    public BulkJob(String operation) {
+        this.operation = operation;
+    }
+
+    public void start(long total) {
+        this.total = total;
+    }
+
+    public void advance(long count) {
+        processed += count;
+    }
+
+    public void complete() {
+        this.finishedAt = Instant.now();
+        this.state = State.COMPLETED;
+    }
+
+    public void expireAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isFinished() {
+        return state != State.RUNNING;
+    }
+}
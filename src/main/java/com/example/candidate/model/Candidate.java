@@ -1,13 +1,15 @@
 package com.example.candidate.model;
 
-import jakarta.validation.constraints.Email;
-import jakarta.validation.constraints.Pattern;
+import com.example.candidate.validation.EmailAddress;
+import com.example.candidate.validation.PhoneNumber;
+import com.example.candidate.validation.PublicUrl;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -16,21 +18,23 @@ import java.time.LocalDate;
 @Document(collection = "candidates")
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Candidate {
     @Id
     private String id;
     @Size(min = 3, message = "Please provide a valid name")
     private String name;
-    @Pattern(regexp = "^(\\+4|)?(07[0-8]{1}[0-9]{1}|02[0-9]{2}|03[0-9]{2}){1}?(\\s|\\.|\\-)?([0-9]{3}(\\s|\\.|\\-|)){2}$", message = "Please provide a valid phone number")
+    @PhoneNumber
     private String phoneNumber;
-    @Pattern(regexp = "^(?:(?:(?:https?|ftp):)?\\/\\/)(?:\\S+(?::\\S*)?@)?(?:(?!(?:10|127)(?:\\.\\d{1,3}){3})(?!(?:169\\.254|192\\.168)(?:\\.\\d{1,3}){2})(?!172\\.(?:1[6-9]|2\\d|3[0-1])(?:\\.\\d{1,3}){2})(?:[1-9]\\d?|1\\d\\d|2[01]\\d|22[0-3])(?:\\.(?:1?\\d{1,2}|2[0-4]\\d|25[0-5])){2}(?:\\.(?:[1-9]\\d?|1\\d\\d|2[0-4]\\d|25[0-4]))|(?:(?:[a-z\\u00a1-\\uffff0-9]-*)*[a-z\\u00a1-\\uffff0-9]+)(?:\\.(?:[a-z\\u00a1-\\uffff0-9]-*)*[a-z\\u00a1-\\uffff0-9]+)*(?:\\.(?:[a-z\\u00a1-\\uffff]{2,})))(?::\\d{2,5})?(?:[\\/?#]\\S*)?$", message = "Please provide a valid link")
+    @PublicUrl
     private String cvLink;
-    @Email(regexp = ".+@.+\\..+", message = "Please provide a valid email address")
+    @EmailAddress
     private String email;
     private LocalDate interviewDate;
     private String documentId;
     private String assignedTo;
     private String positionId;
     private boolean isHired;
+    @Version
+    private Long version;
 }
@@ -0,0 +1,27 @@
+package com.example.candidate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CandidateImportResult {
+    private long row;
+    private Outcome outcome;
+    private String candidateId;
+    private String message;
+
+    public enum Outcome {
+        CREATED, DUPLICATE, INVALID, FAILED
+    }
+
+    public static CandidateImportResult created(long row, String candidateId) {
+        return new CandidateImportResult(row, Outcome.CREATED, candidateId, null);
+    }
+
+    public static CandidateImportResult rejected(long row, Outcome outcome, String message) {
+        return new CandidateImportResult(row, outcome, null, message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.candidate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CandidateSuggestion {
+    private String id;
+    private String name;
+}
@@ -0,0 +1,18 @@
+package com.example.candidate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CandidateSummary {
+    private String id;
+    private String name;
+    private String assignedTo;
+    private LocalDate interviewDate;
+    private boolean isHired;
+}
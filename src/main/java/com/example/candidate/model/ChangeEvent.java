@@ -0,0 +1,31 @@
+package com.example.candidate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One change to a candidate or position as pushed to change feed subscribers. {@code resumeToken} identifies
+ * the change in the MongoDB change stream and is what a reconnecting client sends back to catch up.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEvent {
+    private String resumeToken;
+    private String collection;
+    private Operation operation;
+    private String documentId;
+    private Object document;
+
+    /**
+     * {@code RESET} means changes may have been missed, so anything derived from earlier events has to be reloaded.
+     */
+    public enum Operation {
+        INSERT, UPDATE, DELETE, RESET
+    }
+
+    public static ChangeEvent reset(String resumeToken) {
+        return new ChangeEvent(resumeToken, null, Operation.RESET, null, null);
+    }
+}
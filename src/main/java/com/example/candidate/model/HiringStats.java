@@ -0,0 +1,29 @@
+package com.example.candidate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HiringStats {
+    private long totalCandidates;
+    private long hiredCandidates;
+    private long notHiredCandidates;
+    private Map<String, Long> candidatesByPosition;
+    private Map<String, Long> candidatesByDeveloper;
+    private List<PositionStatusCount> positionsByStatus;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PositionStatusCount {
+        private Status status;
+        private SubStatus subStatus;
+        private long count;
+    }
+}
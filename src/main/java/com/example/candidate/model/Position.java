@@ -2,13 +2,14 @@ package com.example.candidate.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @Document(collection = "positions")
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Position {
     @Id
     private String id;
@@ -18,4 +19,6 @@ public class Position {
     private Status status;
     private SubStatus subStatus;
     private String hiredCandidateId;
+    @Version
+    private Long version;
 }
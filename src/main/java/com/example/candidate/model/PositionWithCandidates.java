@@ -0,0 +1,20 @@
+package com.example.candidate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A position with the first of its candidates, by name. {@code candidateCount} counts all of them, so a client
+ * can tell when {@code candidates} was cut short.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PositionWithCandidates {
+    private Position position;
+    private long candidateCount;
+    private List<CandidateSummary> candidates;
+}
@@ -0,0 +1,46 @@
+package com.example.candidate.pagination;
+
+import com.example.candidate.exception.InvalidPageCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last document returned on a page, ordered by {@code (name, id)}.
+ * Clients only ever see the encoded form, so the layout can change without breaking them.
+ */
+public record PageCursor(String name, String id) {
+    private static final char SEPARATOR = '\u0000';
+    private static final char NULL_NAME = '0';
+    private static final char PRESENT_NAME = '1';
+
+    public String encode() {
+        String raw = id + SEPARATOR + (name == null ? String.valueOf(NULL_NAME) : PRESENT_NAME + name);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageCursorException("Invalid page cursor: " + token);
+        }
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == raw.length() - 1) {
+            throw new InvalidPageCursorException("Invalid page cursor: " + token);
+        }
+        String id = raw.substring(0, separator);
+        char nameMarker = raw.charAt(separator + 1);
+        if (nameMarker == NULL_NAME && separator + 2 == raw.length()) {
+            return new PageCursor(null, id);
+        }
+        if (nameMarker == PRESENT_NAME) {
+            return new PageCursor(raw.substring(separator + 2), id);
+        }
+        throw new InvalidPageCursorException("Invalid page cursor: " + token);
+    }
+}
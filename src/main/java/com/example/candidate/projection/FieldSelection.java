@@ -0,0 +1,41 @@
+package com.example.candidate.projection;
+
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields a client asked for. It limits what is read from MongoDB and what is written back, so the
+ * response carries only those fields.
+ */
+public final class FieldSelection<T> {
+    private final Map<String, ProjectableFields.Field<T>> fields;
+
+    FieldSelection(Map<String, ProjectableFields.Field<T>> fields) {
+        this.fields = fields;
+    }
+
+    public Set<String> names() {
+        return fields.keySet();
+    }
+
+    /**
+     * Restricts {@code query} to the selected properties plus {@code alsoRead}, which the caller needs for
+     * itself (a sort key for a page cursor, say) but which are not rendered unless selected.
+     */
+    public Query applyTo(Query query, String... alsoRead) {
+        fields.values().forEach(field -> query.fields().include(field.property()));
+        for (String property : alsoRead) {
+            query.fields().include(property);
+        }
+        return query;
+    }
+
+    public Map<String, Object> render(T value) {
+        Map<String, Object> rendered = new LinkedHashMap<>(fields.size() * 2);
+        fields.forEach((name, field) -> rendered.put(name, field.accessor().apply(value)));
+        return rendered;
+    }
+}
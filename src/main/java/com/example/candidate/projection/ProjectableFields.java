@@ -0,0 +1,70 @@
+package com.example.candidate.projection;
+
+import com.example.candidate.exception.InvalidFieldsException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The fields of a type that clients may ask for by name in a {@code fields=} parameter, each with the
+ * document property it is read from and how to read it from a loaded object.
+ */
+public final class ProjectableFields<T> {
+    private final Map<String, Field<T>> fields;
+
+    private ProjectableFields(Map<String, Field<T>> fields) {
+        this.fields = Map.copyOf(fields);
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Parses a comma-separated field list. Unknown fields fail with {@link InvalidFieldsException}
+     * rather than being ignored, so a typo does not silently return less than the client expects.
+     */
+    public FieldSelection<T> select(String names) {
+        if (names == null || names.isBlank()) {
+            throw new InvalidFieldsException("At least one field must be selected");
+        }
+        Map<String, Field<T>> selected = new LinkedHashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (String name : names.split(",")) {
+            String trimmed = name.strip();
+            Field<T> field = fields.get(trimmed);
+            if (field == null) {
+                unknown.add(trimmed);
+            } else {
+                selected.put(trimmed, field);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldsException("Unknown fields " + unknown + "; allowed fields are " + fields.keySet().stream().sorted().toList());
+        }
+        return new FieldSelection<>(selected);
+    }
+
+    record Field<T>(String property, Function<T, Object> accessor) {
+    }
+
+    public static final class Builder<T> {
+        private final Map<String, Field<T>> fields = new LinkedHashMap<>();
+
+        public Builder<T> field(String name, Function<T, Object> accessor) {
+            return field(name, name, accessor);
+        }
+
+        public Builder<T> field(String name, String property, Function<T, Object> accessor) {
+            fields.put(name, new Field<>(property, accessor));
+            return this;
+        }
+
+        public ProjectableFields<T> build() {
+            return new ProjectableFields<>(fields);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.candidate.projection;
+
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.Position;
+
+/**
+ * Field names accepted by {@code fields=}; they are the JSON property names of the full representation.
+ */
+public final class Projections {
+    public static final ProjectableFields<Candidate> CANDIDATE = ProjectableFields.<Candidate>builder()
+            .field("id", Candidate::getId)
+            .field("name", Candidate::getName)
+            .field("phoneNumber", Candidate::getPhoneNumber)
+            .field("cvLink", Candidate::getCvLink)
+            .field("email", Candidate::getEmail)
+            .field("interviewDate", Candidate::getInterviewDate)
+            .field("documentId", Candidate::getDocumentId)
+            .field("assignedTo", Candidate::getAssignedTo)
+            .field("positionId", Candidate::getPositionId)
+            .field("hired", "isHired", Candidate::isHired)
+            .field("version", Candidate::getVersion)
+            .build();
+
+    public static final ProjectableFields<Position> POSITION = ProjectableFields.<Position>builder()
+            .field("id", Position::getId)
+            .field("name", Position::getName)
+            .field("status", Position::getStatus)
+            .field("subStatus", Position::getSubStatus)
+            .field("hiredCandidateId", Position::getHiredCandidateId)
+            .field("version", Position::getVersion)
+            .build();
+
+    private Projections() {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.candidate.repository;
+
+import java.util.List;
+
+/**
+ * Outcome of one batch of a bulk update or delete: the ids the batch was applied to and how many documents it
+ * actually changed.
+ */
+public record BatchWriteResult(List<String> ids, long count) {
+    public static final BatchWriteResult EMPTY = new BatchWriteResult(List.of(), 0);
+}
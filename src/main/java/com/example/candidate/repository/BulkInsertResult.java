@@ -0,0 +1,16 @@
+package com.example.candidate.repository;
+
+import java.util.List;
+
+/**
+ * Outcome of an unordered bulk insert: how many documents were written and which batch positions failed.
+ */
+public record BulkInsertResult(int insertedCount, List<Failure> failures) {
+    public static final int DUPLICATE_KEY = 11000;
+
+    public record Failure(int index, int code, String message) {
+        public boolean isDuplicateKey() {
+            return code == DUPLICATE_KEY;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.candidate.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Locale;
+
+/**
+ * Normalized forms of a candidate's email and phone number. They are stored next to the raw values and
+ * carry the unique indexes, so "John@Example.com" and "john@example.com", or "+40 712-345-678" and
+ * "0712345678", are the same candidate as far as the database is concerned.
+ */
+public final class CandidateContactKeys {
+    public static final String EMAIL = "emailKey";
+    public static final String PHONE_NUMBER = "phoneNumberKey";
+    public static final String EMAIL_INDEX = "emailKey_unique";
+    public static final String PHONE_NUMBER_INDEX = "phoneNumberKey_unique";
+    private static final String INDEX_MARKER = " index: ";
+
+    private CandidateContactKeys() {
+    }
+
+    public static String email(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Drops the separators the phone number pattern allows (space, dot, dash) and the optional {@code +4}
+     * country prefix.
+     */
+    public static String phoneNumber(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.isBlank()) {
+            return null;
+        }
+        String stripped = phoneNumber.strip();
+        int start = stripped.startsWith("+4") ? 2 : 0;
+        StringBuilder key = new StringBuilder(stripped.length() - start);
+        for (int i = start; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            if (c != ' ' && c != '.' && c != '-') {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * The key whose unique index rejected a write, {@link #EMAIL} or {@link #PHONE_NUMBER}, or null for any
+     * other index. The index is read from the server's own write error, which names it exactly.
+     */
+    public static String duplicatedKey(DuplicateKeyException duplicateKeyException) {
+        String index = duplicatedIndex(duplicateKeyException.getCause());
+        if (EMAIL_INDEX.equals(index)) {
+            return EMAIL;
+        }
+        if (PHONE_NUMBER_INDEX.equals(index)) {
+            return PHONE_NUMBER;
+        }
+        return null;
+    }
+
+    private static String duplicatedIndex(Throwable cause) {
+        if (cause instanceof MongoWriteException writeException) {
+            return indexName(writeException.getError().getMessage());
+        }
+        if (cause instanceof MongoBulkWriteException bulkWriteException) {
+            for (BulkWriteError error : bulkWriteException.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                    return indexName(error.getMessage());
+                }
+            }
+            return null;
+        }
+        if (cause instanceof MongoCommandException commandException) {
+            return indexName(commandException.getErrorMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Index name from the server's {@code E11000 duplicate key error collection: db.candidates index: <name> dup key: ...}.
+     */
+    private static String indexName(String message) {
+        int start = message == null ? -1 : message.indexOf(INDEX_MARKER);
+        if (start < 0) {
+            return null;
+        }
+        start += INDEX_MARKER.length();
+        int end = message.indexOf(' ', start);
+        return end < 0 ? message.substring(start) : message.substring(start, end);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.candidate.repository;
+
+import com.example.candidate.model.Candidate;
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeSaveCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the {@link CandidateContactKeys} into every candidate document on insert, save and bulk insert.
+ * The keys are not part of {@link Candidate}; they only exist in the stored document.
+ */
+@Component
+public class CandidateContactKeysCallback implements ReactiveBeforeSaveCallback<Candidate> {
+    @Override
+    public Publisher<Candidate> onBeforeSave(Candidate candidate, Document document, String collection) {
+        putIfPresent(document, CandidateContactKeys.EMAIL, CandidateContactKeys.email(candidate.getEmail()));
+        putIfPresent(document, CandidateContactKeys.PHONE_NUMBER, CandidateContactKeys.phoneNumber(candidate.getPhoneNumber()));
+        return Mono.just(candidate);
+    }
+
+    private static void putIfPresent(Document document, String key, String value) {
+        if (value != null) {
+            document.put(key, value);
+        }
+    }
+}
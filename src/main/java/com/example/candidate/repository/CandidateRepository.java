@@ -1,21 +1,26 @@
 package com.example.candidate.repository;
 
+import com.example.candidate.config.mongo.IndexCatalogue;
 import com.example.candidate.model.Candidate;
-import lombok.NonNull;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.core.annotation.Collation;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.util.Collection;
 
 @Repository
-public interface CandidateRepository extends MongoRepository<Candidate, String> {
-    boolean existsByPhoneNumber(String phoneNumber);
-    boolean existsByEmail(String email);
-    List<Candidate> findByNameIgnoreCase(String name);
-    @NonNull List<Candidate> findAll(@NonNull Sort sort);
-    List<Candidate> findCandidatesByAssignedTo(String assignedToId);
-    List<Candidate> findCandidatesByPositionId(String positionId);
-    int countCandidatesByPositionId(String positionId);
-    Candidate findCandidateByDocumentId(String documentId);
+public interface CandidateRepository extends ReactiveMongoRepository<Candidate, String>, CandidateRepositoryCustom {
+    @Collation(IndexCatalogue.CASE_INSENSITIVE_COLLATION)
+    Flux<Candidate> findByName(String name);
+    Flux<Candidate> findCandidatesByAssignedTo(String assignedToId);
+    Flux<Candidate> findCandidatesByPositionId(String positionId);
+    Mono<Long> countCandidatesByPositionId(String positionId);
+    Mono<Candidate> findCandidateByDocumentId(String documentId);
+    Flux<Candidate> findCandidatesByDocumentIdIn(Collection<String> documentIds);
+    @Meta(cursorBatchSize = 256)
+    Flux<Candidate> streamAllBy(Sort sort);
 }
@@ -0,0 +1,34 @@
+package com.example.candidate.repository;
+
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateSuggestion;
+import com.example.candidate.model.HiringStats;
+import com.example.candidate.pagination.PageCursor;
+import com.example.candidate.projection.FieldSelection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface CandidateRepositoryCustom {
+    Flux<Candidate> findPage(Criteria filter, PageCursor after, int limit);
+    Flux<Candidate> findPage(Criteria filter, PageCursor after, int limit, FieldSelection<Candidate> fields);
+    Flux<Candidate> findSelected(Criteria filter, Sort sort, FieldSelection<Candidate> fields);
+    Flux<CandidateSuggestion> findNameSuggestions(String prefix, int limit);
+    Flux<Candidate> findByContactKeys(Collection<String> emailKeys, Collection<String> phoneNumberKeys);
+    Mono<BulkInsertResult> insertUnordered(List<Candidate> candidates);
+    Mono<Long> findVersion(String id);
+    Mono<Candidate> updateIfVersion(String id, Long expectedVersion, Update update);
+    Mono<Boolean> markHired(String id);
+    Mono<Long> countMatching(Criteria filter);
+    Mono<HiringStats> aggregateHiringStats(LocalDate interviewFrom, LocalDate interviewTo);
+    Mono<Long> updateAll(Criteria filter, Update update);
+    Mono<BatchWriteResult> updateBatch(Criteria filter, Update update, int batchSize);
+    Mono<Long> deleteAll(Criteria filter);
+    Mono<BatchWriteResult> deleteBatch(Criteria filter, int batchSize);
+}
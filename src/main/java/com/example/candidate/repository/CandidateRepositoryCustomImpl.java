@@ -0,0 +1,281 @@
+package com.example.candidate.repository;
+
+import com.example.candidate.config.mongo.IndexCatalogue;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateSuggestion;
+import com.example.candidate.model.HiringStats;
+import com.example.candidate.model.Status;
+import com.example.candidate.model.SubStatus;
+import com.example.candidate.pagination.PageCursor;
+import com.example.candidate.projection.FieldSelection;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AddFieldsOperation;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class CandidateRepositoryCustomImpl implements CandidateRepositoryCustom {
+    private static final String CANDIDATES_COLLECTION = "candidates";
+    private static final String POSITIONS_COLLECTION = "positions";
+    private static final String SOURCE_FIELD = "_source";
+    private static final char MAX_COLLATION_CHAR = '\uffff';
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Candidate> findPage(Criteria filter, PageCursor after, int limit) {
+        return mongoTemplate.find(KeysetPageQuery.of(filter, after, limit), Candidate.class);
+    }
+
+    /**
+     * A page holding only the selected fields, plus the name and id its cursor is built from.
+     */
+    @Override
+    public Flux<Candidate> findPage(Criteria filter, PageCursor after, int limit, FieldSelection<Candidate> fields) {
+        return mongoTemplate.find(fields.applyTo(KeysetPageQuery.of(filter, after, limit), "name", "id"), Candidate.class);
+    }
+
+    @Override
+    public Flux<Candidate> findSelected(Criteria filter, Sort sort, FieldSelection<Candidate> fields) {
+        Query query = fields.applyTo(Query.query(filter == null ? new Criteria() : filter)).with(sort);
+        return mongoTemplate.find(query, Candidate.class);
+    }
+
+    /**
+     * Case-insensitive prefix match served from the {@code name_ci} collation index. A regex would not use
+     * that index, so the prefix is expressed as a range; U+FFFF sorts after every other character in ICU
+     * collation, which makes {@code prefix + U+FFFF} the exclusive upper bound.
+     */
+    @Override
+    public Flux<CandidateSuggestion> findNameSuggestions(String prefix, int limit) {
+        Query query = Query.query(Criteria.where("name").gte(prefix).lt(prefix + MAX_COLLATION_CHAR))
+                .collation(IndexCatalogue.CASE_INSENSITIVE)
+                .with(Sort.by(Sort.Direction.ASC, "name"))
+                .limit(limit);
+        query.fields().include("name");
+        return mongoTemplate.find(query, CandidateSuggestion.class, CANDIDATES_COLLECTION);
+    }
+
+    /**
+     * Candidates whose normalized email or phone number is one of the given {@link CandidateContactKeys}.
+     */
+    @Override
+    public Flux<Candidate> findByContactKeys(Collection<String> emailKeys, Collection<String> phoneNumberKeys) {
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where(CandidateContactKeys.EMAIL).in(emailKeys),
+                Criteria.where(CandidateContactKeys.PHONE_NUMBER).in(phoneNumberKeys)));
+        return mongoTemplate.find(query, Candidate.class);
+    }
+
+    /**
+     * Inserts the batch in one unordered bulk write, so a failing document does not stop the ones after it.
+     * Per-document failures are reported by batch index instead of failing the whole call.
+     */
+    @Override
+    public Mono<BulkInsertResult> insertUnordered(List<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return Mono.just(new BulkInsertResult(0, List.of()));
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Candidate.class)
+                .insert(candidates)
+                .execute()
+                .map(result -> new BulkInsertResult(result.getInsertedCount(), List.of()))
+                .onErrorResume(MongoBulkWriteException.class,
+                        e -> Mono.just(toResult(e.getWriteResult().getInsertedCount(), e.getWriteErrors())))
+                .onErrorResume(BulkOperationException.class,
+                        e -> Mono.just(toResult(e.getResult().getInsertedCount(), e.getErrors())));
+    }
+
+    /**
+     * The stored version alone, so a conditional read can be answered without fetching the candidate.
+     */
+    @Override
+    public Mono<Long> findVersion(String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("version");
+        return mongoTemplate.findOne(query, Candidate.class)
+                .mapNotNull(Candidate::getVersion);
+    }
+
+    @Override
+    public Mono<Candidate> updateIfVersion(String id, Long expectedVersion, Update update) {
+        return mongoTemplate.findAndModify(VersionedQuery.of(id, expectedVersion), update,
+                FindAndModifyOptions.options().returnNew(true), Candidate.class);
+    }
+
+    /**
+     * Marks the candidate hired and clears the assignment in one write, bumping the version so that earlier
+     * ETags no longer match. Emits false if there is no such candidate.
+     */
+    @Override
+    public Mono<Boolean> markHired(String id) {
+        Update update = new Update().set("isHired", true).unset("assignedTo").inc("version", 1);
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(id)), update, Candidate.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<Long> countMatching(Criteria filter) {
+        return mongoTemplate.count(Query.query(filter), Candidate.class);
+    }
+
+    /**
+     * Every dashboard count in one round trip: the (optionally interview-date filtered) candidates are joined
+     * with the positions' status fields through {@code $unionWith}, and a {@code $facet} groups each kind of
+     * document its own way. The date range only narrows the candidates; positions have no interview date.
+     */
+    @Override
+    public Mono<HiringStats> aggregateHiringStats(LocalDate interviewFrom, LocalDate interviewTo) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (interviewFrom != null || interviewTo != null) {
+            Criteria interviewDate = Criteria.where("interviewDate");
+            if (interviewFrom != null) {
+                interviewDate.gte(mongoTemplate.getConverter().convertToMongoType(interviewFrom));
+            }
+            if (interviewTo != null) {
+                interviewDate.lte(mongoTemplate.getConverter().convertToMongoType(interviewTo));
+            }
+            stages.add(Aggregation.match(interviewDate));
+        }
+        stages.add(UnionWithOperation.unionWith(POSITIONS_COLLECTION).pipeline(
+                Aggregation.project("status", "subStatus"),
+                AddFieldsOperation.addField(SOURCE_FIELD).withValue(POSITIONS_COLLECTION).build()));
+        stages.add(Aggregation.facet(
+                        Aggregation.match(Criteria.where(SOURCE_FIELD).exists(false).and("positionId").ne(null)),
+                        Aggregation.group("positionId").count().as("count"))
+                .as("byPosition")
+                .and(Aggregation.match(Criteria.where(SOURCE_FIELD).exists(false).and("assignedTo").ne(null)),
+                        Aggregation.group("assignedTo").count().as("count"))
+                .as("byDeveloper")
+                .and(Aggregation.match(Criteria.where(SOURCE_FIELD).exists(false)),
+                        Aggregation.group("isHired").count().as("count"))
+                .as("byHired")
+                .and(Aggregation.match(Criteria.where(SOURCE_FIELD).is(POSITIONS_COLLECTION)),
+                        Aggregation.group("status", "subStatus").count().as("count"))
+                .as("byStatus"));
+        return mongoTemplate.aggregate(Aggregation.newAggregation(stages), CANDIDATES_COLLECTION, Document.class)
+                .next()
+                .map(CandidateRepositoryCustomImpl::toHiringStats);
+    }
+
+    /**
+     * Applies {@code update} to every matching document and bumps each one's version, so that no bulk write
+     * leaves an ETag or an {@code If-Match} precondition pointing at content that has changed.
+     */
+    @Override
+    public Mono<Long> updateAll(Criteria filter, Update update) {
+        return mongoTemplate.updateMulti(Query.query(filter), update.inc("version", 1), Candidate.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    /**
+     * Updates at most {@code batchSize} of the documents matching {@code filter}. The update must move the
+     * documents out of the filter, so that calling this repeatedly walks through all of them.
+     */
+    @Override
+    public Mono<BatchWriteResult> updateBatch(Criteria filter, Update update, int batchSize) {
+        return findIds(filter, batchSize)
+                .flatMap(ids -> ids.isEmpty()
+                        ? Mono.just(BatchWriteResult.EMPTY)
+                        : updateAll(new Criteria().andOperator(filter, Criteria.where("id").in(ids)), update)
+                                .map(count -> new BatchWriteResult(idStrings(ids), count)));
+    }
+
+    @Override
+    public Mono<Long> deleteAll(Criteria filter) {
+        return mongoTemplate.remove(Query.query(filter), Candidate.class)
+                .map(DeleteResult::getDeletedCount);
+    }
+
+    @Override
+    public Mono<BatchWriteResult> deleteBatch(Criteria filter, int batchSize) {
+        return findIds(filter, batchSize)
+                .flatMap(ids -> ids.isEmpty()
+                        ? Mono.just(BatchWriteResult.EMPTY)
+                        : deleteAll(new Criteria().andOperator(filter, Criteria.where("id").in(ids)))
+                                .map(count -> new BatchWriteResult(idStrings(ids), count)));
+    }
+
+    private Mono<List<Object>> findIds(Criteria filter, int limit) {
+        Query query = Query.query(filter).limit(limit);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Document.class, CANDIDATES_COLLECTION)
+                .map(document -> document.get("_id"))
+                .collectList();
+    }
+
+    private static List<String> idStrings(List<Object> ids) {
+        return ids.stream()
+                .map(id -> id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id))
+                .toList();
+    }
+
+    private static HiringStats toHiringStats(Document facets) {
+        long hired = 0;
+        long notHired = 0;
+        for (Document group : facets.getList("byHired", Document.class)) {
+            if (Boolean.TRUE.equals(group.get("_id"))) {
+                hired += countOf(group);
+            } else {
+                notHired += countOf(group);
+            }
+        }
+        List<HiringStats.PositionStatusCount> byStatus = facets.getList("byStatus", Document.class).stream()
+                .map(group -> {
+                    Document key = group.get("_id", Document.class);
+                    String status = key.getString("status");
+                    String subStatus = key.getString("subStatus");
+                    return new HiringStats.PositionStatusCount(
+                            status == null ? null : Status.valueOf(status),
+                            subStatus == null ? null : SubStatus.valueOf(subStatus),
+                            countOf(group));
+                })
+                .toList();
+        return new HiringStats(hired + notHired, hired, notHired,
+                countsByKey(facets.getList("byPosition", Document.class)),
+                countsByKey(facets.getList("byDeveloper", Document.class)),
+                byStatus);
+    }
+
+    private static Map<String, Long> countsByKey(List<Document> groups) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Document group : groups) {
+            counts.put(String.valueOf(group.get("_id")), countOf(group));
+        }
+        return counts;
+    }
+
+    private static long countOf(Document group) {
+        return ((Number) group.get("count")).longValue();
+    }
+
+    private static BulkInsertResult toResult(int inserted, List<BulkWriteError> errors) {
+        return new BulkInsertResult(inserted, errors.stream()
+                .map(error -> new BulkInsertResult.Failure(error.getIndex(), error.getCode(), error.getMessage()))
+                .toList());
+    }
+}
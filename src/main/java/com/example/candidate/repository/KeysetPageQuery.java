@@ -0,0 +1,39 @@
+package com.example.candidate.repository;
+
+import com.example.candidate.pagination.PageCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Builds {@code (name, id)} keyset queries so that every page is a single range scan
+ * on the {@code name_id} index declared in
+ * {@link com.example.candidate.config.mongo.IndexCatalogue} instead of a skip over everything already returned.
+ */
+final class KeysetPageQuery {
+    static final Sort ORDER = Sort.by(Sort.Direction.ASC, "name", "id");
+
+    private KeysetPageQuery() {
+    }
+
+    static Query of(Criteria filter, PageCursor after, int limit) {
+        Criteria criteria = filter == null ? new Criteria() : filter;
+        if (after != null) {
+            criteria = new Criteria().andOperator(criteria, after(after));
+        }
+        return Query.query(criteria).with(ORDER).limit(limit);
+    }
+
+    private static Criteria after(PageCursor cursor) {
+        if (cursor.name() == null) {
+            return new Criteria().orOperator(
+                    Criteria.where("name").is(null).and("id").gt(cursor.id()),
+                    Criteria.where("name").ne(null)
+            );
+        }
+        return new Criteria().orOperator(
+                Criteria.where("name").gt(cursor.name()),
+                Criteria.where("name").is(cursor.name()).and("id").gt(cursor.id())
+        );
+    }
+}
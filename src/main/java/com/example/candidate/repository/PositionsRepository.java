@@ -4,20 +4,19 @@ import com.example.candidate.model.Position;
 import com.example.candidate.model.Status;
 import com.example.candidate.model.SubStatus;
 import lombok.NonNull;
-import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
-
-import java.util.List;
-import java.util.Optional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Repository
-public interface PositionsRepository extends MongoRepository<Position, String> {
-    boolean existsByName(String name);
-    Optional<Position> findByName(String name);
-    List<Position> findPositionsByStatus(Status status);
-    List<Position> findPositionsByStatusAndSubStatus(@NonNull Status status, SubStatus subStatus);
-    List<Position> findPositionsByName(String name);
+public interface PositionsRepository extends ReactiveMongoRepository<Position, String>, PositionsRepositoryCustom {
+    Mono<Boolean> existsByName(String name);
+    Mono<Position> findByName(String name);
+    Flux<Position> findPositionsByStatus(Status status);
+    Flux<Position> findPositionsByStatusAndSubStatus(@NonNull Status status, SubStatus subStatus);
+    Flux<Position> findPositionsByName(String name);
     @Query("{$or:[{'status': ?0}, {'status': ?1}]}")
-    List<Position> findPositionsByStatuses(Status status1, Status status2);
+    Flux<Position> findPositionsByStatuses(Status status1, Status status2);
 }
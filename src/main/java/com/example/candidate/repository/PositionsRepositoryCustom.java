@@ -0,0 +1,18 @@
+package com.example.candidate.repository;
+
+import com.example.candidate.model.Position;
+import com.example.candidate.model.PositionWithCandidates;
+import com.example.candidate.pagination.PageCursor;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface PositionsRepositoryCustom {
+    Flux<Position> findPage(Criteria filter, PageCursor after, int limit);
+    Flux<PositionWithCandidates> findWithCandidates(Criteria filter, int limit, int candidateLimit);
+    Mono<Position> updateIfVersion(String id, Long expectedVersion, Update update);
+    Mono<Position> cancelIfOpen(String id, Long expectedVersion);
+    Mono<Position> claimForHire(String id, String hiredCandidateId);
+    Mono<Position> releaseHire(Position previous, String hiredCandidateId);
+}
@@ -0,0 +1,137 @@
+package com.example.candidate.repository;
+
+import com.example.candidate.model.CandidateSummary;
+import com.example.candidate.model.Position;
+import com.example.candidate.model.PositionWithCandidates;
+import com.example.candidate.pagination.PageCursor;
+import com.example.candidate.model.Status;
+import com.example.candidate.model.SubStatus;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PositionsRepositoryCustomImpl implements PositionsRepositoryCustom {
+    private static final String CANDIDATES_COLLECTION = "candidates";
+    private static final List<String> CANDIDATE_SUMMARY_FIELDS = List.of("name", "assignedTo", "interviewDate", "isHired");
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Position> findPage(Criteria filter, PageCursor after, int limit) {
+        return mongoTemplate.find(KeysetPageQuery.of(filter, after, limit), Position.class);
+    }
+
+    /**
+     * Up to {@code limit} positions matching {@code filter}, by name, each joined with its first
+     * {@code candidateLimit} candidates and their total count in a single {@code $lookup}. The join matches on
+     * {@code positionId}, which the {@code positionId_name_id} index serves, and only the summary fields of each
+     * candidate leave the database.
+     */
+    @Override
+    public Flux<PositionWithCandidates> findWithCandidates(Criteria filter, int limit, int candidateLimit) {
+        Document summaryFields = new Document();
+        CANDIDATE_SUMMARY_FIELDS.forEach(field -> summaryFields.append(field, 1));
+        List<Document> candidatesPipeline = List.of(
+                new Document("$match", new Document("$expr", new Document("$eq", List.of("$positionId", "$$positionId")))),
+                new Document("$facet", new Document()
+                        .append("page", List.of(
+                                new Document("$sort", new Document("name", 1).append("_id", 1)),
+                                new Document("$limit", candidateLimit),
+                                new Document("$project", summaryFields)))
+                        .append("total", List.of(new Document("$count", "count")))));
+        AggregationOperation lookupCandidates = context -> new Document("$lookup", new Document()
+                .append("from", CANDIDATES_COLLECTION)
+                .append("let", new Document("positionId", new Document("$toString", "$_id")))
+                .append("pipeline", candidatesPipeline)
+                .append("as", CANDIDATES_COLLECTION));
+        TypedAggregation<Position> aggregation = Aggregation.newAggregation(Position.class,
+                Aggregation.match(filter),
+                Aggregation.sort(Sort.by("name", "id")),
+                Aggregation.limit(limit),
+                lookupCandidates);
+        return mongoTemplate.aggregate(aggregation, Document.class)
+                .map(this::toPositionWithCandidates);
+    }
+
+    @Override
+    public Mono<Position> updateIfVersion(String id, Long expectedVersion, Update update) {
+        return mongoTemplate.findAndModify(VersionedQuery.of(id, expectedVersion), update,
+                FindAndModifyOptions.options().returnNew(true), Position.class);
+    }
+
+    /**
+     * Closes the position as cancelled in one findAndModify that only matches while the position is not closed
+     * and, when {@code expectedVersion} is given, still at that version. Emits the cancelled position, or nothing
+     * if no position matched.
+     */
+    @Override
+    public Mono<Position> cancelIfOpen(String id, Long expectedVersion) {
+        Query query = VersionedQuery.of(id, expectedVersion).addCriteria(Criteria.where("status").ne(Status.CLOSED));
+        Update update = new Update()
+                .set("status", Status.CLOSED)
+                .set("subStatus", SubStatus.CANCELLED)
+                .inc("version", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Position.class);
+    }
+
+    /**
+     * Closes the position as filled by {@code hiredCandidateId} in one findAndModify that only matches while
+     * the position is not closed, so of several concurrent hires exactly one wins. The claim bumps the version
+     * like any other write. Emits the position as it was before the claim, or nothing if it does not exist or
+     * is already closed.
+     */
+    @Override
+    public Mono<Position> claimForHire(String id, String hiredCandidateId) {
+        Query query = Query.query(Criteria.where("id").is(id).and("status").ne(Status.CLOSED));
+        Update update = new Update()
+                .set("status", Status.CLOSED)
+                .set("subStatus", SubStatus.FILLED)
+                .set("hiredCandidateId", hiredCandidateId)
+                .inc("version", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Position.class);
+    }
+
+    /**
+     * Undoes {@link #claimForHire} by restoring {@code previous}, as long as the position still carries that
+     * claim. The release bumps the version again rather than restoring the old one, so an ETag taken while the
+     * claim was visible never matches again. Emits the restored position.
+     */
+    @Override
+    public Mono<Position> releaseHire(Position previous, String hiredCandidateId) {
+        Query query = Query.query(Criteria.where("id").is(previous.getId())
+                .and("status").is(Status.CLOSED)
+                .and("subStatus").is(SubStatus.FILLED)
+                .and("hiredCandidateId").is(hiredCandidateId));
+        Update update = new Update().set("status", previous.getStatus()).inc("version", 1);
+        Updates.setOrUnset(update, "subStatus", previous.getSubStatus());
+        Updates.setOrUnset(update, "hiredCandidateId", previous.getHiredCandidateId());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Position.class);
+    }
+
+    private PositionWithCandidates toPositionWithCandidates(Document document) {
+        MongoConverter converter = mongoTemplate.getConverter();
+        List<Document> joined = document.getList(CANDIDATES_COLLECTION, Document.class, List.of());
+        Document candidates = joined.isEmpty() ? new Document() : joined.get(0);
+        List<Document> total = candidates.getList("total", Document.class, List.of());
+        long candidateCount = total.isEmpty() ? 0 : ((Number) total.get(0).get("count")).longValue();
+        List<CandidateSummary> summaries = candidates.getList("page", Document.class, List.of()).stream()
+                .map(candidate -> converter.read(CandidateSummary.class, candidate))
+                .toList();
+        document.remove(CANDIDATES_COLLECTION);
+        return new PositionWithCandidates(converter.read(Position.class, document), candidateCount, summaries);
+    }
+}
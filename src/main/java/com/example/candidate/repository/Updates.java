@@ -0,0 +1,16 @@
+package com.example.candidate.repository;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Helpers for building partial updates that mirror what a full save would store, where a null property is
+ * simply absent from the document.
+ */
+public final class Updates {
+    private Updates() {
+    }
+
+    public static Update setOrUnset(Update update, String key, Object value) {
+        return value == null ? update.unset(key) : update.set(key, value);
+    }
+}
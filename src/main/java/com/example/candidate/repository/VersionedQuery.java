@@ -0,0 +1,21 @@
+package com.example.candidate.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Selects a document by id and, when an expected version is given, only while it still has that version.
+ * An update through this query is a compare-and-set: it finds nothing if someone else wrote in between.
+ */
+final class VersionedQuery {
+    private VersionedQuery() {
+    }
+
+    static Query of(String id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+        return Query.query(criteria);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.candidate.service;
+
+import com.example.candidate.exception.InvalidBatchLookupException;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "batch-lookup")
+public class BatchLookupProperties {
+    private int maxKeys = 100;
+
+    public List<String> validateKeys(List<String> keys) {
+        if (keys.size() > maxKeys) {
+            throw new InvalidBatchLookupException("At most " + maxKeys + " keys can be looked up at once, got " + keys.size());
+        }
+        if (keys.stream().anyMatch(key -> key == null || key.isBlank())) {
+            throw new InvalidBatchLookupException("Keys to look up must not be blank");
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.candidate.service;
+
+import com.example.candidate.model.BulkJob;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asynchronous bulk jobs. Their state lives in MongoDB, so a status request or a cancellation can reach any
+ * instance, while the work runs on the instance that accepted the job and is stopped when it shuts down. Every
+ * write pushes the job's expiry {@link CandidateBulkProperties#getJobRetention()} ahead, so a job is kept for
+ * that long after it finished, or after the instance running it stopped updating it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkJobRegistry {
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CandidateBulkProperties bulkProperties;
+    private final Map<String, Disposable> running = new ConcurrentHashMap<>();
+
+    public Mono<BulkJob> register(BulkJob job) {
+        return Mono.defer(() -> {
+            job.expireAt(expiry());
+            return mongoTemplate.insert(job);
+        });
+    }
+
+    /**
+     * Runs the work of a registered job on this instance, keeping hold of it until it ends so that it can be
+     * cancelled or stopped.
+     */
+    public void run(String id, Mono<Void> work) {
+        Disposable.Swap task = Disposables.swap();
+        running.put(id, task);
+        task.update(work.doFinally(signal -> running.remove(id, task)).subscribe());
+    }
+
+    /**
+     * Records the number of candidates the job will process. Emits whether the job is still running.
+     */
+    public Mono<Boolean> start(String id, long total) {
+        return update(id, new Update().set("total", total));
+    }
+
+    /**
+     * Records a processed batch. Emits whether the job is still running, so its work stops before the next
+     * batch once it has been cancelled elsewhere.
+     */
+    public Mono<Boolean> advance(String id, long count) {
+        return update(id, new Update().inc("processed", count));
+    }
+
+    /**
+     * Moves a running job to its final state; a job that already finished, for example because it was
+     * cancelled, keeps the state it has. Emits whether it was still running.
+     */
+    public Mono<Boolean> finish(String id, BulkJob.State state, String error) {
+        Query query = Query.query(Criteria.where("id").is(id).and("state").is(BulkJob.State.RUNNING));
+        Update update = new Update()
+                .set("state", state)
+                .set("finishedAt", Instant.now())
+                .set("expiresAt", expiry());
+        if (error != null) {
+            update.set("error", error);
+        }
+        return mongoTemplate.updateFirst(query, update, BulkJob.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    public Mono<BulkJob> find(String id) {
+        return mongoTemplate.findById(id, BulkJob.class);
+    }
+
+    /**
+     * Cancels a running job: at once if it runs on this instance, otherwise before its next batch. Candidates
+     * it already processed stay processed. Emits the job, or nothing if there is no such job.
+     */
+    public Mono<BulkJob> cancel(String id) {
+        return finish(id, BulkJob.State.CANCELLED, null)
+                .doOnNext(cancelled -> {
+                    Disposable task = running.remove(id);
+                    if (task != null) {
+                        task.dispose();
+                    }
+                })
+                .then(find(id));
+    }
+
+    /**
+     * Stops the jobs running on this instance and marks them failed, rather than leaving them reported as
+     * running until they expire.
+     */
+    @PreDestroy
+    public void stop() {
+        List<String> interrupted = List.copyOf(running.keySet());
+        running.values().forEach(Disposable::dispose);
+        Flux.fromIterable(interrupted)
+                .flatMap(id -> finish(id, BulkJob.State.FAILED, "Interrupted by shutdown"))
+                .then()
+                .timeout(SHUTDOWN_TIMEOUT)
+                .onErrorResume(error -> {
+                    log.warn("Could not mark bulk jobs {} as interrupted", interrupted, error);
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    int runningCount() {
+        return running.size();
+    }
+
+    private Mono<Boolean> update(String id, Update update) {
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)), update.set("expiresAt", expiry()),
+                        FindAndModifyOptions.options().returnNew(true), BulkJob.class)
+                .map(job -> job.getState() == BulkJob.State.RUNNING)
+                .defaultIfEmpty(false);
+    }
+
+    private Instant expiry() {
+        return Instant.now().plus(bulkProperties.getJobRetention());
+    }
+}
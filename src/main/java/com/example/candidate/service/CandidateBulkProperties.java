@@ -0,0 +1,15 @@
+package com.example.candidate.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "candidates.bulk")
+public class CandidateBulkProperties {
+    private int batchSize = 1000;
+    private Duration jobRetention = Duration.ofHours(1);
+}
@@ -0,0 +1,12 @@
+package com.example.candidate.service;
+
+import com.example.candidate.model.BulkJob;
+import reactor.core.publisher.Mono;
+
+public interface CandidateBulkService {
+    Mono<BulkJob> reassignCandidates(String developerId, String newDeveloperId, boolean async);
+    Mono<BulkJob> moveCandidates(String positionId, String newPositionId, boolean async);
+    Mono<BulkJob> deleteCandidatesByPositionId(String positionId, boolean async);
+    Mono<BulkJob> getJob(String jobId);
+    Mono<BulkJob> cancelJob(String jobId);
+}
@@ -0,0 +1,121 @@
+package com.example.candidate.service;
+
+import com.example.candidate.cache.CandidateNearCache;
+import com.example.candidate.exception.BulkJobNotFoundException;
+import com.example.candidate.model.BulkJob;
+import com.example.candidate.repository.CandidateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+/**
+ * Bulk operations run server side. A synchronous call is a single {@code updateMany}/{@code deleteMany};
+ * an asynchronous one works through the matching candidates {@link CandidateBulkProperties#getBatchSize()}
+ * at a time, recording its progress in the {@link BulkJobRegistry} after each batch. Hired candidates are
+ * never moved or deleted.
+ * <p>
+ * Each batch drops the candidates it touched from the {@link CandidateNearCache}. A single
+ * {@code updateMany}/{@code deleteMany} does not report which documents it changed, so it clears the whole cache.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CandidateBulkServiceImpl implements CandidateBulkService {
+    private final CandidateRepository candidateRepository;
+    private final PositionsService positionsService;
+    private final BulkJobRegistry bulkJobRegistry;
+    private final CandidateBulkProperties bulkProperties;
+    private final CandidateNearCache candidateNearCache;
+
+    @Override
+    public Mono<BulkJob> reassignCandidates(String developerId, String newDeveloperId, boolean async) {
+        if (Objects.equals(developerId, newDeveloperId)) {
+            return nothingToDo(new BulkJob("REASSIGN"), async);
+        }
+        return run(new BulkJob("REASSIGN"),
+                Criteria.where("assignedTo").is(developerId),
+                new Update().set("assignedTo", newDeveloperId),
+                async);
+    }
+
+    @Override
+    public Mono<BulkJob> moveCandidates(String positionId, String newPositionId, boolean async) {
+        if (Objects.equals(positionId, newPositionId)) {
+            return nothingToDo(new BulkJob("MOVE"), async);
+        }
+        return positionsService.getPositionById(newPositionId)
+                .then(Mono.defer(() -> run(new BulkJob("MOVE"),
+                        Criteria.where("positionId").is(positionId).and("isHired").is(false),
+                        new Update().set("positionId", newPositionId),
+                        async)));
+    }
+
+    @Override
+    public Mono<BulkJob> deleteCandidatesByPositionId(String positionId, boolean async) {
+        return run(new BulkJob("DELETE"), Criteria.where("positionId").is(positionId).and("isHired").is(false), null, async);
+    }
+
+    @Override
+    public Mono<BulkJob> getJob(String jobId) {
+        return bulkJobRegistry.find(jobId)
+                .switchIfEmpty(Mono.error(() -> new BulkJobNotFoundException("Bulk job " + jobId + " not found")));
+    }
+
+    @Override
+    public Mono<BulkJob> cancelJob(String jobId) {
+        return bulkJobRegistry.cancel(jobId)
+                .switchIfEmpty(Mono.error(() -> new BulkJobNotFoundException("Bulk job " + jobId + " not found")));
+    }
+
+    /**
+     * Runs the write, deleting the matching candidates when {@code update} is null.
+     */
+    private Mono<BulkJob> run(BulkJob job, Criteria filter, Update update, boolean async) {
+        if (!async) {
+            Mono<Long> write = update == null
+                    ? candidateRepository.deleteAll(filter)
+                    : candidateRepository.updateAll(filter, update);
+            return write.doOnSuccess(count -> candidateNearCache.invalidateAll()).map(count -> {
+                job.start(count);
+                job.advance(count);
+                job.complete();
+                return job;
+            });
+        }
+        return bulkJobRegistry.register(job)
+                .doOnNext(registered -> bulkJobRegistry.run(registered.getId(), runInBatches(registered, filter, update)));
+    }
+
+    /**
+     * Works through the batches until none is left or the job is no longer running, then completes it.
+     */
+    private Mono<Void> runInBatches(BulkJob job, Criteria filter, Update update) {
+        String id = job.getId();
+        int batchSize = bulkProperties.getBatchSize();
+        Mono<Boolean> batch = Mono.defer(() -> update == null
+                        ? candidateRepository.deleteBatch(filter, batchSize)
+                        : candidateRepository.updateBatch(filter, update, batchSize))
+                .doOnNext(written -> written.ids().forEach(candidateNearCache::invalidate))
+                .flatMap(written -> written.count() == 0 ? Mono.just(false) : bulkJobRegistry.advance(id, written.count()));
+        return candidateRepository.countMatching(filter)
+                .flatMap(total -> bulkJobRegistry.start(id, total))
+                .filter(Boolean::booleanValue)
+                .flatMapMany(running -> batch.repeat().takeWhile(Boolean::booleanValue))
+                .then(Mono.defer(() -> bulkJobRegistry.finish(id, BulkJob.State.COMPLETED, null)))
+                .onErrorResume(error -> {
+                    log.error("Bulk job {} ({}) failed", id, job.getOperation(), error);
+                    return bulkJobRegistry.finish(id, BulkJob.State.FAILED, error.getMessage());
+                })
+                .then();
+    }
+
+    private Mono<BulkJob> nothingToDo(BulkJob job, boolean async) {
+        job.complete();
+        return async ? bulkJobRegistry.register(job) : Mono.just(job);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.candidate.service;
+
+import com.example.candidate.model.Candidate;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Turns CSV lines into candidates. The first line is a header naming the columns, in any order; unknown
+ * columns are ignored. Fields may be quoted with {@code "} (doubled to escape), but a quoted field cannot
+ * span lines because the request body is decoded line by line.
+ */
+final class CandidateCsvParser {
+    private static final Map<String, BiConsumer<Candidate, String>> COLUMNS = Map.of(
+            "name", Candidate::setName,
+            "phonenumber", Candidate::setPhoneNumber,
+            "cvlink", Candidate::setCvLink,
+            "email", Candidate::setEmail,
+            "interviewdate", (candidate, value) -> candidate.setInterviewDate(LocalDate.parse(value)),
+            "documentid", Candidate::setDocumentId,
+            "assignedto", Candidate::setAssignedTo,
+            "positionid", Candidate::setPositionId
+    );
+
+    private CandidateCsvParser() {
+    }
+
+    static Flux<CandidateImportRow> parse(Flux<String> lines) {
+        return lines
+                .filter(line -> !line.isBlank())
+                .switchOnFirst((first, all) -> {
+                    if (!first.hasValue()) {
+                        return Flux.empty();
+                    }
+                    List<String> header = split(first.get()).stream()
+                            .map(column -> column.strip().toLowerCase(Locale.ROOT))
+                            .toList();
+                    return all.skip(1)
+                            .index()
+                            .map(line -> toRow(line.getT1() + 1, header, line.getT2()));
+                });
+    }
+
+    private static CandidateImportRow toRow(long row, List<String> header, String line) {
+        List<String> fields = split(line);
+        if (fields.size() > header.size()) {
+            return CandidateImportRow.unreadable(row, "Row has " + fields.size() + " fields but the header has " + header.size());
+        }
+        Candidate candidate = new Candidate();
+        for (int i = 0; i < fields.size(); i++) {
+            BiConsumer<Candidate, String> setter = COLUMNS.get(header.get(i));
+            String value = fields.get(i).strip();
+            if (setter == null || value.isEmpty()) {
+                continue;
+            }
+            try {
+                setter.accept(candidate, value);
+            } catch (DateTimeParseException e) {
+                return CandidateImportRow.unreadable(row, "Invalid " + header.get(i) + ": " + value);
+            }
+        }
+        return CandidateImportRow.of(row, candidate);
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
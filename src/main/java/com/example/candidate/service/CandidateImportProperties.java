@@ -0,0 +1,12 @@
+package com.example.candidate.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "candidates.import")
+public class CandidateImportProperties {
+    private int batchSize = 500;
+}
@@ -0,0 +1,16 @@
+package com.example.candidate.service;
+
+import com.example.candidate.model.Candidate;
+
+/**
+ * One input row of a bulk import: either a parsed candidate or the reason it could not be parsed.
+ */
+record CandidateImportRow(long row, Candidate candidate, String error) {
+    static CandidateImportRow of(long row, Candidate candidate) {
+        return new CandidateImportRow(row, candidate, null);
+    }
+
+    static CandidateImportRow unreadable(long row, String error) {
+        return new CandidateImportRow(row, null, error);
+    }
+}
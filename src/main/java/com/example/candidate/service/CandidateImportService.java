@@ -0,0 +1,9 @@
+package com.example.candidate.service;
+
+import com.example.candidate.model.CandidateImportResult;
+import reactor.core.publisher.Flux;
+
+public interface CandidateImportService {
+    Flux<CandidateImportResult> importCandidates(Flux<String> lines);
+    Flux<CandidateImportResult> importCandidatesFromCsv(Flux<String> lines);
+}
@@ -0,0 +1,183 @@
+package com.example.candidate.service;
+
+import com.example.candidate.cache.CandidateNearCache;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateImportResult;
+import com.example.candidate.model.CandidateImportResult.Outcome;
+import com.example.candidate.model.Position;
+import com.example.candidate.repository.BulkInsertResult;
+import com.example.candidate.repository.CandidateContactKeys;
+import com.example.candidate.repository.CandidateRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports candidates in batches of {@link CandidateImportProperties#getBatchSize()}. Each batch costs one
+ * position lookup, one {@code $in} duplicate query and one unordered bulk insert, and yields one result per
+ * input row, in input order.
+ */
+@Service
+@RequiredArgsConstructor
+public class CandidateImportServiceImpl implements CandidateImportService {
+    private final CandidateRepository candidateRepository;
+    private final PositionsService positionsService;
+    private final CandidateImportProperties importProperties;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CandidateNearCache candidateNearCache;
+
+    /**
+     * Reads each non-blank line as one candidate, so a line that is not valid JSON is reported as an invalid
+     * row and the lines after it are still imported.
+     */
+    @Override
+    public Flux<CandidateImportResult> importCandidates(Flux<String> lines) {
+        return importRows(lines
+                .filter(line -> !line.isBlank())
+                .index()
+                .map(line -> readRow(line.getT1() + 1, line.getT2())));
+    }
+
+    @Override
+    public Flux<CandidateImportResult> importCandidatesFromCsv(Flux<String> lines) {
+        return importRows(CandidateCsvParser.parse(lines));
+    }
+
+    private Flux<CandidateImportResult> importRows(Flux<CandidateImportRow> rows) {
+        return rows.buffer(importProperties.getBatchSize())
+                .concatMap(this::importBatch);
+    }
+
+    private Flux<CandidateImportResult> importBatch(List<CandidateImportRow> batch) {
+        CandidateImportResult[] results = new CandidateImportResult[batch.size()];
+        List<Integer> accepted = new ArrayList<>(batch.size());
+        Set<String> batchEmails = new HashSet<>();
+        Set<String> batchPhoneNumbers = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            CandidateImportRow row = batch.get(i);
+            String problem = row.error() != null ? row.error() : validate(row.candidate());
+            if (problem != null) {
+                results[i] = CandidateImportResult.rejected(row.row(), Outcome.INVALID, problem);
+                continue;
+            }
+            String email = CandidateContactKeys.email(row.candidate().getEmail());
+            String phoneNumber = CandidateContactKeys.phoneNumber(row.candidate().getPhoneNumber());
+            if (batchEmails.contains(email)) {
+                results[i] = CandidateImportResult.rejected(row.row(), Outcome.DUPLICATE, "Email appears more than once in this import");
+            } else if (batchPhoneNumbers.contains(phoneNumber)) {
+                results[i] = CandidateImportResult.rejected(row.row(), Outcome.DUPLICATE, "Phone number appears more than once in this import");
+            } else {
+                addIfPresent(batchEmails, email);
+                addIfPresent(batchPhoneNumbers, phoneNumber);
+                accepted.add(i);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return Flux.fromArray(results);
+        }
+
+        Set<String> positionIds = accepted.stream()
+                .map(i -> batch.get(i).candidate().getPositionId())
+                .collect(Collectors.toSet());
+        Mono<Set<String>> existingPositions = positionsService.getPositionsByIds(positionIds)
+                .map(Position::getId)
+                .collect(Collectors.toSet());
+        Mono<List<Candidate>> existingCandidates = candidateRepository
+                .findByContactKeys(batchEmails, batchPhoneNumbers)
+                .collectList();
+
+        return Mono.zip(existingPositions, existingCandidates)
+                .flatMap(existing -> insertAccepted(batch, accepted, existing, results))
+                .thenMany(Flux.defer(() -> Flux.fromArray(results)));
+    }
+
+    private Mono<Void> insertAccepted(List<CandidateImportRow> batch, List<Integer> accepted,
+                                      Tuple2<Set<String>, List<Candidate>> existing, CandidateImportResult[] results) {
+        Set<String> positionIds = existing.getT1();
+        Set<String> takenEmails = existing.getT2().stream()
+                .map(candidate -> CandidateContactKeys.email(candidate.getEmail()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> takenPhoneNumbers = existing.getT2().stream()
+                .map(candidate -> CandidateContactKeys.phoneNumber(candidate.getPhoneNumber()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        List<Candidate> toInsert = new ArrayList<>(accepted.size());
+        List<Integer> insertedAt = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            CandidateImportRow row = batch.get(i);
+            Candidate candidate = row.candidate();
+            if (!positionIds.contains(candidate.getPositionId())) {
+                results[i] = CandidateImportResult.rejected(row.row(), Outcome.INVALID, "Position with id " + candidate.getPositionId() + " not found");
+            } else if (takenEmails.contains(CandidateContactKeys.email(candidate.getEmail()))) {
+                results[i] = CandidateImportResult.rejected(row.row(), Outcome.DUPLICATE, "Candidate with this email already exist");
+            } else if (takenPhoneNumbers.contains(CandidateContactKeys.phoneNumber(candidate.getPhoneNumber()))) {
+                results[i] = CandidateImportResult.rejected(row.row(), Outcome.DUPLICATE, "Candidate with this phone number already exist");
+            } else {
+                candidate.setId(new ObjectId().toHexString());
+                candidate.setVersion(0L);
+                toInsert.add(candidate);
+                insertedAt.add(i);
+            }
+        }
+
+        return candidateRepository.insertUnordered(toInsert)
+                .doOnNext(inserted -> {
+                    for (int j = 0; j < toInsert.size(); j++) {
+                        int i = insertedAt.get(j);
+                        results[i] = CandidateImportResult.created(batch.get(i).row(), toInsert.get(j).getId());
+                        candidateNearCache.invalidate(toInsert.get(j).getId());
+                    }
+                    for (BulkInsertResult.Failure failure : inserted.failures()) {
+                        int i = insertedAt.get(failure.index());
+                        results[i] = CandidateImportResult.rejected(batch.get(i).row(),
+                                failure.isDuplicateKey() ? Outcome.DUPLICATE : Outcome.FAILED, failure.message());
+                    }
+                })
+                .then();
+    }
+
+    private CandidateImportRow readRow(long row, String line) {
+        try {
+            return CandidateImportRow.of(row, objectMapper.readValue(line, Candidate.class));
+        } catch (JsonProcessingException e) {
+            return CandidateImportRow.unreadable(row, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private String validate(Candidate candidate) {
+        if (candidate.getPositionId() == null) {
+            return "Position id is required";
+        }
+        Set<ConstraintViolation<Candidate>> violations = validator.validate(candidate);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static void addIfPresent(Set<String> seen, String value) {
+        if (value != null) {
+            seen.add(value);
+        }
+    }
+}
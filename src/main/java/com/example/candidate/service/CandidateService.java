@@ -1,18 +1,41 @@
 package com.example.candidate.service;
 
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateSuggestion;
+import com.example.candidate.model.HiringStats;
+import com.example.candidate.pagination.CursorPage;
+import com.example.candidate.projection.FieldSelection;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface CandidateService {
-    Candidate addCandidate(Candidate candidate);
-    List<Candidate> getAllCandidates();
-    Candidate getCandidateById(String id);
-    Candidate updateCandidate(String id, Candidate candidate);
-    List<Candidate> getCandidateByName(String name);
-    List<Candidate> findCandidatesByAssignedTo(String assignedToId);
-    void deleteCandidate(String id);
-    List<Candidate> getCandidatesByPositionId(String positionId);
-    Candidate findCandidateByDocumentId(String documentId);
-    void hireCandidate(String id, String positionId);
+    Mono<Candidate> addCandidate(Candidate candidate);
+    Flux<Candidate> getAllCandidates();
+    Flux<Candidate> getAllCandidates(FieldSelection<Candidate> fields);
+    Flux<Candidate> streamAllCandidates();
+    Mono<Candidate> getCandidateById(String id);
+    Mono<Long> getCandidateVersion(String id);
+    Mono<Candidate> updateCandidate(String id, Candidate candidate, Long expectedVersion);
+    Mono<Candidate> patchCandidate(String id, Map<String, Object> patch, Long expectedVersion);
+    Flux<Candidate> getCandidateByName(String name);
+    Flux<CandidateSuggestion> suggestCandidateNames(String prefix, int limit);
+    Flux<Candidate> findCandidatesByAssignedTo(String assignedToId);
+    Flux<Candidate> findCandidatesByAssignedTo(String assignedToId, FieldSelection<Candidate> fields);
+    Mono<Void> deleteCandidate(String id);
+    Flux<Candidate> getCandidatesByPositionId(String positionId);
+    Flux<Candidate> getCandidatesByPositionId(String positionId, FieldSelection<Candidate> fields);
+    Mono<Candidate> findCandidateByDocumentId(String documentId);
+    Mono<List<BatchLookupResult<Candidate>>> lookupCandidates(BatchLookupRequest request);
+    Mono<Void> hireCandidate(String id, String positionId);
+    Mono<HiringStats> getHiringStats(LocalDate interviewFrom, LocalDate interviewTo);
+    Mono<CursorPage<Candidate>> getCandidatesPage(String cursor, Integer size);
+    Mono<CursorPage<Candidate>> getCandidatesPage(String cursor, Integer size, FieldSelection<Candidate> fields);
+    Mono<CursorPage<Candidate>> getCandidatesPageByPositionId(String positionId, String cursor, Integer size);
+    Mono<CursorPage<Candidate>> getCandidatesPageByAssignedTo(String assignedToId, String cursor, Integer size);
 }
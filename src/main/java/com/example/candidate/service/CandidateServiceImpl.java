@@ -1,112 +1,276 @@
 package com.example.candidate.service;
 
+import com.example.candidate.cache.CandidateNearCache;
 import com.example.candidate.exception.CandidateNotFoundException;
+import com.example.candidate.exception.CandidateVersionConflictException;
 import com.example.candidate.exception.DuplicateCandidateException;
-import com.example.candidate.exception.PositionNotFoundException;
+import com.example.candidate.exception.InvalidBatchLookupException;
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Candidate;
-import com.example.candidate.model.Position;
-import com.example.candidate.model.Status;
-import com.example.candidate.model.SubStatus;
+import com.example.candidate.model.CandidateSuggestion;
+import com.example.candidate.model.HiringStats;
+import com.example.candidate.pagination.CursorPage;
+import com.example.candidate.pagination.PageCursor;
+import com.example.candidate.pagination.PaginationProperties;
+import com.example.candidate.projection.FieldSelection;
+import com.example.candidate.repository.CandidateContactKeys;
 import com.example.candidate.repository.CandidateRepository;
+import com.example.candidate.repository.Updates;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class CandidateServiceImpl implements CandidateService {
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "name", "phoneNumber", "cvLink", "email", "interviewDate", "documentId", "assignedTo", "positionId");
 
     private final CandidateRepository candidateRepository;
     private final PositionsService positionsService;
+    private final PaginationProperties paginationProperties;
+    private final MergePatchTranslator mergePatchTranslator;
+    private final CandidateNearCache candidateNearCache;
+    private final BatchLookupProperties batchLookupProperties;
 
-    public Candidate addCandidate(Candidate candidate) {
-        Position position = positionsService.getPositionById(candidate.getPositionId());
-        String positionName = position.getName();
-        if (positionsService.getPositionsByName(positionName).isEmpty()) {
-            throw new PositionNotFoundException("Position with name " + candidate.getName()+ " not found");
-        }
-        if (candidateRepository.existsByPhoneNumber(candidate.getPhoneNumber())){
-            throw new DuplicateCandidateException("Candidate with this phone number already exist");
-        }
-        if (candidateRepository.existsByEmail(candidate.getEmail())){
-            throw new DuplicateCandidateException("Candidate with this email already exist");
-        }
-        return candidateRepository.save(candidate);
+    /**
+     * Uniqueness of email and phone number is enforced by the unique indexes on the
+     * {@link CandidateContactKeys}, so creation is one insert and concurrent duplicates cannot both succeed.
+     */
+    public Mono<Candidate> addCandidate(Candidate candidate) {
+        return positionsService.getPositionById(candidate.getPositionId())
+                .then(Mono.defer(() -> candidateRepository.insert(candidate)))
+                .onErrorMap(DuplicateKeyException.class, CandidateServiceImpl::toDuplicateCandidateException);
     }
 
-    public List<Candidate> getAllCandidates() {
+    public Flux<Candidate> getAllCandidates() {
         Sort sort = Sort.by(Sort.Direction.ASC, "name");
         return candidateRepository.findAll(sort);
     }
 
-    public Candidate getCandidateById(String id) {
-        return candidateRepository.findById(id)
-                .orElseThrow(() -> new CandidateNotFoundException("Candidate not exist with id: " + id));
+    /**
+     * All candidates by name, reading only the selected fields from MongoDB.
+     */
+    @Override
+    public Flux<Candidate> getAllCandidates(FieldSelection<Candidate> fields) {
+        return candidateRepository.findSelected(null, Sort.by(Sort.Direction.ASC, "name"), fields);
     }
 
-    public Candidate updateCandidate(String id, Candidate updatedCandidate) {
-        Candidate candidate = candidateRepository.findById(id)
-                .orElseThrow(() -> new CandidateNotFoundException("Candidate with " + id + " not found"));
+    @Override
+    public Flux<Candidate> streamAllCandidates() {
+        Sort sort = Sort.by(Sort.Direction.ASC, "name");
+        return candidateRepository.streamAllBy(sort);
+    }
 
-        candidate.setName(updatedCandidate.getName());
-        candidate.setPositionId(updatedCandidate.getPositionId());
-        candidate.setPhoneNumber(updatedCandidate.getPhoneNumber());
-        candidate.setEmail(updatedCandidate.getEmail());
-        candidate.setCvLink(updatedCandidate.getCvLink());
-        candidate.setInterviewDate(updatedCandidate.getInterviewDate());
-        candidate.setDocumentId(updatedCandidate.getDocumentId());
-        candidate.setAssignedTo(updatedCandidate.getAssignedTo());
+    public Mono<Candidate> getCandidateById(String id) {
+        return candidateNearCache.getById(id, () -> candidateRepository.findById(id))
+                .switchIfEmpty(Mono.error(() -> new CandidateNotFoundException("Candidate not exist with id: " + id)));
+    }
 
-        return candidateRepository.save(candidate);
+    /**
+     * Current version of the candidate without loading it, or empty if there is no such candidate.
+     */
+    @Override
+    public Mono<Long> getCandidateVersion(String id) {
+        return Mono.justOrEmpty(candidateNearCache.peekVersion(id))
+                .switchIfEmpty(Mono.defer(() -> candidateRepository.findVersion(id)));
     }
 
-    public List<Candidate> getCandidateByName(String name) {
-        return candidateRepository.findByNameIgnoreCase(name);
+    /**
+     * Replaces the editable fields in one conditional write. With an {@code expectedVersion} the write only
+     * applies if nobody has changed the candidate since that version was read.
+     */
+    public Mono<Candidate> updateCandidate(String id, Candidate updatedCandidate, Long expectedVersion) {
+        Update update = new Update();
+        Updates.setOrUnset(update, "name", updatedCandidate.getName());
+        Updates.setOrUnset(update, "positionId", updatedCandidate.getPositionId());
+        Updates.setOrUnset(update, "phoneNumber", updatedCandidate.getPhoneNumber());
+        Updates.setOrUnset(update, CandidateContactKeys.PHONE_NUMBER, CandidateContactKeys.phoneNumber(updatedCandidate.getPhoneNumber()));
+        Updates.setOrUnset(update, "email", updatedCandidate.getEmail());
+        Updates.setOrUnset(update, CandidateContactKeys.EMAIL, CandidateContactKeys.email(updatedCandidate.getEmail()));
+        Updates.setOrUnset(update, "cvLink", updatedCandidate.getCvLink());
+        Updates.setOrUnset(update, "interviewDate", updatedCandidate.getInterviewDate());
+        Updates.setOrUnset(update, "documentId", updatedCandidate.getDocumentId());
+        Updates.setOrUnset(update, "assignedTo", updatedCandidate.getAssignedTo());
+        update.inc("version", 1);
+
+        return candidateRepository.updateIfVersion(id, expectedVersion, update)
+                .doOnNext(updated -> candidateNearCache.invalidate(id))
+                .switchIfEmpty(Mono.defer(() -> explainFailedUpdate(id, expectedVersion)))
+                .onErrorMap(DuplicateKeyException.class, CandidateServiceImpl::toDuplicateCandidateException);
     }
 
+    /**
+     * Applies a JSON Merge Patch as a single conditional write of just the patched fields, validating only
+     * those fields.
+     */
     @Override
-    public List<Candidate> findCandidatesByAssignedTo(String assignedToId) {
-        List<Candidate> assignedCandidates = candidateRepository.findCandidatesByAssignedTo(assignedToId);
-        if (assignedCandidates.isEmpty()) {
-            throw new CandidateNotFoundException("No candidates found assigned to developer with ID: " + assignedToId);
-        }
-        return assignedCandidates;
+    public Mono<Candidate> patchCandidate(String id, Map<String, Object> patch, Long expectedVersion) {
+        return Mono.fromCallable(() -> mergePatchTranslator.read(Candidate.class, patch, PATCHABLE_FIELDS, Set.of()))
+                .flatMap(values -> {
+                    if (values.isEmpty()) {
+                        return getCandidateById(id);
+                    }
+                    Update update = MergePatchTranslator.toUpdate(values);
+                    if (values.containsKey("email")) {
+                        Updates.setOrUnset(update, CandidateContactKeys.EMAIL, CandidateContactKeys.email((String) values.get("email")));
+                    }
+                    if (values.containsKey("phoneNumber")) {
+                        Updates.setOrUnset(update, CandidateContactKeys.PHONE_NUMBER, CandidateContactKeys.phoneNumber((String) values.get("phoneNumber")));
+                    }
+                    update.inc("version", 1);
+                    return candidateRepository.updateIfVersion(id, expectedVersion, update)
+                            .doOnNext(updated -> candidateNearCache.invalidate(id))
+                            .switchIfEmpty(Mono.defer(() -> explainFailedUpdate(id, expectedVersion)));
+                })
+                .onErrorMap(DuplicateKeyException.class, CandidateServiceImpl::toDuplicateCandidateException);
+    }
+
+    public Flux<Candidate> getCandidateByName(String name) {
+        return candidateRepository.findByName(name);
     }
 
     @Override
-    public void deleteCandidate(String id) {
-        if (!candidateRepository.existsById(id)) {
-            throw new CandidateNotFoundException("Candidate not exist with id: " + id);
+    public Flux<CandidateSuggestion> suggestCandidateNames(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return Flux.empty();
         }
-        candidateRepository.deleteById(id);
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return candidateRepository.findNameSuggestions(prefix.strip(), boundedLimit);
+    }
+
+    @Override
+    public Flux<Candidate> findCandidatesByAssignedTo(String assignedToId) {
+        return candidateRepository.findCandidatesByAssignedTo(assignedToId)
+                .switchIfEmpty(Flux.error(() -> new CandidateNotFoundException("No candidates found assigned to developer with ID: " + assignedToId)));
+    }
+
+    @Override
+    public Flux<Candidate> findCandidatesByAssignedTo(String assignedToId, FieldSelection<Candidate> fields) {
+        return candidateRepository.findSelected(Criteria.where("assignedTo").is(assignedToId), Sort.unsorted(), fields)
+                .switchIfEmpty(Flux.error(() -> new CandidateNotFoundException("No candidates found assigned to developer with ID: " + assignedToId)));
+    }
+
+    @Override
+    public Mono<Void> deleteCandidate(String id) {
+        return candidateRepository.existsById(id)
+                .flatMap(exists -> {
+                    if (Boolean.FALSE.equals(exists)) {
+                        return Mono.error(new CandidateNotFoundException("Candidate not exist with id: " + id));
+                    }
+                    return candidateRepository.deleteById(id)
+                            .doOnSuccess(deleted -> candidateNearCache.invalidate(id));
+                });
     }
 
     @Override
-    public List<Candidate> getCandidatesByPositionId(String positionId) {
+    public Flux<Candidate> getCandidatesByPositionId(String positionId) {
         return candidateRepository.findCandidatesByPositionId(positionId);
     }
 
     @Override
-    public Candidate findCandidateByDocumentId(String documentId) {
-        return candidateRepository.findCandidateByDocumentId(documentId);
+    public Flux<Candidate> getCandidatesByPositionId(String positionId, FieldSelection<Candidate> fields) {
+        return candidateRepository.findSelected(Criteria.where("positionId").is(positionId), Sort.unsorted(), fields);
+    }
+
+    @Override
+    public Mono<Candidate> findCandidateByDocumentId(String documentId) {
+        return candidateNearCache.getByDocumentId(documentId, () -> candidateRepository.findCandidateByDocumentId(documentId));
+    }
+
+    /**
+     * Resolves the ids, or the document ids, with a single {@code $in} query and answers every key in request
+     * order, marking the ones that matched nothing.
+     */
+    @Override
+    public Mono<List<BatchLookupResult<Candidate>>> lookupCandidates(BatchLookupRequest request) {
+        return Mono.defer(() -> {
+            List<String> ids = request.getIds() == null ? List.of() : request.getIds();
+            List<String> documentIds = request.getDocumentIds() == null ? List.of() : request.getDocumentIds();
+            if (ids.isEmpty() == documentIds.isEmpty()) {
+                return Mono.error(new InvalidBatchLookupException("Provide either ids or documentIds to look up"));
+            }
+            if (!ids.isEmpty()) {
+                return candidateRepository.findAllById(new LinkedHashSet<>(batchLookupProperties.validateKeys(ids)))
+                        .collectList()
+                        .map(candidates -> BatchLookupResult.inRequestOrder(ids, candidates, Candidate::getId));
+            }
+            return candidateRepository.findCandidatesByDocumentIdIn(new LinkedHashSet<>(batchLookupProperties.validateKeys(documentIds)))
+                    .collectList()
+                    .map(candidates -> BatchLookupResult.inRequestOrder(documentIds, candidates, Candidate::getDocumentId));
+        });
+    }
+
+    @Override
+    public Mono<Void> hireCandidate(String candidateId, String positionId) {
+        return positionsService.fillPosition(positionId, candidateId);
+    }
+
+    @Override
+    public Mono<HiringStats> getHiringStats(LocalDate interviewFrom, LocalDate interviewTo) {
+        return candidateRepository.aggregateHiringStats(interviewFrom, interviewTo);
+    }
+
+    @Override
+    public Mono<CursorPage<Candidate>> getCandidatesPage(String cursor, Integer size) {
+        return findPage(null, cursor, size, null);
+    }
+
+    @Override
+    public Mono<CursorPage<Candidate>> getCandidatesPage(String cursor, Integer size, FieldSelection<Candidate> fields) {
+        return findPage(null, cursor, size, fields);
+    }
+
+    @Override
+    public Mono<CursorPage<Candidate>> getCandidatesPageByPositionId(String positionId, String cursor, Integer size) {
+        return findPage(Criteria.where("positionId").is(positionId), cursor, size, null);
     }
 
     @Override
-    public void hireCandidate(String candidateId, String positionId) {
-        Candidate candidate = candidateRepository.findById(candidateId)
-                .orElseThrow(() -> new CandidateNotFoundException("Candidate not exist with id: " + candidateId));
-        Position position = positionsService.getPositionById(positionId);
+    public Mono<CursorPage<Candidate>> getCandidatesPageByAssignedTo(String assignedToId, String cursor, Integer size) {
+        return findPage(Criteria.where("assignedTo").is(assignedToId), cursor, size, null);
+    }
 
-        candidate.setHired(true);
-        candidate.setAssignedTo(null);
-        position.setHiredCandidateId(candidateId);
-        position.setStatus(Status.CLOSED);
-        position.setSubStatus(SubStatus.FILLED);
+    private Mono<CursorPage<Candidate>> findPage(Criteria filter, String cursor, Integer size, FieldSelection<Candidate> fields) {
+        int limit = paginationProperties.resolvePageSize(size);
+        return Mono.defer(() -> {
+                    PageCursor after = PageCursor.decode(cursor);
+                    Flux<Candidate> rows = fields == null
+                            ? candidateRepository.findPage(filter, after, limit + 1)
+                            : candidateRepository.findPage(filter, after, limit + 1, fields);
+                    return rows.collectList();
+                })
+                .map(rows -> CursorPage.of(rows, limit, candidate -> new PageCursor(candidate.getName(), candidate.getId())));
+    }
 
-        candidateRepository.save(candidate);
-        positionsService.updatePosition(positionId, position);
+    private Mono<Candidate> explainFailedUpdate(String id, Long expectedVersion) {
+        return candidateRepository.existsById(id)
+                .flatMap(exists -> Mono.error(Boolean.TRUE.equals(exists)
+                        ? new CandidateVersionConflictException("Candidate with " + id + " is no longer at version " + expectedVersion)
+                        : new CandidateNotFoundException("Candidate with " + id + " not found")));
     }
 
+    private static DuplicateCandidateException toDuplicateCandidateException(DuplicateKeyException duplicateKeyException) {
+        String key = CandidateContactKeys.duplicatedKey(duplicateKeyException);
+        if (CandidateContactKeys.PHONE_NUMBER.equals(key)) {
+            return new DuplicateCandidateException("Candidate with this phone number already exist");
+        }
+        if (CandidateContactKeys.EMAIL.equals(key)) {
+            return new DuplicateCandidateException("Candidate with this email already exist");
+        }
+        return new DuplicateCandidateException("Candidate already exist");
+    }
 }
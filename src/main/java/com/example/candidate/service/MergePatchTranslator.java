@@ -0,0 +1,76 @@
+package com.example.candidate.service;
+
+import com.example.candidate.exception.InvalidPatchException;
+import com.example.candidate.repository.Updates;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a JSON Merge Patch (RFC 7396) into a MongoDB update: a member with a value becomes a {@code $set},
+ * a member that is null becomes an {@code $unset}, and members that are absent are left alone. Only the
+ * patched properties are validated, against the same Bean Validation constraints as the full document.
+ */
+@Component
+@RequiredArgsConstructor
+public class MergePatchTranslator {
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The patch converted to the property types of {@code type}, keyed by property name. Patching a property
+     * outside {@code patchable}, removing one in {@code required}, or a value that does not convert or
+     * validate, fails with {@link InvalidPatchException}.
+     */
+    public <T> Map<String, Object> read(Class<T> type, Map<String, Object> patch, Set<String> patchable, Set<String> required) {
+        Map<String, Object> values = new TreeMap<>();
+        for (Map.Entry<String, Object> member : patch.entrySet()) {
+            String property = member.getKey();
+            if (!patchable.contains(property)) {
+                throw new InvalidPatchException("Field " + property + " cannot be patched");
+            }
+            if (member.getValue() == null) {
+                if (required.contains(property)) {
+                    throw new InvalidPatchException("Field " + property + " cannot be removed");
+                }
+                values.put(property, null);
+                continue;
+            }
+            Object value = convert(type, property, member.getValue());
+            Set<ConstraintViolation<T>> violations = validator.validateValue(type, property, value);
+            if (!violations.isEmpty()) {
+                throw new InvalidPatchException(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+            values.put(property, value);
+        }
+        return values;
+    }
+
+    public static Update toUpdate(Map<String, Object> values) {
+        Update update = new Update();
+        values.forEach((property, value) -> Updates.setOrUnset(update, property, value));
+        return update;
+    }
+
+    private Object convert(Class<?> type, String property, Object value) {
+        try {
+            Class<?> propertyType = type.getDeclaredField(property).getType();
+            return objectMapper.convertValue(value, propertyType);
+        } catch (NoSuchFieldException | IllegalArgumentException e) {
+            throw new InvalidPatchException("Invalid value for field " + property);
+        }
+    }
+}
@@ -1,23 +1,40 @@
 package com.example.candidate.service;
 
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Position;
+import com.example.candidate.model.PositionWithCandidates;
 import com.example.candidate.model.Status;
 import com.example.candidate.model.SubStatus;
+import com.example.candidate.pagination.CursorPage;
 import lombok.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 public interface PositionsService {
-    List<Position> getAllPositions();
-    Position getPositionById(String id);
-    List<Position> getPositionsByName(String name);
-    Position addPosition(Position position);
-    Position updatePosition(String id, Position position);
-    void cancelPosition(String id);
-    void fillPosition(String id, String hiredCandidateId);
-    List<Position> getPositionsByStatus(Status status);
-    List<Position> getPositionsByStatusAndSubStatus(@NonNull Status status, SubStatus subStatus);
-    List<Position> getPositionsByStatuses(Status status1, Status status2);
-    Set<String> getUniquePositionNames();
+    Flux<Position> getAllPositions();
+    Optional<String> getPositionsChangeToken();
+    Mono<Position> getPositionById(String id);
+    Flux<Position> getPositionsByName(String name);
+    Flux<Position> getPositionsByIds(Collection<String> ids);
+    Mono<List<BatchLookupResult<Position>>> lookupPositions(BatchLookupRequest request);
+    Mono<Position> addPosition(Position position);
+    Mono<Position> updatePosition(String id, Position position, Long expectedVersion);
+    Mono<Position> patchPosition(String id, Map<String, Object> patch, Long expectedVersion);
+    Mono<Void> cancelPosition(String id, Long expectedVersion);
+    Mono<Void> fillPosition(String id, String hiredCandidateId);
+    Flux<Position> getPositionsByStatus(Status status);
+    Flux<Position> getPositionsByStatusAndSubStatus(@NonNull Status status, SubStatus subStatus);
+    Flux<Position> getPositionsByStatuses(Status status1, Status status2);
+    Mono<Set<String>> getUniquePositionNames();
+    Flux<String> getPositionNamesStartingWith(String prefix, int limit);
+    Mono<CursorPage<Position>> getPositionsPage(Status status, String cursor, Integer size);
+    Mono<PositionWithCandidates> getPositionWithCandidates(String id, Integer candidateLimit);
+    Flux<PositionWithCandidates> getPositionsWithCandidates(Status status, Integer size, Integer candidateLimit);
 }
@@ -1,136 +1,335 @@
 package com.example.candidate.service;
 
+import com.example.candidate.cache.CandidateNearCache;
+import com.example.candidate.cache.PositionsReplica;
 import com.example.candidate.exception.*;
-import com.example.candidate.model.Candidate;
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Position;
+import com.example.candidate.model.PositionWithCandidates;
 import com.example.candidate.model.Status;
 import com.example.candidate.model.SubStatus;
+import com.example.candidate.pagination.CursorPage;
+import com.example.candidate.pagination.PageCursor;
+import com.example.candidate.pagination.PaginationProperties;
 import com.example.candidate.repository.CandidateRepository;
 import com.example.candidate.repository.PositionsRepository;
+import com.example.candidate.repository.Updates;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PositionsServiceImpl implements PositionsService{
+    private static final int MAX_NAME_SUGGESTIONS = 50;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "status", "subStatus");
+    private static final Set<String> REQUIRED_FIELDS = Set.of("name", "status");
     private final PositionsRepository positionsRepository;
     private final CandidateRepository candidateRepository;
+    private final PaginationProperties paginationProperties;
+    private final PositionsReplica positionsReplica;
+    private final MergePatchTranslator mergePatchTranslator;
+    private final BatchLookupProperties batchLookupProperties;
+    private final CandidateNearCache candidateNearCache;
     @Override
-    public List<Position> getAllPositions() {
+    public Flux<Position> getAllPositions() {
+        if (positionsReplica.isLoaded()) {
+            return Flux.fromIterable(positionsReplica.findAll());
+        }
         return positionsRepository.findAll();
     }
 
+    /**
+     * Token that changes with any position, taken from the replica without reading the positions; empty
+     * while the replica is not loaded.
+     */
     @Override
-    public Position getPositionById(String id) {
-        return positionsRepository.findById(id).orElseThrow(() -> new PositionNotFoundException("Position with id " + id + " not found"));
+    public Optional<String> getPositionsChangeToken() {
+        return positionsReplica.changeToken();
     }
 
+    /**
+     * Served from the replica when it is loaded. A replica miss still reads the collection, since a position
+     * created on another node is only in the replica once the change feed has delivered it.
+     */
     @Override
-    public List<Position> getPositionsByName(String name) {
-        return positionsRepository.findPositionsByName(name);
+    public Mono<Position> getPositionById(String id) {
+        Mono<Position> position = positionsReplica.isLoaded()
+                ? Mono.justOrEmpty(positionsReplica.findById(id)).switchIfEmpty(Mono.defer(() -> positionsRepository.findById(id)))
+                : positionsRepository.findById(id);
+        return position
+                .switchIfEmpty(Mono.error(() -> new PositionNotFoundException("Position with id " + id + " not found")));
     }
 
     @Override
-    public Position addPosition(Position position) {
-        List<Position> existingPositions = positionsRepository.findPositionsByName(position.getName());
-        if (!existingPositions.isEmpty()) {
-            for (Position existingPosition : existingPositions) {
-                if (!existingPosition.getStatus().equals(Status.CLOSED)) {
-                    throw new PositionAlreadyExistsException("Position with name " + position.getName() + " already exists and is not closed");
-                }
-            }
+    public Flux<Position> getPositionsByIds(Collection<String> ids) {
+        if (positionsReplica.isLoaded()) {
+            return Flux.fromIterable(ids)
+                    .flatMapIterable(id -> positionsReplica.findById(id).stream().toList());
         }
-
-        position.setStatus(Status.OPEN);
-        position.setSubStatus(null);
-        return positionsRepository.save(position);
+        return positionsRepository.findAllById(ids);
     }
 
     @Override
-    public Position updatePosition(String id, Position position) {
-        Position positionToUpdate = positionsRepository.findById(id).orElseThrow(() -> new PositionNotFoundException("Position with id " + id + " not found"));
-        positionToUpdate.setName(position.getName());
-        positionToUpdate.setStatus(position.getStatus());
-        if(position.getStatus().equals(Status.CLOSED)){
-            if(position.getSubStatus() == null){
-                position.setSubStatus(null);
+    public Mono<List<BatchLookupResult<Position>>> lookupPositions(BatchLookupRequest request) {
+        return Mono.defer(() -> {
+            if (request.getDocumentIds() != null && !request.getDocumentIds().isEmpty()) {
+                return Mono.error(new InvalidBatchLookupException("Positions can only be looked up by id"));
             }
-            positionToUpdate.setSubStatus(position.getSubStatus());
-        }
-        if(position.getStatus().equals(Status.OPEN) && position.getSubStatus() == null){
-            positionToUpdate.setSubStatus(null);
-        }
-        return positionsRepository.save(positionToUpdate);
+            if (request.getIds() == null || request.getIds().isEmpty()) {
+                return Mono.error(new InvalidBatchLookupException("Provide the ids to look up"));
+            }
+            List<String> ids = batchLookupProperties.validateKeys(request.getIds());
+            return getPositionsByIds(new LinkedHashSet<>(ids))
+                    .collectList()
+                    .map(positions -> BatchLookupResult.inRequestOrder(ids, positions, Position::getId));
+        });
     }
 
     @Override
-    public void cancelPosition(String id) {
-        Position position = positionsRepository.findById(id)
-                .orElseThrow(() -> new PositionNotFoundException("Position with id " + id + " not found"));
-
-        ensurePositionIsOpen(position);
-        ensureNoActiveCandidates(id);
+    public Flux<Position> getPositionsByName(String name) {
+        if (positionsReplica.isLoaded()) {
+            return Flux.fromIterable(positionsReplica.findByName(name));
+        }
+        return positionsRepository.findPositionsByName(name);
+    }
 
-        position.setStatus(Status.CLOSED);
-        position.setSubStatus(SubStatus.CANCELLED);
-        positionsRepository.save(position);
+    @Override
+    public Mono<Position> addPosition(Position position) {
+        return getPositionsByName(position.getName())
+                .filter(existingPosition -> !existingPosition.getStatus().equals(Status.CLOSED))
+                .hasElements()
+                .flatMap(openPositionExists -> {
+                    if (Boolean.TRUE.equals(openPositionExists)) {
+                        return Mono.error(new PositionAlreadyExistsException("Position with name " + position.getName() + " already exists and is not closed"));
+                    }
+                    position.setStatus(Status.OPEN);
+                    position.setSubStatus(null);
+                    return save(position);
+                });
     }
 
+    /**
+     * Applies the update in one conditional write. A sub-status is only written when it is decided by the
+     * new status: taken from the request when closing, cleared when reopening without one, and otherwise left
+     * as stored.
+     */
     @Override
-    public void fillPosition(String id, String hiredCandidateId) {
-        Position position = positionsRepository.findById(id)
-                .orElseThrow(() -> new PositionNotFoundException("Position with id " + id + " not found"));
+    public Mono<Position> updatePosition(String id, Position position, Long expectedVersion) {
+        Update update = new Update()
+                .set("name", position.getName())
+                .set("status", position.getStatus())
+                .inc("version", 1);
+        if (position.getStatus().equals(Status.CLOSED)) {
+            Updates.setOrUnset(update, "subStatus", position.getSubStatus());
+        }
+        if (position.getStatus().equals(Status.OPEN) && position.getSubStatus() == null) {
+            update.unset("subStatus");
+        }
+        return positionsRepository.updateIfVersion(id, expectedVersion, update)
+                .doOnNext(positionsReplica::upsert)
+                .switchIfEmpty(Mono.defer(() -> explainFailedUpdate(id, expectedVersion)));
+    }
 
-        ensurePositionIsOpen(position);
-        Candidate candidate = candidateRepository.findById(hiredCandidateId)
-                .orElseThrow(() -> new CandidateNotFoundException("Candidate with id " + hiredCandidateId + " not found"));
+    /**
+     * Applies a JSON Merge Patch as a single conditional write of just the patched fields. Reopening a
+     * position without naming a sub-status clears it, as a full update does.
+     */
+    @Override
+    public Mono<Position> patchPosition(String id, Map<String, Object> patch, Long expectedVersion) {
+        return Mono.fromCallable(() -> mergePatchTranslator.read(Position.class, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS))
+                .flatMap(values -> {
+                    if (values.isEmpty()) {
+                        return getPositionById(id);
+                    }
+                    Update update = MergePatchTranslator.toUpdate(values);
+                    if (values.get("status") == Status.OPEN && !values.containsKey("subStatus")) {
+                        update.unset("subStatus");
+                    }
+                    update.inc("version", 1);
+                    return positionsRepository.updateIfVersion(id, expectedVersion, update)
+                            .doOnNext(positionsReplica::upsert)
+                            .switchIfEmpty(Mono.defer(() -> explainFailedUpdate(id, expectedVersion)));
+                });
+    }
 
-        position.setStatus(Status.CLOSED);
-        position.setSubStatus(SubStatus.FILLED);
-        position.setHiredCandidateId(hiredCandidateId);
-        positionsRepository.save(position);
+    /**
+     * Closes the position as cancelled in one conditional write that only matches while it is not closed (and,
+     * when given, still at {@code expectedVersion}), so a stale replica copy is never written back.
+     */
+    @Override
+    public Mono<Void> cancelPosition(String id, Long expectedVersion) {
+        return getPositionById(id)
+                .flatMap(this::ensurePositionIsOpen)
+                .flatMap(position -> ensureNoActiveCandidates(id))
+                .then(Mono.defer(() -> positionsRepository.cancelIfOpen(id, expectedVersion)))
+                .doOnNext(positionsReplica::upsert)
+                .switchIfEmpty(Mono.defer(() -> explainFailedCancel(id, expectedVersion)))
+                .then();
+    }
 
-        candidate.setHired(true);
-        candidate.setAssignedTo(null);
-        candidateRepository.save(candidate);
+    /**
+     * Claims the position with a conditional findAndModify, then marks the candidate hired and drops it from the
+     * near cache. If the candidate cannot be updated the claim is released again, so a failed hire never leaves
+     * the position filled.
+     */
+    @Override
+    public Mono<Void> fillPosition(String id, String hiredCandidateId) {
+        return positionsRepository.claimForHire(id, hiredCandidateId)
+                .switchIfEmpty(Mono.defer(() -> explainFailedClaim(id)))
+                .flatMap(previous -> {
+                    positionsReplica.upsert(previous.toBuilder()
+                            .status(Status.CLOSED)
+                            .subStatus(SubStatus.FILLED)
+                            .hiredCandidateId(hiredCandidateId)
+                            .version((previous.getVersion() == null ? 0L : previous.getVersion()) + 1)
+                            .build());
+                    return candidateRepository.markHired(hiredCandidateId)
+                            .filter(Boolean::booleanValue)
+                            .switchIfEmpty(Mono.error(() -> new CandidateNotFoundException("Candidate with id " + hiredCandidateId + " not found")))
+                            .doOnNext(hired -> candidateNearCache.invalidate(hiredCandidateId))
+                            .onErrorResume(error -> releaseHire(previous, hiredCandidateId).then(Mono.error(error)));
+                })
+                .then();
     }
 
     @Override
-    public List<Position> getPositionsByStatus(Status status) {
+    public Flux<Position> getPositionsByStatus(Status status) {
+        if (positionsReplica.isLoaded()) {
+            return Flux.fromIterable(positionsReplica.findByStatus(status));
+        }
         return positionsRepository.findPositionsByStatus(status);
     }
 
     @Override
-    public List<Position> getPositionsByStatusAndSubStatus(@NonNull Status status, SubStatus subStatus) {
+    public Flux<Position> getPositionsByStatusAndSubStatus(@NonNull Status status, SubStatus subStatus) {
+        if (positionsReplica.isLoaded()) {
+            return Flux.fromIterable(positionsReplica.findByStatusAndSubStatus(status, subStatus));
+        }
         return positionsRepository.findPositionsByStatusAndSubStatus(status, subStatus);
     }
 
     @Override
-    public List<Position> getPositionsByStatuses(Status status1, Status status2) {
+    public Flux<Position> getPositionsByStatuses(Status status1, Status status2) {
+        if (positionsReplica.isLoaded()) {
+            return Flux.fromIterable(positionsReplica.findByStatuses(status1, status2));
+        }
         return positionsRepository.findPositionsByStatuses(status1, status2);
     }
 
     @Override
-    public Set<String> getUniquePositionNames() {
-        return positionsRepository.findAll().stream()
+    public Mono<Set<String>> getUniquePositionNames() {
+        if (positionsReplica.isLoaded()) {
+            return Mono.just(new LinkedHashSet<>(positionsReplica.findUniqueNames()));
+        }
+        return positionsRepository.findAll()
                 .map(Position::getName)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(() -> new TreeSet<>(PositionsReplica.NAME_ORDER)));
     }
 
-    private void ensurePositionIsOpen(Position position) {
-        if (position.getStatus() == Status.CLOSED) {
-            throw new PositionAlreadyDeactivatedException("This position is already closed.");
+    @Override
+    public Flux<String> getPositionNamesStartingWith(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return Flux.empty();
+        }
+        String trimmedPrefix = prefix.strip();
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_NAME_SUGGESTIONS));
+        if (positionsReplica.isLoaded()) {
+            return Flux.fromIterable(positionsReplica.findNamesStartingWith(trimmedPrefix, boundedLimit));
         }
+        String lowerCasePrefix = trimmedPrefix.toLowerCase(Locale.ROOT);
+        return getUniquePositionNames()
+                .flatMapIterable(names -> names)
+                .filter(name -> name.toLowerCase(Locale.ROOT).startsWith(lowerCasePrefix))
+                .take(boundedLimit);
+    }
+
+    @Override
+    public Mono<CursorPage<Position>> getPositionsPage(Status status, String cursor, Integer size) {
+        int limit = paginationProperties.resolvePageSize(size);
+        Criteria filter = status == null ? null : Criteria.where("status").is(status);
+        return Mono.defer(() -> positionsRepository.findPage(filter, PageCursor.decode(cursor), limit + 1).collectList())
+                .map(rows -> CursorPage.of(rows, limit, position -> new PageCursor(position.getName(), position.getId())));
+    }
+
+    @Override
+    public Mono<PositionWithCandidates> getPositionWithCandidates(String id, Integer candidateLimit) {
+        return positionsRepository.findWithCandidates(Criteria.where("id").is(id), 1, paginationProperties.resolvePageSize(candidateLimit))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new PositionNotFoundException("Position with id " + id + " not found")));
+    }
+
+    @Override
+    public Flux<PositionWithCandidates> getPositionsWithCandidates(Status status, Integer size, Integer candidateLimit) {
+        Criteria filter = status == null ? new Criteria() : Criteria.where("status").is(status);
+        return positionsRepository.findWithCandidates(filter, paginationProperties.resolvePageSize(size),
+                paginationProperties.resolvePageSize(candidateLimit));
+    }
+
+    private Mono<Position> save(Position position) {
+        return positionsRepository.save(position)
+                .doOnNext(positionsReplica::upsert)
+                .onErrorMap(OptimisticLockingFailureException.class,
+                        e -> new PositionVersionConflictException("Position with id " + position.getId() + " was modified concurrently"));
+    }
+
+    private Mono<Position> explainFailedUpdate(String id, Long expectedVersion) {
+        return positionsRepository.existsById(id)
+                .flatMap(exists -> Mono.error(Boolean.TRUE.equals(exists)
+                        ? new PositionVersionConflictException("Position with id " + id + " is no longer at version " + expectedVersion)
+                        : new PositionNotFoundException("Position with id " + id + " not found")));
+    }
+
+    private Mono<Position> explainFailedCancel(String id, Long expectedVersion) {
+        return positionsRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new PositionNotFoundException("Position with id " + id + " not found")))
+                .flatMap(position -> Mono.error(position.getStatus() == Status.CLOSED || expectedVersion == null
+                        ? new PositionAlreadyDeactivatedException("This position is already closed.")
+                        : new PositionVersionConflictException("Position with id " + id + " is no longer at version " + expectedVersion)));
+    }
+
+    private Mono<Position> explainFailedClaim(String id) {
+        return positionsRepository.existsById(id)
+                .flatMap(exists -> Mono.error(Boolean.TRUE.equals(exists)
+                        ? new PositionAlreadyDeactivatedException("This position is already closed.")
+                        : new PositionNotFoundException("Position with id " + id + " not found")));
+    }
+
+    private Mono<Position> releaseHire(Position previous, String hiredCandidateId) {
+        return positionsRepository.releaseHire(previous, hiredCandidateId)
+                .doOnNext(positionsReplica::upsert);
     }
 
-    private void ensureNoActiveCandidates(String positionId) {
-        if (candidateRepository.countCandidatesByPositionId(positionId) > 0) {
-            throw new DeactivationNotAllowedException("Cannot modify position since there are active candidates linked to it.");
+    private Mono<Position> ensurePositionIsOpen(Position position) {
+        if (position.getStatus() == Status.CLOSED) {
+            return Mono.error(new PositionAlreadyDeactivatedException("This position is already closed."));
         }
+        return Mono.just(position);
+    }
+
+    private Mono<Void> ensureNoActiveCandidates(String positionId) {
+        return candidateRepository.countCandidatesByPositionId(positionId)
+                .flatMap(count -> {
+                    if (count > 0) {
+                        return Mono.error(new DeactivationNotAllowedException("Cannot modify position since there are active candidates linked to it."));
+                    }
+                    return Mono.empty();
+                });
     }
 }
@@ -0,0 +1,35 @@
+package com.example.candidate.validation;
+
+/**
+ * Character tests shared by the validators, matching what the {@code java.util.regex} classes they replace
+ * accept. Those classes match code points, so a surrogate pair is one character outside the BMP, while a lone
+ * surrogate is a character of its own.
+ */
+final class CharClasses {
+    private CharClasses() {
+    }
+
+    /**
+     * {@code \s}: ASCII whitespace only.
+     */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    /**
+     * {@code \d}: ASCII digits only.
+     */
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Whether the character at {@code index} starts a surrogate pair, and so is outside every range of the
+     * expressions, which stop at the end of the BMP.
+     */
+    static boolean isSupplementary(CharSequence value, int index) {
+        return Character.isHighSurrogate(value.charAt(index))
+                && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.candidate.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import jakarta.validation.ReportAsSingleViolation;
+import jakarta.validation.constraints.Email;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.ElementType.TYPE_USE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * An email address as {@code @Email} accepts it that also has a dot somewhere after the {@code @}, which is
+ * what {@code @Email(regexp = ".+@.+\\..+")} checks without matching the expression.
+ * <p>
+ * {@code null} is valid.
+ */
+@Documented
+@Email
+@ReportAsSingleViolation
+@Constraint(validatedBy = EmailAddressValidator.class)
+@Target({FIELD, METHOD, PARAMETER, ANNOTATION_TYPE, TYPE_USE})
+@Retention(RUNTIME)
+public @interface EmailAddress {
+    String message() default "Please provide a valid email address";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,80 @@
+package com.example.candidate.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import static com.example.candidate.validation.CharClasses.isDigit;
+import static com.example.candidate.validation.CharClasses.isWhitespace;
+
+/**
+ * Checks {@link PhoneNumber} in a single pass without allocating. Accepts exactly what
+ * {@code ^(\+4|)?(07[0-8]{1}[0-9]{1}|02[0-9]{2}|03[0-9]{2}){1}?(\s|\.|\-)?([0-9]{3}(\s|\.|\-|)){2}$} matches.
+ */
+public class PhoneNumberValidator implements ConstraintValidator<PhoneNumber, CharSequence> {
+    private static final int DIGIT_GROUPS = 2;
+    private static final int DIGIT_GROUP_LENGTH = 3;
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        int length = value.length();
+        int i = 0;
+        if (length > 0 && value.charAt(0) == '+') {
+            if (length < 2 || value.charAt(1) != '4') {
+                return false;
+            }
+            i = 2;
+        }
+        if (!isPrefix(value, i)) {
+            return false;
+        }
+        i = skipSeparator(value, i + 4);
+        for (int group = 0; group < DIGIT_GROUPS; group++) {
+            if (!isDigits(value, i, DIGIT_GROUP_LENGTH)) {
+                return false;
+            }
+            i = skipSeparator(value, i + DIGIT_GROUP_LENGTH);
+        }
+        return i == length;
+    }
+
+    /**
+     * {@code 07} followed by {@code 0}-{@code 8} and a digit for mobiles, {@code 02} or {@code 03} followed by two
+     * digits for landlines.
+     */
+    private static boolean isPrefix(CharSequence value, int start) {
+        if (start + 4 > value.length() || value.charAt(start) != '0') {
+            return false;
+        }
+        char kind = value.charAt(start + 1);
+        char third = value.charAt(start + 2);
+        if (kind == '7') {
+            return third >= '0' && third <= '8' && isDigit(value.charAt(start + 3));
+        }
+        return (kind == '2' || kind == '3') && isDigit(third) && isDigit(value.charAt(start + 3));
+    }
+
+    private static boolean isDigits(CharSequence value, int start, int count) {
+        if (start + count > value.length()) {
+            return false;
+        }
+        for (int i = start; i < start + count; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipSeparator(CharSequence value, int index) {
+        if (index < value.length()) {
+            char c = value.charAt(index);
+            if (isWhitespace(c) || c == '.' || c == '-') {
+                return index + 1;
+            }
+        }
+        return index;
+    }
+}
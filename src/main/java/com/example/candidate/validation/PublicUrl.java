@@ -0,0 +1,33 @@
+package com.example.candidate.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.ElementType.TYPE_USE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * An absolute {@code http}, {@code https} or {@code ftp} link, or a scheme-relative one, to a host name with
+ * a top-level domain or to a public IPv4 address; private, loopback and link-local addresses are rejected.
+ * <p>
+ * {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = PublicUrlValidator.class)
+@Target({FIELD, METHOD, PARAMETER, ANNOTATION_TYPE, TYPE_USE})
+@Retention(RUNTIME)
+public @interface PublicUrl {
+    String message() default "Please provide a valid link";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
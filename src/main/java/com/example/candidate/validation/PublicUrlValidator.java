@@ -0,0 +1,227 @@
+package com.example.candidate.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import static com.example.candidate.validation.CharClasses.isDigit;
+import static com.example.candidate.validation.CharClasses.isSupplementary;
+import static com.example.candidate.validation.CharClasses.isWhitespace;
+
+/**
+ * Checks {@link PublicUrl} in linear time without allocating. Accepts exactly what the URL expression
+ * {@code Candidate.cvLink} used to be validated with matches: an optional {@code http:}, {@code https:} or
+ * {@code ftp:}, then {@code //}, optional user info ending in {@code @}, the host, an optional port of two to five
+ * digits and an optional path, query or fragment, with no whitespace anywhere. Host names are lower case labels
+ * of letters, digits and dashes, which may not start or end with a dash, under a top-level domain of two or more
+ * letters; non-ASCII letters from U+00A1 on count as letters. IPv4 hosts must be public unicast addresses.
+ * <p>
+ * The user info may itself contain {@code @}, so the host may start after any of them. Host names and ports
+ * cannot contain {@code @}, so trying every one of them still reads each character at most twice.
+ */
+public class PublicUrlValidator implements ConstraintValidator<PublicUrl, CharSequence> {
+    private static final String[] SCHEMES = {"//", "http://", "https://", "ftp://"};
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        int start = authorityStart(value);
+        if (start < 0) {
+            return false;
+        }
+        int length = value.length();
+        for (int i = start; i < length; i++) {
+            if (isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        if (isHostAndRest(value, start)) {
+            return true;
+        }
+        // User info is at least one character, so an '@' right after the "//" cannot end it.
+        for (int i = start + 1; i < length; i++) {
+            if (value.charAt(i) == '@' && isHostAndRest(value, i + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int authorityStart(CharSequence value) {
+        for (String scheme : SCHEMES) {
+            if (startsWith(value, scheme)) {
+                return scheme.length();
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(CharSequence value, String prefix) {
+        if (value.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (value.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a host starts at {@code start} and is followed by nothing, or by a port and then nothing, a path, a
+     * query or a fragment. Whitespace has already been ruled out, and the path may contain anything else.
+     */
+    private static boolean isHostAndRest(CharSequence value, int start) {
+        int length = value.length();
+        int end = start;
+        while (end < length && isHostChar(value, end)) {
+            end++;
+        }
+        if (end == start || !(isPublicIpv4(value, start, end) || isDomainName(value, start, end))) {
+            return false;
+        }
+        int i = end;
+        if (i < length && value.charAt(i) == ':') {
+            int portStart = i + 1;
+            i = portStart;
+            while (i < length && isDigit(value.charAt(i))) {
+                i++;
+            }
+            int portLength = i - portStart;
+            if (portLength < 2 || portLength > 5) {
+                return false;
+            }
+        }
+        if (i == length) {
+            return true;
+        }
+        char next = value.charAt(i);
+        return next == '/' || next == '?' || next == '#';
+    }
+
+    private static boolean isHostChar(CharSequence value, int index) {
+        char c = value.charAt(index);
+        return c == '.' || c == '-' || isLabelChar(value, index);
+    }
+
+    private static boolean isLabelChar(CharSequence value, int index) {
+        char c = value.charAt(index);
+        return isDigit(c) || isLetter(value, index);
+    }
+
+    private static boolean isLetter(CharSequence value, int index) {
+        char c = value.charAt(index);
+        return (c >= 'a' && c <= 'z') || (c >= 0xA1 && !isSupplementary(value, index));
+    }
+
+    /**
+     * Dot-separated labels of letters, digits and inner dashes, the last of them a top-level domain of at least
+     * two letters.
+     */
+    private static boolean isDomainName(CharSequence value, int start, int end) {
+        int labels = 0;
+        int labelStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && value.charAt(i) != '.') {
+                continue;
+            }
+            if (i == end) {
+                return labels > 0 && isTopLevelDomain(value, labelStart, i);
+            }
+            if (!isLabel(value, labelStart, i)) {
+                return false;
+            }
+            labels++;
+            labelStart = i + 1;
+        }
+        return false;
+    }
+
+    private static boolean isLabel(CharSequence value, int start, int end) {
+        if (start == end || !isLabelChar(value, start) || !isLabelChar(value, end - 1)) {
+            return false;
+        }
+        for (int i = start + 1; i < end - 1; i++) {
+            if (value.charAt(i) != '-' && !isLabelChar(value, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTopLevelDomain(CharSequence value, int start, int end) {
+        if (end - start < 2) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isLetter(value, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Four dotted octets forming a unicast address outside 10/8, 127/8, 169.254/16, 172.16/12 and 192.168/16.
+     * The first and last octets may not have leading zeros or be 0, the last may not be 255 and the first may
+     * not be above 223; the middle two may be written with one leading zero.
+     */
+    private static boolean isPublicIpv4(CharSequence value, int start, int end) {
+        int octet = 0;
+        int octetStart = start;
+        int first = -1;
+        int firstLength = 0;
+        int second = -1;
+        int secondLength = 0;
+        for (int i = start; i <= end; i++) {
+            if (i < end && value.charAt(i) != '.') {
+                if (!isDigit(value.charAt(i)) || i - octetStart == 3) {
+                    return false;
+                }
+                continue;
+            }
+            int digits = i - octetStart;
+            if (digits == 0 || octet == 4) {
+                return false;
+            }
+            int number = parse(value, octetStart, i);
+            boolean leadingZero = digits > 1 && value.charAt(octetStart) == '0';
+            boolean valid = switch (octet) {
+                case 0 -> !leadingZero && number >= 1 && number <= 223;
+                case 3 -> !leadingZero && number >= 1 && number <= 254;
+                default -> digits < 3 || (value.charAt(octetStart) != '0' && number <= 255);
+            };
+            if (!valid) {
+                return false;
+            }
+            if (octet == 0) {
+                first = number;
+                firstLength = digits;
+            } else if (octet == 1) {
+                second = number;
+                secondLength = digits;
+            }
+            octet++;
+            octetStart = i + 1;
+        }
+        return octet == 4 && !isPrivate(first, firstLength, second, secondLength);
+    }
+
+    private static boolean isPrivate(int first, int firstLength, int second, int secondLength) {
+        return (first == 10 && firstLength == 2)
+                || (first == 127 && firstLength == 3)
+                || (first == 169 && second == 254 && secondLength == 3)
+                || (first == 192 && second == 168 && secondLength == 3)
+                || (first == 172 && secondLength == 2 && second >= 16 && second <= 31);
+    }
+
+    private static int parse(CharSequence value, int start, int end) {
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            number = number * 10 + (value.charAt(i) - '0');
+        }
+        return number;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.candidate.cache;
+
+import com.example.candidate.changes.ChangeFeedHub;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.ChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CandidateNearCacheTest {
+    private CandidateCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private Sinks.Many<ChangeEvent> changes;
+    private ChangeFeedHub changeFeedHub;
+    private AtomicLong nanos;
+    private CandidateNearCache candidateNearCache;
+    private Candidate candidate;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CandidateCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        changes = Sinks.many().multicast().directBestEffort();
+        changeFeedHub = mock(ChangeFeedHub.class);
+        when(changeFeedHub.events(null)).thenReturn(changes.asFlux());
+        when(changeFeedHub.isOpen()).thenReturn(true);
+        nanos = new AtomicLong();
+        candidateNearCache = startCache();
+        candidate = Candidate.builder().id("1").name("John Doe").documentId("doc-1").version(2L).build();
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        candidateNearCache.stop();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromMemory() {
+        Candidate first = candidateNearCache.getById("1", this::load).block();
+        Candidate second = candidateNearCache.getById("1", this::load).block();
+        Candidate byDocument = candidateNearCache.getByDocumentId("doc-1", this::load).block();
+
+        assertEquals(candidate, second);
+        assertEquals(candidate, byDocument);
+        assertNotSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void shouldDropCandidateChangedOnAnyInstance() {
+        candidateNearCache.getById("1", this::load).block();
+
+        changes.tryEmitNext(new ChangeEvent("t1", ChangeFeedHub.CANDIDATES, ChangeEvent.Operation.UPDATE, "1", candidate));
+        candidateNearCache.getById("1", this::load).block();
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "invalidated").counter().count());
+    }
+
+    @Test
+    void shouldDropEverythingAndBypassCacheWhenFeedResets() {
+        candidateNearCache.getById("1", this::load).block();
+
+        changes.tryEmitNext(ChangeEvent.reset(null));
+        candidateNearCache.getById("1", this::load).block();
+        candidateNearCache.getById("1", this::load).block();
+
+        assertEquals(0, candidateNearCache.size());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheReadThatRacedWithInvalidation() {
+        Sinks.One<Candidate> slowRead = Sinks.one();
+        Mono<Candidate> read = candidateNearCache.getById("1", slowRead::asMono).cache();
+        read.subscribe();
+
+        candidateNearCache.invalidate("1");
+        slowRead.tryEmitValue(candidate);
+
+        assertEquals(candidate, read.block());
+        assertEquals(0, candidateNearCache.size());
+    }
+
+    @Test
+    void shouldEvictBeyondMaximumSize() {
+        properties.setMaximumSize(2);
+        candidateNearCache.stop();
+        candidateNearCache = startCache();
+        candidateNearCache.getById("1", this::load).block();
+        candidateNearCache.getById("2", () -> Mono.just(Candidate.builder().id("2").build())).block();
+        candidateNearCache.getById("1", this::load).block();
+
+        candidateNearCache.getById("3", () -> Mono.just(Candidate.builder().id("3").build())).block();
+
+        assertEquals(2, candidateNearCache.size());
+        assertEquals(2L, candidateNearCache.peekVersion("1").orElseThrow());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTimeToLive() {
+        candidateNearCache.getById("1", this::load).block();
+
+        nanos.addAndGet(properties.getTimeToLive().toNanos());
+        candidateNearCache.getById("1", this::load).block();
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    void shouldBypassCacheWhenNotListeningToChanges() {
+        candidateNearCache.stop();
+
+        candidateNearCache.getById("1", this::load).block();
+        candidateNearCache.getById("1", this::load).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldBypassCacheUntilHubConfirmsItsCursorIsOpen() {
+        candidateNearCache.stop();
+        when(changeFeedHub.isOpen()).thenReturn(false);
+        candidateNearCache = startCache();
+
+        candidateNearCache.getById("1", this::load).block();
+        candidateNearCache.getById("1", this::load).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    private CandidateNearCache startCache() {
+        CandidateNearCache cache = new CandidateNearCache(changeFeedHub, properties, meterRegistry, nanos::get);
+        cache.start();
+        return cache;
+    }
+
+    private Mono<Candidate> load() {
+        loads.incrementAndGet();
+        return Mono.just(candidate);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.candidate.cache;
+
+import com.example.candidate.model.Position;
+import com.example.candidate.model.Status;
+import com.example.candidate.model.SubStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PositionsReplicaTest {
+    private PositionsReplica positionsReplica;
+    private Position open;
+    private Position cancelled;
+
+    @BeforeEach
+    void setUp() {
+        positionsReplica = new PositionsReplica();
+        open = new Position("1", "Developer", Status.OPEN, null, null, null);
+        cancelled = new Position("2", "Developer", Status.CLOSED, SubStatus.CANCELLED, null, null);
+    }
+
+    @Test
+    void shouldNotBeLoadedBeforeInitialLoad() {
+        assertFalse(positionsReplica.isLoaded());
+
+        positionsReplica.completeLoad(List.of(open));
+
+        assertTrue(positionsReplica.isLoaded());
+    }
+
+    @Test
+    void shouldIndexPositionsByNameAndStatusBuckets() {
+        positionsReplica.completeLoad(List.of(open, cancelled));
+
+        assertEquals(List.of(open, cancelled), positionsReplica.findByName("Developer"));
+        assertEquals(List.of(open), positionsReplica.findByStatus(Status.OPEN));
+        assertEquals(List.of(open), positionsReplica.findByStatusAndSubStatus(Status.OPEN, null));
+        assertEquals(List.of(cancelled), positionsReplica.findByStatusAndSubStatus(Status.CLOSED, SubStatus.CANCELLED));
+        assertTrue(positionsReplica.findByStatusAndSubStatus(Status.CLOSED, SubStatus.FILLED).isEmpty());
+    }
+
+    @Test
+    void shouldMoveUpdatedPositionBetweenBuckets() {
+        positionsReplica.completeLoad(List.of(open));
+
+        positionsReplica.upsert(new Position("1", "Developer", Status.CLOSED, SubStatus.FILLED, "7", null));
+
+        assertTrue(positionsReplica.findByStatus(Status.OPEN).isEmpty());
+        assertEquals("7", positionsReplica.findByStatusAndSubStatus(Status.CLOSED, SubStatus.FILLED).get(0).getHiredCandidateId());
+    }
+
+    @Test
+    void shouldRemoveDeletedPosition() {
+        positionsReplica.completeLoad(List.of(open, cancelled));
+
+        positionsReplica.remove("1");
+
+        assertTrue(positionsReplica.findById("1").isEmpty());
+        assertEquals(List.of(cancelled), positionsReplica.findAll());
+    }
+
+    @Test
+    void shouldReapplyChangesRecordedDuringLoad() {
+        positionsReplica.beginLoad();
+        positionsReplica.upsert(new Position("1", "Developer", Status.IN_PROGRESS, null, null, null));
+
+        positionsReplica.completeLoad(List.of(open, cancelled));
+
+        assertEquals(Status.IN_PROGRESS, positionsReplica.findById("1").orElseThrow().getStatus());
+    }
+
+    @Test
+    void shouldReturnCopiesThatDoNotLeakMutations() {
+        positionsReplica.completeLoad(List.of(open));
+
+        positionsReplica.findById("1").orElseThrow().setStatus(Status.CLOSED);
+        open.setName("Changed");
+
+        Position stored = positionsReplica.findById("1").orElseThrow();
+        assertEquals(Status.OPEN, stored.getStatus());
+        assertEquals("Developer", stored.getName());
+    }
+
+    @Test
+    void shouldForgetEverythingWhenInvalidated() {
+        positionsReplica.completeLoad(List.of(open));
+
+        positionsReplica.invalidate();
+
+        assertFalse(positionsReplica.isLoaded());
+        assertTrue(positionsReplica.findAll().isEmpty());
+    }
+
+    @Test
+    void shouldMoveChangeTokenOnEveryChange() {
+        assertTrue(positionsReplica.changeToken().isEmpty());
+        positionsReplica.completeLoad(List.of(open));
+        String loaded = positionsReplica.changeToken().orElseThrow();
+
+        assertEquals(loaded, positionsReplica.changeToken().orElseThrow());
+        positionsReplica.upsert(cancelled);
+        String upserted = positionsReplica.changeToken().orElseThrow();
+        positionsReplica.remove("2");
+
+        assertNotEquals(loaded, upserted);
+        assertNotEquals(upserted, positionsReplica.changeToken().orElseThrow());
+        positionsReplica.invalidate();
+        assertTrue(positionsReplica.changeToken().isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreOlderVersionArrivingOutOfOrder() {
+        positionsReplica.completeLoad(List.of(open.toBuilder().version(1L).build()));
+        Position claimed = open.toBuilder().status(Status.CLOSED).subStatus(SubStatus.FILLED).hiredCandidateId("c1").version(2L).build();
+        Position released = open.toBuilder().version(3L).build();
+        positionsReplica.upsert(released);
+        String beforeLateEvent = positionsReplica.changeToken().orElseThrow();
+
+        positionsReplica.upsert(claimed);
+
+        assertEquals(released, positionsReplica.findById("1").orElseThrow());
+        assertEquals(List.of(released), positionsReplica.findByStatus(Status.OPEN));
+        assertTrue(positionsReplica.findByStatus(Status.CLOSED).isEmpty());
+        assertEquals(beforeLateEvent, positionsReplica.changeToken().orElseThrow());
+    }
+
+    @Test
+    void shouldKeepDistinctNamesSortedIgnoringCase() {
+        positionsReplica.completeLoad(List.of(open, cancelled, new Position("3", "analyst", Status.OPEN, null, null, null)));
+
+        positionsReplica.upsert(new Position("4", "Tester", Status.OPEN, null, null, null));
+
+        assertEquals(List.of("analyst", "Developer", "Tester"), positionsReplica.findUniqueNames());
+    }
+
+    @Test
+    void shouldListNamesInNameOrder() {
+        List<String> names = List.of("developer", "Developer", "dev_ops", "Dev", "DEVOPS", "devops", "Ärzte", "zebra", "Analyst");
+        List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            positions.add(new Position(String.valueOf(i), names.get(i), Status.OPEN, null, null, null));
+        }
+
+        positionsReplica.completeLoad(positions);
+
+        assertEquals(names.stream().sorted(PositionsReplica.NAME_ORDER).toList(), positionsReplica.findUniqueNames());
+    }
+
+    @Test
+    void shouldDropNameOnlyWhenLastPositionUsingItChanges() {
+        positionsReplica.completeLoad(List.of(open, cancelled));
+
+        positionsReplica.upsert(new Position("1", "Architect", Status.OPEN, null, null, null));
+        assertEquals(List.of("Architect", "Developer"), positionsReplica.findUniqueNames());
+
+        positionsReplica.remove("2");
+        assertEquals(List.of("Architect"), positionsReplica.findUniqueNames());
+    }
+
+    @Test
+    void shouldReplaceNamesWhenReloaded() {
+        positionsReplica.completeLoad(List.of(open, cancelled));
+        List<String> beforeReload = positionsReplica.findNamesStartingWith("dev", 10);
+
+        positionsReplica.completeLoad(List.of(new Position("3", "Tester", Status.OPEN, null, null, null)));
+
+        assertEquals(List.of("Developer"), beforeReload);
+        assertEquals(List.of("Tester"), positionsReplica.findUniqueNames());
+        assertTrue(positionsReplica.findNamesStartingWith("dev", 10).isEmpty());
+    }
+
+    @Test
+    void shouldAutocompleteNamesByPrefixIgnoringCase() {
+        positionsReplica.completeLoad(List.of(
+                open,
+                new Position("3", "DevOps Engineer", Status.OPEN, null, null, null),
+                new Position("4", "Designer", Status.OPEN, null, null, null),
+                new Position("5", "devrel", Status.OPEN, null, null, null)
+        ));
+
+        assertEquals(List.of("Developer", "DevOps Engineer", "devrel"), positionsReplica.findNamesStartingWith("DEV", 10));
+        assertEquals(List.of("Developer"), positionsReplica.findNamesStartingWith("dev", 1));
+        assertTrue(positionsReplica.findNamesStartingWith("x", 10).isEmpty());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.candidate.changes;
+
+import com.example.candidate.model.ChangeEvent;
+import com.example.candidate.model.Position;
+import com.example.candidate.model.Status;
+import com.mongodb.MongoException;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChangeFeedHubTest {
+    private ChangeFeedProperties properties;
+    private ReactiveMongoTemplate mongoTemplate;
+    private Sinks.Many<ChangeStreamEvent<Document>> cursor;
+    private ChangeFeedHub changeFeedHub;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChangeFeedProperties();
+        properties.setSubscriberBuffer(4);
+        properties.setHistory(3);
+        mongoTemplate = mock(ReactiveMongoTemplate.class);
+        cursor = Sinks.many().unicast().onBackpressureBuffer();
+        changeFeedHub = spy(new ChangeFeedHub(mongoTemplate, properties));
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(Mono.just(new Document("operationTime", new BsonTimestamp(1, 1))));
+        doReturn(cursor.asFlux()).when(changeFeedHub).cursor(isNull(), any(BsonTimestamp.class));
+        changeFeedHub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeedHub.stop();
+    }
+
+    @Test
+    void shouldFanOutEachChangeToEverySubscriber() {
+        StepVerifier first = StepVerifier.create(changeFeedHub.events(null))
+                .expectNext(change("t1"), change("t2"))
+                .thenCancel()
+                .verifyLater();
+        StepVerifier second = StepVerifier.create(changeFeedHub.events(null))
+                .expectNext(change("t1"), change("t2"))
+                .thenCancel()
+                .verifyLater();
+
+        changeFeedHub.publish(change("t1"));
+        changeFeedHub.publish(change("t2"));
+
+        first.verify(Duration.ofSeconds(1));
+        second.verify(Duration.ofSeconds(1));
+        assertEquals(0, changeFeedHub.subscriberCount());
+    }
+
+    @Test
+    void shouldReplayChangesAfterKnownResumeToken() {
+        changeFeedHub.publish(change("t1"));
+        changeFeedHub.publish(change("t2"));
+        changeFeedHub.publish(change("t3"));
+
+        StepVerifier.create(changeFeedHub.events("t1"))
+                .expectNext(change("t2"), change("t3"))
+                .then(() -> changeFeedHub.publish(change("t4")))
+                .expectNext(change("t4"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldAskForReloadWhenResumeTokenIsNoLongerKept() {
+        changeFeedHub.publish(change("t1"));
+        changeFeedHub.publish(change("t2"));
+        changeFeedHub.publish(change("t3"));
+        changeFeedHub.publish(change("t4"));
+
+        StepVerifier.create(changeFeedHub.events("t1"))
+                .expectNext(ChangeEvent.reset(null))
+                .then(() -> changeFeedHub.publish(change("t5")))
+                .expectNext(change("t5"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+
+        verify(changeFeedHub, times(1)).cursor(any(), any());
+    }
+
+    @Test
+    void shouldNotOpenACursorPerClientReconnectingAfterRestartToAQuietFeed() {
+        StepVerifier.create(changeFeedHub.events("before-restart"))
+                .expectNext(ChangeEvent.reset(null))
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+
+        verify(changeFeedHub, times(1)).cursor(any(), any());
+        assertEquals(0, changeFeedHub.subscriberCount());
+    }
+
+    @Test
+    void shouldResetSubscribersWhileCursorIsDownWhateverTheError() {
+        StepVerifier subscriber = StepVerifier.create(changeFeedHub.events(null))
+                .expectNext(ChangeEvent.reset(null))
+                .thenCancel()
+                .verifyLater();
+
+        cursor.tryEmitError(new MongoException(40573, "The $changeStream stage is only supported on replica sets"));
+
+        subscriber.verify(Duration.ofSeconds(1));
+        assertFalse(changeFeedHub.isOpen());
+        StepVerifier.create(changeFeedHub.events(null))
+                .expectNext(ChangeEvent.reset(null))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldOpenOnlyOnceTheServerReportsWhereTheCursorStarts() {
+        ChangeFeedHub standalone = new ChangeFeedHub(mongoTemplate, properties);
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(Mono.just(new Document("ok", 1.0)));
+        standalone.start();
+        try {
+            assertTrue(changeFeedHub.isOpen());
+            assertFalse(standalone.isOpen());
+            StepVerifier.create(standalone.events(null))
+                    .expectNext(ChangeEvent.reset(null))
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(1));
+        } finally {
+            standalone.stop();
+        }
+    }
+
+    @Test
+    void shouldFailOnlyTheSubscriberThatFallsBehind() {
+        StepVerifier fast = StepVerifier.create(changeFeedHub.events(null))
+                .expectNextCount(6)
+                .thenCancel()
+                .verifyLater();
+
+        StepVerifier.create(changeFeedHub.events(null), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 6; i++) {
+                        changeFeedHub.publish(change("t" + i));
+                    }
+                })
+                .thenRequest(10)
+                .expectNextCount(4)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(1));
+        fast.verify(Duration.ofSeconds(1));
+    }
+
+    private static ChangeEvent change(String resumeToken) {
+        Position position = Position.builder().id("1").name("Developer").status(Status.OPEN).build();
+        return new ChangeEvent(resumeToken, ChangeFeedHub.POSITIONS, ChangeEvent.Operation.UPDATE, "1", position);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.candidate.config.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtAuthenticationManagerTest {
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    private ReactiveAuthenticationManager delegate;
+    private Clock clock;
+    private JwtCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingJwtAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ReactiveAuthenticationManager.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        properties = new JwtCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        manager = new CachingJwtAuthenticationManager(delegate, properties, meterRegistry, clock);
+    }
+
+    @Test
+    void shouldVerifyRepeatedTokenOnlyOnce() {
+        JwtAuthenticationToken verified = verified("token-1", NOW.plusSeconds(300));
+        when(delegate.authenticate(any())).thenReturn(Mono.just(verified));
+
+        Authentication first = manager.authenticate(new BearerTokenAuthenticationToken("token-1")).block();
+        Authentication second = manager.authenticate(new BearerTokenAuthenticationToken("token-1")).block();
+
+        assertSame(verified, first);
+        assertEquals(verified, second);
+        assertNotSame(first, second);
+        verify(delegate, times(1)).authenticate(any());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "miss").counter().count());
+        assertEquals(1L, meterRegistry.get("jwt.verification").timer().count());
+    }
+
+    @Test
+    void shouldVerifyTokenAgainOnceItExpired() {
+        when(delegate.authenticate(any())).thenReturn(Mono.just(verified("token-1", NOW.plusSeconds(60))));
+        manager.authenticate(new BearerTokenAuthenticationToken("token-1")).block();
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+        when(delegate.authenticate(any())).thenReturn(Mono.error(new BadCredentialsException("expired")));
+
+        StepVerifier.create(manager.authenticate(new BearerTokenAuthenticationToken("token-1")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+        assertEquals(0, manager.size());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    void shouldNotCacheRejectedTokens() {
+        when(delegate.authenticate(any())).thenReturn(Mono.error(new BadCredentialsException("bad signature")));
+
+        StepVerifier.create(manager.authenticate(new BearerTokenAuthenticationToken("forged")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+        StepVerifier.create(manager.authenticate(new BearerTokenAuthenticationToken("forged")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+
+        verify(delegate, times(2)).authenticate(any());
+        assertEquals(0, manager.size());
+    }
+
+    @Test
+    void shouldHandEachRequestATokenOfItsOwn() {
+        when(delegate.authenticate(any())).thenReturn(Mono.just(verified("token-1", NOW.plusSeconds(300))));
+        manager.authenticate(new BearerTokenAuthenticationToken("token-1")).block();
+
+        Authentication first = manager.authenticate(new BearerTokenAuthenticationToken("token-1")).block();
+        first.setAuthenticated(false);
+        Authentication second = manager.authenticate(new BearerTokenAuthenticationToken("token-1")).block();
+
+        assertTrue(second.isAuthenticated());
+        assertEquals("user", second.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_client-hr")), List.copyOf(second.getAuthorities()));
+    }
+
+    @Test
+    void shouldStayWithinMaximumSize() {
+        properties.setMaximumSize(2);
+        manager = new CachingJwtAuthenticationManager(delegate, properties, meterRegistry, clock);
+        when(delegate.authenticate(any())).thenAnswer(invocation -> {
+            String token = ((BearerTokenAuthenticationToken) invocation.getArgument(0)).getToken();
+            long ttl = Long.parseLong(token.substring(token.indexOf('-') + 1));
+            return Mono.just(verified(token, NOW.plusSeconds(ttl)));
+        });
+
+        for (String token : List.of("a-300", "b-100", "c-200")) {
+            manager.authenticate(new BearerTokenAuthenticationToken(token)).block();
+        }
+
+        assertEquals(2, manager.size());
+        verify(delegate, times(3)).authenticate(any());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void shouldBypassCacheWhenDisabled() {
+        properties.setEnabled(false);
+        when(delegate.authenticate(any())).thenReturn(Mono.just(verified("token-1", NOW.plusSeconds(300))));
+
+        manager.authenticate(new BearerTokenAuthenticationToken("token-1")).block();
+        manager.authenticate(new BearerTokenAuthenticationToken("token-1")).block();
+
+        verify(delegate, times(2)).authenticate(any());
+        assertEquals(0, manager.size());
+    }
+
+    private static JwtAuthenticationToken verified(String token, Instant expiresAt) {
+        Jwt jwt = Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(NOW.minusSeconds(10))
+                .expiresAt(expiresAt)
+                .build();
+        return new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_client-hr")), "user");
+    }
+}
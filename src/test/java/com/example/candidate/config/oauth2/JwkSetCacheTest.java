@@ -0,0 +1,188 @@
+package com.example.candidate.config.oauth2;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link JwkSetCache} against a stand-in identity provider serving a JWK set over HTTP on localhost.
+ */
+class JwkSetCacheTest {
+    private HttpServer identityProvider;
+    private final AtomicInteger fetches = new AtomicInteger();
+    private volatile JWKSet published;
+    private volatile String cacheControl;
+    private RSAKey currentKey;
+    private RSAKey rotatedKey;
+    private JwkSetProperties properties;
+    private JwkSetCache jwkSetCache;
+    private ReactiveJwtDecoder jwtDecoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        currentKey = new RSAKeyGenerator(2048).keyID("current").generate();
+        rotatedKey = new RSAKeyGenerator(2048).keyID("rotated").generate();
+        published = new JWKSet(currentKey.toPublicJWK());
+        identityProvider = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        identityProvider.setExecutor(Executors.newCachedThreadPool());
+        identityProvider.createContext("/certs", exchange -> {
+            fetches.incrementAndGet();
+            sleep(100);
+            byte[] body = published.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (cacheControl != null) {
+                exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        identityProvider.start();
+        properties = new JwkSetProperties();
+        String jwkSetUri = "http://127.0.0.1:" + identityProvider.getAddress().getPort() + "/certs";
+        jwkSetCache = new JwkSetCache(WebClient.create(), jwkSetUri, properties);
+        jwtDecoder = NimbusReactiveJwtDecoder.withJwkSource(jwkSetCache::keysFor).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwkSetCache.stop();
+        identityProvider.stop(0);
+    }
+
+    @Test
+    void shouldFetchKeysBeforeStartingSoTheFirstTokenDoesNotWait() throws Exception {
+        jwkSetCache.start();
+
+        assertEquals(1, fetches.get());
+        StepVerifier.create(jwtDecoder.decode(sign(currentKey)))
+                .expectNextMatches(jwt -> "user".equals(jwt.getSubject()))
+                .verifyComplete();
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void shouldStartWithoutKeysWhenIdentityProviderIsDown() throws Exception {
+        identityProvider.stop(0);
+        properties.setTimeout(Duration.ofMillis(500));
+
+        jwkSetCache.start();
+
+        assertTrue(jwkSetCache.isRunning());
+        StepVerifier.create(jwtDecoder.decode(sign(currentKey)))
+                .expectError(JwtException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldRefetchOnceForConcurrentTokensSignedWithRotatedKey() throws Exception {
+        properties.setMinimumRefetchInterval(Duration.ZERO);
+        jwkSetCache.start();
+
+        published = new JWKSet(List.of(currentKey.toPublicJWK(), rotatedKey.toPublicJWK()));
+        String token = sign(rotatedKey);
+        List<Jwt> decoded = Flux.range(0, 20)
+                .flatMap(i -> jwtDecoder.decode(token))
+                .collectList()
+                .block();
+
+        assertEquals(20, decoded.size());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void shouldNotRefetchForUnknownKeysMoreThanOncePerInterval() throws Exception {
+        jwkSetCache.start();
+        String forged = sign(new RSAKeyGenerator(2048).keyID("made-up").generate());
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(jwtDecoder.decode(forged))
+                    .expectError(JwtException.class)
+                    .verify();
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void shouldRefreshInBackgroundBeforeMaxAgeRunsOut() throws Exception {
+        cacheControl = "public, max-age=1";
+        properties.setMinimumRefetchInterval(Duration.ZERO);
+        jwkSetCache.start();
+
+        published = new JWKSet(rotatedKey.toPublicJWK());
+        awaitTrue(() -> fetches.get() >= 2);
+        int fetchesBeforeDecode = fetches.get();
+
+        awaitTrue(() -> decodes(rotatedKey));
+        assertTrue(fetches.get() - fetchesBeforeDecode <= 1);
+    }
+
+    private boolean decodes(RSAKey key) {
+        try {
+            return jwtDecoder.decode(sign(key)).onErrorComplete().block() != null;
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sign(RSAKey key) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            sleep(20);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.candidate.config.security;
+
+import com.example.candidate.controller.CandidatesController;
+import com.example.candidate.controller.PositionsController;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.service.CandidateService;
+import com.example.candidate.service.PositionsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MethodSecurityConfigTest {
+    private final MethodSecurityExpressionHandler roleExpressionHandler = MethodSecurityConfig.roleExpressionHandler();
+
+    @Test
+    void shouldDecideLikeThePreAuthorizeExpressionsItCompiles() {
+        PreAuthorizeReactiveAuthorizationManager expressionAuthorizationManager = new PreAuthorizeReactiveAuthorizationManager();
+        PreAuthorizeReactiveAuthorizationManager compiledAuthorizationManager = new PreAuthorizeReactiveAuthorizationManager(roleExpressionHandler);
+        RequestMappingHandlerMapping handlerMapping = handlerMapping(
+                CandidatesController.class, new CandidatesController(mock(CandidateService.class)),
+                PositionsController.class, new PositionsController(mock(PositionsService.class)));
+        for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+            SimpleMethodInvocation invocation = new SimpleMethodInvocation(handlerMethod.getBean(), handlerMethod.getMethod());
+            for (Role role : Role.values()) {
+                Authentication caller = new TestingAuthenticationToken("user", null, "ROLE_client-" + role.name().toLowerCase());
+                AuthorizationDecision expected = expressionAuthorizationManager.check(Mono.just(caller), invocation).block();
+                AuthorizationDecision compiled = compiledAuthorizationManager.check(Mono.just(caller), invocation).block();
+                assertEquals(expected != null && expected.isGranted(), compiled != null && compiled.isGranted(),
+                        handlerMethod + " as " + role);
+            }
+        }
+    }
+
+    @Test
+    void shouldEnforcePreAuthorizeOnControllers() {
+        CandidateService candidateService = mock(CandidateService.class);
+        Candidate candidate = new Candidate();
+        when(candidateService.getCandidateById("1")).thenReturn(Mono.just(candidate));
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(MethodSecurityConfig.class);
+            context.registerBean(CandidatesController.class, () -> new CandidatesController(candidateService));
+            context.refresh();
+            assertTrue(context.getBean(MethodSecurityExpressionHandler.class).getExpressionParser() instanceof RoleExpressionParser);
+            CandidatesController controller = context.getBean(CandidatesController.class);
+            Authentication developer = new TestingAuthenticationToken("user", null, "ROLE_client-developer");
+
+            StepVerifier.create(controller.getCandidateById("1", null)
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(developer)))
+                    .expectNextMatches(response -> response.getBody() == candidate)
+                    .verifyComplete();
+            StepVerifier.create(controller.getAllCandidates()
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(developer)))
+                    .expectError(AccessDeniedException.class)
+                    .verify();
+        }
+    }
+
+    @Test
+    void shouldCompileDisjunctionOfRoles() {
+        Expression expression = roleExpressionHandler.getExpressionParser()
+                .parseExpression("hasRole('ROLE_client-hr') or hasRole('client-admin')");
+
+        assertTrue(expression instanceof RoleMaskExpression);
+        assertEquals(Role.HR.bit() | Role.ADMIN.bit(), ((RoleMaskExpression) expression).requiredRoles());
+    }
+
+    @Test
+    void shouldLeaveOtherExpressionsToSpel() {
+        Expression expression = roleExpressionHandler.getExpressionParser()
+                .parseExpression("hasRole('ROLE_client-hr') and authentication.name == 'admin'");
+
+        assertFalse(expression instanceof RoleMaskExpression);
+    }
+
+    @Test
+    void shouldRefuseToStartWithUnsupportedExpression() {
+        RequestMappingHandlerMapping handlerMapping = handlerMapping(UnsupportedController.class, new UnsupportedController(), null, null);
+
+        assertThrows(IllegalStateException.class, () -> new PreAuthorizeExpressionVerifier(handlerMapping));
+        assertThrows(IllegalStateException.class, () -> RoleExpressionParser.compile("hasRole('ROLE_client-unknown')", "test"));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RequestMappingHandlerMapping handlerMapping(Class first, Object firstController, Class second, Object secondController) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(first, () -> firstController);
+        if (second != null) {
+            context.registerBean(second, () -> secondController);
+        }
+        context.refresh();
+        RequestMappingHandlerMapping handlerMapping = new RequestMappingHandlerMapping();
+        handlerMapping.setApplicationContext(context);
+        handlerMapping.afterPropertiesSet();
+        return handlerMapping;
+    }
+
+    @RestController
+    static class UnsupportedController {
+        @PreAuthorize("hasRole('ROLE_client-hr') and authentication.name == 'admin'")
+        @GetMapping("/unsupported")
+        public Mono<String> unsupported() {
+            return Mono.just("unsupported");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.candidate.controller;
+
+import com.example.candidate.model.BulkJob;
+import com.example.candidate.service.CandidateBulkService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateBulkControllerTest {
+    @Mock
+    private CandidateBulkService candidateBulkService;
+    @InjectMocks
+    private CandidateBulkController candidateBulkController;
+
+    @Test
+    void shouldReassignCandidates() {
+        BulkJob job = new BulkJob("REASSIGN");
+        when(candidateBulkService.reassignCandidates("dev-a", "dev-b", false)).thenReturn(Mono.just(job));
+
+        ResponseEntity<BulkJob> response = candidateBulkController.reassignCandidates("dev-a", "dev-b", false).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getLocation());
+        assertEquals(job, response.getBody());
+    }
+
+    @Test
+    void shouldAcceptAsyncDelete() {
+        BulkJob job = new BulkJob("DELETE");
+        when(candidateBulkService.deleteCandidatesByPositionId("p1", true)).thenReturn(Mono.just(job));
+
+        ResponseEntity<BulkJob> response = candidateBulkController.deleteCandidatesByPositionId("p1", true).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/v1/candidates/bulk/jobs/" + job.getId(), String.valueOf(response.getHeaders().getLocation()));
+    }
+
+    @Test
+    void shouldGetJob() {
+        BulkJob job = new BulkJob("MOVE");
+        when(candidateBulkService.getJob(job.getId())).thenReturn(Mono.just(job));
+
+        ResponseEntity<BulkJob> response = candidateBulkController.getJob(job.getId()).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(job, response.getBody());
+    }
+
+    @Test
+    void shouldCancelJob() {
+        BulkJob job = new BulkJob("MOVE");
+        when(candidateBulkService.cancelJob(job.getId())).thenReturn(Mono.just(job));
+
+        ResponseEntity<BulkJob> response = candidateBulkController.cancelJob(job.getId()).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(job, response.getBody());
+    }
+}
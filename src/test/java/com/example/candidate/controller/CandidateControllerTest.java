@@ -1,6 +1,13 @@
 package com.example.candidate.controller;
 
+import com.example.candidate.exception.InvalidFieldsException;
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateSuggestion;
+import com.example.candidate.model.HiringStats;
+import com.example.candidate.model.Status;
+import com.example.candidate.pagination.CursorPage;
 import com.example.candidate.service.CandidateService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,15 +18,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class CandidateControllerTest {
@@ -31,7 +46,7 @@ class CandidateControllerTest {
 
     @BeforeEach
     void setUp() {
-        candidate = new Candidate("1", "John Doe", "1234567890", "http://example.com/cv", "john.doe@example.com", null, null, null, null, false);
+        candidate = new Candidate("1", "John Doe", "1234567890", "http://example.com/cv", "john.doe@example.com", null, null, null, null, false, null);
     }
 
     @AfterEach
@@ -41,7 +56,7 @@ class CandidateControllerTest {
 
     @Test
     void shouldAddCandidate() {
-        when(candidateService.addCandidate(any(Candidate.class))).thenReturn(candidate);
+        when(candidateService.addCandidate(any(Candidate.class))).thenReturn(Mono.just(candidate));
 
         ResponseEntity<Candidate> response = candidatesController.addCandidate(candidate).block();
 
@@ -53,7 +68,7 @@ class CandidateControllerTest {
 
     @Test
     void shouldGetAllCandidates() {
-        when(candidateService.getAllCandidates()).thenReturn(List.of(candidate));
+        when(candidateService.getAllCandidates()).thenReturn(Flux.just(candidate));
 
         ResponseEntity<List<Candidate>> response = candidatesController.getAllCandidates().block();
 
@@ -63,11 +78,21 @@ class CandidateControllerTest {
         verify(candidateService).getAllCandidates();
     }
 
+    @Test
+    void shouldStreamAllCandidates() {
+        when(candidateService.streamAllCandidates()).thenReturn(Flux.just(candidate));
+
+        List<Candidate> streamed = candidatesController.streamAllCandidates().collectList().block();
+
+        assertEquals(List.of(candidate), streamed);
+        verify(candidateService).streamAllCandidates();
+    }
+
     @Test
     void shouldGetCandidateById() {
-        when(candidateService.getCandidateById("1")).thenReturn(candidate);
+        when(candidateService.getCandidateById("1")).thenReturn(Mono.just(candidate));
 
-        ResponseEntity<Candidate> response = candidatesController.getCandidateById("1").block();
+        ResponseEntity<Candidate> response = candidatesController.getCandidateById("1", null).block();
 
         assert response != null;
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -75,21 +100,82 @@ class CandidateControllerTest {
         verify(candidateService).getCandidateById("1");
     }
 
+    @Test
+    void shouldAnswerNotModifiedForUnchangedCandidateWithoutLoadingIt() {
+        when(candidateService.getCandidateVersion("1")).thenReturn(Mono.just(5L));
+
+        ResponseEntity<Candidate> response = candidatesController.getCandidateById("1", "\"5\"").block();
+
+        assert response != null;
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"5\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(candidateService, never()).getCandidateById(anyString());
+    }
+
+    @Test
+    void shouldReturnChangedCandidate() {
+        candidate.setVersion(6L);
+        when(candidateService.getCandidateVersion("1")).thenReturn(Mono.just(6L));
+        when(candidateService.getCandidateById("1")).thenReturn(Mono.just(candidate));
+
+        ResponseEntity<Candidate> response = candidatesController.getCandidateById("1", "\"5\"").block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"6\"", response.getHeaders().getETag());
+        assertEquals(candidate, response.getBody());
+    }
+
     @Test
     void shouldUpdateCandidate(){
-        when(candidateService.updateCandidate(eq(candidate.getId()), any(Candidate.class))).thenReturn(candidate);
+        candidate.setVersion(2L);
+        when(candidateService.updateCandidate(eq(candidate.getId()), any(Candidate.class), eq(1L))).thenReturn(Mono.just(candidate));
+
+        ResponseEntity<?> response = candidatesController.updateCandidate(candidate.getId(), "\"1\"", candidate).block();
 
-        ResponseEntity<?> response = candidatesController.updateCandidate(candidate.getId(), candidate).block();
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(candidate, response.getBody());
+        assertEquals("\"2\"", response.getHeaders().getETag());
+        verify(candidateService).updateCandidate(eq(candidate.getId()), any(Candidate.class), eq(1L));
+    }
+
+    @Test
+    void shouldReturnOnlySelectedCandidateFields() {
+        when(candidateService.getCandidatesByPositionId(eq("1"), any())).thenReturn(Flux.just(candidate));
+
+        ResponseEntity<List<Map<String, Object>>> response = candidatesController.getCandidateFieldsByPositionId("1", "id,name").block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(Map.of("id", candidate.getId(), "name", candidate.getName())), response.getBody());
+    }
+
+    @Test
+    void shouldRejectUnknownCandidateFields() {
+        assertThrows(InvalidFieldsException.class, () -> candidatesController.getAllCandidateFields("id,salary"));
+        verifyNoInteractions(candidateService);
+    }
+
+    @Test
+    void shouldPatchCandidate(){
+        candidate.setVersion(3L);
+        Map<String, Object> patch = Map.of("name", "Jane Doe");
+        when(candidateService.patchCandidate(candidate.getId(), patch, 2L)).thenReturn(Mono.just(candidate));
+
+        ResponseEntity<?> response = candidatesController.patchCandidate(candidate.getId(), "W/\"2\"", patch).block();
 
         assert response != null;
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(candidate, response.getBody());
-        verify(candidateService).updateCandidate(eq(candidate.getId()), any(Candidate.class));
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        verify(candidateService).patchCandidate(candidate.getId(), patch, 2L);
     }
 
     @Test
     void shouldGetCandidateByName() {
-        when(candidateService.getCandidateByName("John Doe")).thenReturn(List.of(candidate));
+        when(candidateService.getCandidateByName("John Doe")).thenReturn(Flux.just(candidate));
 
         ResponseEntity<List<Candidate>> response = candidatesController.getCandidateByName("John Doe").block();
 
@@ -99,9 +185,47 @@ class CandidateControllerTest {
         verify(candidateService).getCandidateByName("John Doe");
     }
 
+    @Test
+    void shouldSuggestCandidateNames() {
+        CandidateSuggestion suggestion = new CandidateSuggestion("1", "John Doe");
+        when(candidateService.suggestCandidateNames("Jo", 10)).thenReturn(Flux.just(suggestion));
+
+        ResponseEntity<List<CandidateSuggestion>> response = candidatesController.suggestCandidateNames("Jo", 10).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(suggestion), response.getBody());
+        verify(candidateService).suggestCandidateNames("Jo", 10);
+    }
+
+    @Test
+    void shouldLookUpCandidates() {
+        BatchLookupRequest request = new BatchLookupRequest(null, List.of("doc1", "doc2"));
+        List<BatchLookupResult<Candidate>> results = List.of(BatchLookupResult.notFound("doc1"), BatchLookupResult.found("doc2", candidate));
+        when(candidateService.lookupCandidates(request)).thenReturn(Mono.just(results));
+
+        ResponseEntity<List<BatchLookupResult<Candidate>>> response = candidatesController.lookupCandidates(request).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    void shouldGetHiringStats() {
+        HiringStats stats = new HiringStats(2, 1, 1, Map.of("1", 2L), Map.of(), List.of(new HiringStats.PositionStatusCount(Status.OPEN, null, 1)));
+        when(candidateService.getHiringStats(null, LocalDate.of(2024, 6, 30))).thenReturn(Mono.just(stats));
+
+        ResponseEntity<HiringStats> response = candidatesController.getHiringStats(null, LocalDate.of(2024, 6, 30)).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+    }
+
     @Test
     void shouldGetCandidatesByAssignedTo() {
-        when(candidateService.findCandidatesByAssignedTo("1")).thenReturn(List.of(candidate));
+        when(candidateService.findCandidatesByAssignedTo("1")).thenReturn(Flux.just(candidate));
 
         ResponseEntity<List<Candidate>> response = candidatesController.getCandidatesAssignedToDeveloper("1").block();
 
@@ -113,7 +237,7 @@ class CandidateControllerTest {
 
     @Test
     void shouldDeleteCandidate() {
-        doNothing().when(candidateService).deleteCandidate("1");
+        when(candidateService.deleteCandidate("1")).thenReturn(Mono.empty());
 
         ResponseEntity<Void> response = candidatesController.deleteCandidate("1").block();
 
@@ -124,7 +248,7 @@ class CandidateControllerTest {
 
     @Test
     void shouldGetCandidatesByPositionId() {
-        when(candidateService.getCandidatesByPositionId("1")).thenReturn(List.of(candidate));
+        when(candidateService.getCandidatesByPositionId("1")).thenReturn(Flux.just(candidate));
 
         ResponseEntity<List<Candidate>> response = candidatesController.getCandidatesByPositionId("1").block();
 
@@ -136,7 +260,7 @@ class CandidateControllerTest {
 
     @Test
     void shouldFindCandidateByDocumentId() {
-        when(candidateService.findCandidateByDocumentId("1")).thenReturn(candidate);
+        when(candidateService.findCandidateByDocumentId("1")).thenReturn(Mono.just(candidate));
 
         ResponseEntity<Candidate> response = candidatesController.findCandidateByDocumentId("1").block();
 
@@ -148,7 +272,7 @@ class CandidateControllerTest {
 
     @Test
     void shouldHireCandidate() {
-        doNothing().when(candidateService).hireCandidate("1", "1");
+        when(candidateService.hireCandidate("1", "1")).thenReturn(Mono.empty());
 
         ResponseEntity<Void> response = candidatesController.hireCandidate("1", "1").block();
 
@@ -156,4 +280,43 @@ class CandidateControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(candidateService).hireCandidate("1", "1");
     }
+
+    @Test
+    void shouldGetCandidatesPage() {
+        CursorPage<Candidate> page = new CursorPage<>(List.of(candidate), "next");
+        when(candidateService.getCandidatesPage("cursor", 10)).thenReturn(Mono.just(page));
+
+        ResponseEntity<CursorPage<Candidate>> response = candidatesController.getCandidatesPage("cursor", 10).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+        verify(candidateService).getCandidatesPage("cursor", 10);
+    }
+
+    @Test
+    void shouldGetCandidatesPageByPositionId() {
+        CursorPage<Candidate> page = new CursorPage<>(List.of(candidate), null);
+        when(candidateService.getCandidatesPageByPositionId("1", null, null)).thenReturn(Mono.just(page));
+
+        ResponseEntity<CursorPage<Candidate>> response = candidatesController.getCandidatesPageByPositionId("1", null, null).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+        verify(candidateService).getCandidatesPageByPositionId("1", null, null);
+    }
+
+    @Test
+    void shouldGetCandidatesPageAssignedToDeveloper() {
+        CursorPage<Candidate> page = new CursorPage<>(List.of(candidate), null);
+        when(candidateService.getCandidatesPageByAssignedTo("1", null, 5)).thenReturn(Mono.just(page));
+
+        ResponseEntity<CursorPage<Candidate>> response = candidatesController.getCandidatesPageAssignedToDeveloper("1", null, 5).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+        verify(candidateService).getCandidatesPageByAssignedTo("1", null, 5);
+    }
 }
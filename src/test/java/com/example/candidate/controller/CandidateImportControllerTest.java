@@ -0,0 +1,44 @@
+package com.example.candidate.controller;
+
+import com.example.candidate.model.CandidateImportResult;
+import com.example.candidate.service.CandidateImportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateImportControllerTest {
+    @Mock
+    private CandidateImportService candidateImportService;
+    @InjectMocks
+    private CandidateImportController candidateImportController;
+
+    @Test
+    void shouldImportCandidates() {
+        CandidateImportResult result = CandidateImportResult.created(1, "1");
+        when(candidateImportService.importCandidates(any())).thenReturn(Flux.just(result));
+
+        List<CandidateImportResult> response = candidateImportController.importCandidates(Flux.just("{}")).collectList().block();
+
+        assertEquals(List.of(result), response);
+    }
+
+    @Test
+    void shouldImportCandidatesFromCsv() {
+        CandidateImportResult result = CandidateImportResult.rejected(1, CandidateImportResult.Outcome.INVALID, "Invalid");
+        when(candidateImportService.importCandidatesFromCsv(any())).thenReturn(Flux.just(result));
+
+        List<CandidateImportResult> response = candidateImportController.importCandidatesFromCsv(Flux.just("name")).collectList().block();
+
+        assertEquals(List.of(result), response);
+    }
+}
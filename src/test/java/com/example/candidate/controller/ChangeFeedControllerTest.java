@@ -0,0 +1,45 @@
+package com.example.candidate.controller;
+
+import com.example.candidate.changes.ChangeFeedHub;
+import com.example.candidate.changes.ChangeFeedProperties;
+import com.example.candidate.model.ChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedControllerTest {
+    @Mock
+    private ChangeFeedHub changeFeedHub;
+    @Spy
+    private ChangeFeedProperties changeFeedProperties = new ChangeFeedProperties();
+    @InjectMocks
+    private ChangeFeedController changeFeedController;
+
+    @Test
+    void shouldStreamChangesOfRequestedCollectionsWithResumeTokenAsEventId() {
+        ChangeEvent candidateChange = new ChangeEvent("t2", ChangeFeedHub.CANDIDATES, ChangeEvent.Operation.DELETE, "7", null);
+        ChangeEvent positionChange = new ChangeEvent("t3", ChangeFeedHub.POSITIONS, ChangeEvent.Operation.DELETE, "1", null);
+        when(changeFeedHub.events("t1")).thenReturn(Flux.just(candidateChange, positionChange, ChangeEvent.reset(null)));
+
+        StepVerifier.create(changeFeedController.streamChanges("t1", Set.of(ChangeFeedHub.POSITIONS)).take(2))
+                .assertNext(event -> {
+                    assertEquals("t3", event.id());
+                    assertEquals("delete", event.event());
+                    assertEquals(positionChange, event.data());
+                })
+                .assertNext(event -> assertEquals("reset", event.event()))
+                .verifyComplete();
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.candidate.controller;
 
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Position;
+import com.example.candidate.model.PositionWithCandidates;
 import com.example.candidate.model.Status;
 import com.example.candidate.model.SubStatus;
+import com.example.candidate.pagination.CursorPage;
 import com.example.candidate.service.PositionsService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,11 +17,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -31,7 +40,7 @@ class PositionsControllerTest {
 
     @BeforeEach
     void setUp() {
-        position = new Position("1", "Project Manager", Status.OPEN, null, null);
+        position = new Position("1", "Project Manager", Status.OPEN, null, null, null);
     }
 
     @AfterEach
@@ -39,11 +48,36 @@ class PositionsControllerTest {
         position = null;
     }
 
+    @Test
+    void shouldGetPositionsWithCandidates() {
+        PositionWithCandidates withCandidates = new PositionWithCandidates(position, 0, List.of());
+        when(positionsService.getPositionsWithCandidates(Status.OPEN, null, 5)).thenReturn(Flux.just(withCandidates));
+
+        ResponseEntity<List<PositionWithCandidates>> response = positionsController.getPositionsWithCandidates(Status.OPEN, null, 5).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(withCandidates), response.getBody());
+    }
+
+    @Test
+    void shouldLookUpPositions() {
+        BatchLookupRequest request = new BatchLookupRequest(List.of("1", "2"), null);
+        List<BatchLookupResult<Position>> results = List.of(BatchLookupResult.found("1", position), BatchLookupResult.notFound("2"));
+        when(positionsService.lookupPositions(request)).thenReturn(Mono.just(results));
+
+        ResponseEntity<List<BatchLookupResult<Position>>> response = positionsController.lookupPositions(request).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
     @Test
     void shouldGetAllPositions() {
-        when(positionsService.getAllPositions()).thenReturn(List.of(position));
+        when(positionsService.getAllPositions()).thenReturn(Flux.just(position));
 
-        ResponseEntity<List<Position>> response = positionsController.getAllPositions().block();
+        ResponseEntity<List<Position>> response = positionsController.getAllPositions(null).block();
 
         assert response != null;
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -51,11 +85,73 @@ class PositionsControllerTest {
         verify(positionsService).getAllPositions();
     }
 
+    @Test
+    void shouldTagAllPositionsWithChangeToken() {
+        when(positionsService.getPositionsChangeToken()).thenReturn(Optional.of("a1-7"));
+        when(positionsService.getAllPositions()).thenReturn(Flux.just(position));
+
+        ResponseEntity<List<Position>> response = positionsController.getAllPositions("\"a1-6\"").block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"a1-7\"", response.getHeaders().getETag());
+        assertEquals(List.of(position), response.getBody());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForUnchangedPositionsWithoutReadingThem() {
+        when(positionsService.getPositionsChangeToken()).thenReturn(Optional.of("a1-7"));
+
+        ResponseEntity<List<Position>> response = positionsController.getAllPositions("\"a1-6\", W/\"a1-7\"").block();
+
+        assert response != null;
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"a1-7\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(positionsService, never()).getAllPositions();
+    }
+
+    @Test
+    void shouldNotAnswerNotModifiedWithoutChangeToken() {
+        when(positionsService.getPositionsChangeToken()).thenReturn(Optional.empty());
+        when(positionsService.getAllPositions()).thenReturn(Flux.just(position));
+
+        ResponseEntity<List<Position>> response = positionsController.getAllPositions("*").block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForUnchangedPosition() {
+        position.setVersion(4L);
+        when(positionsService.getPositionById("1")).thenReturn(Mono.just(position));
+
+        ResponseEntity<Position> response = positionsController.getPositionById("1", "\"4\"").block();
+
+        assert response != null;
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void shouldReturnOnlySelectedPositionFields() {
+        when(positionsService.getPositionsChangeToken()).thenReturn(Optional.of("a1-7"));
+        when(positionsService.getAllPositions()).thenReturn(Flux.just(position));
+
+        ResponseEntity<List<Map<String, Object>>> response = positionsController.getAllPositionFields("id,status", null).block();
+
+        assert response != null;
+        assertEquals(List.of(Map.of("id", position.getId(), "status", position.getStatus())), response.getBody());
+        assertEquals("\"a1-7\"", response.getHeaders().getETag());
+    }
+
     @Test
     void shouldGetPositionById() {
-        when(positionsService.getPositionById("1")).thenReturn(position);
+        when(positionsService.getPositionById("1")).thenReturn(Mono.just(position));
 
-        ResponseEntity<Position> response = positionsController.getPositionById("1").block();
+        ResponseEntity<Position> response = positionsController.getPositionById("1", null).block();
 
         assert response != null;
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -65,7 +161,7 @@ class PositionsControllerTest {
 
     @Test
     void shouldAddPosition() {
-        when(positionsService.addPosition(any(Position.class))).thenReturn(position);
+        when(positionsService.addPosition(any(Position.class))).thenReturn(Mono.just(position));
 
         ResponseEntity<Position> response = positionsController.addPosition(position).block();
 
@@ -77,19 +173,32 @@ class PositionsControllerTest {
 
     @Test
     void shouldUpdatePosition() {
-        when(positionsService.updatePosition("1", position)).thenReturn(position);
+        when(positionsService.updatePosition("1", position, null)).thenReturn(Mono.just(position));
 
-        ResponseEntity<Position> response = positionsController.updatePosition("1", position).block();
+        ResponseEntity<Position> response = positionsController.updatePosition("1", null, position).block();
 
         assert response != null;
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(position, response.getBody());
-        verify(positionsService).updatePosition("1", position);
+        verify(positionsService).updatePosition("1", position, null);
+    }
+
+    @Test
+    void shouldPatchPosition() {
+        Map<String, Object> patch = Map.of("status", "CLOSED");
+        when(positionsService.patchPosition("1", patch, null)).thenReturn(Mono.just(position));
+
+        ResponseEntity<Position> response = positionsController.patchPosition("1", null, patch).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(position, response.getBody());
+        verify(positionsService).patchPosition("1", patch, null);
     }
 
     @Test
     void shouldGetPositionsByStatus() {
-        when(positionsService.getPositionsByStatus(Status.OPEN)).thenReturn(List.of(position));
+        when(positionsService.getPositionsByStatus(Status.OPEN)).thenReturn(Flux.just(position));
 
         ResponseEntity<List<Position>> response = positionsController.getPositionsByStatus(Status.OPEN).block();
 
@@ -101,7 +210,7 @@ class PositionsControllerTest {
 
     @Test
     void shouldGetPositionsByStatusAndSubStatus() {
-        when(positionsService.getPositionsByStatusAndSubStatus(Status.OPEN, SubStatus.FILLED)).thenReturn(List.of(position));
+        when(positionsService.getPositionsByStatusAndSubStatus(Status.OPEN, SubStatus.FILLED)).thenReturn(Flux.just(position));
 
         ResponseEntity<List<Position>> response = positionsController.getPositionsByStatusAndSubStatus(Status.OPEN, SubStatus.FILLED).block();
 
@@ -113,18 +222,18 @@ class PositionsControllerTest {
 
     @Test
     void shouldCancelPosition() {
-        doNothing().when(positionsService).cancelPosition("1");
+        when(positionsService.cancelPosition("1", null)).thenReturn(Mono.empty());
 
-        ResponseEntity<Void> response = positionsController.cancelPosition("1").block();
+        ResponseEntity<Void> response = positionsController.cancelPosition("1", null).block();
 
         assert response != null;
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(positionsService).cancelPosition("1");
+        verify(positionsService).cancelPosition("1", null);
     }
 
     @Test
     void shouldFillPosition() {
-        doNothing().when(positionsService).fillPosition("1", "2");
+        when(positionsService.fillPosition("1", "2")).thenReturn(Mono.empty());
 
         ResponseEntity<Void> response = positionsController.fillPosition("1", "2").block();
 
@@ -135,7 +244,7 @@ class PositionsControllerTest {
 
     @Test
     void shouldGetPositionsByStatuses() {
-        when(positionsService.getPositionsByStatuses(Status.OPEN, Status.CLOSED)).thenReturn(List.of(position));
+        when(positionsService.getPositionsByStatuses(Status.OPEN, Status.CLOSED)).thenReturn(Flux.just(position));
 
         ResponseEntity<List<Position>> response = positionsController.getPositionsByStatuses(Status.OPEN, Status.CLOSED).block();
 
@@ -147,13 +256,49 @@ class PositionsControllerTest {
 
     @Test
     void shouldGetUniquePositionNames() {
-        when(positionsService.getUniquePositionNames()).thenReturn(Set.of("Project Manager"));
+        when(positionsService.getUniquePositionNames()).thenReturn(Mono.just(Set.of("Project Manager")));
 
-        ResponseEntity<Set<String>> response = positionsController.getUniquePositionNames().block();
+        ResponseEntity<Set<String>> response = positionsController.getUniquePositionNames(null).block();
 
         assert response != null;
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Set.of("Project Manager"), response.getBody());
         verify(positionsService).getUniquePositionNames();
     }
+
+    @Test
+    void shouldAnswerNotModifiedForUnchangedPositionNames() {
+        when(positionsService.getPositionsChangeToken()).thenReturn(Optional.of("a1-7"));
+
+        ResponseEntity<Set<String>> response = positionsController.getUniquePositionNames("\"a1-7\"").block();
+
+        assert response != null;
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(positionsService, never()).getUniquePositionNames();
+    }
+
+    @Test
+    void shouldGetPositionsPage() {
+        CursorPage<Position> page = new CursorPage<>(List.of(position), null);
+        when(positionsService.getPositionsPage(Status.OPEN, null, 20)).thenReturn(Mono.just(page));
+
+        ResponseEntity<CursorPage<Position>> response = positionsController.getPositionsPage(Status.OPEN, null, 20).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+        verify(positionsService).getPositionsPage(Status.OPEN, null, 20);
+    }
+
+    @Test
+    void shouldAutocompletePositionNames() {
+        when(positionsService.getPositionNamesStartingWith("Pro", 10)).thenReturn(Flux.just("Project Manager"));
+
+        ResponseEntity<List<String>> response = positionsController.autocompletePositionNames("Pro", 10).block();
+
+        assert response != null;
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("Project Manager"), response.getBody());
+        verify(positionsService).getPositionNamesStartingWith("Pro", 10);
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.candidate.projection;
+
+import com.example.candidate.exception.InvalidFieldsException;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.Position;
+import com.example.candidate.model.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectionsTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void shouldAcceptExactlyTheJsonPropertiesOfTheFullRepresentation() {
+        Set<String> candidateProperties = objectMapper.convertValue(new Candidate(), Map.class).keySet();
+        Set<String> positionProperties = objectMapper.convertValue(Position.builder().name("Developer").status(Status.OPEN).build(), Map.class).keySet();
+
+        assertEquals(candidateProperties, Projections.CANDIDATE.select(String.join(",", candidateProperties)).names());
+        assertEquals(positionProperties, Projections.POSITION.select(String.join(",", positionProperties)).names());
+    }
+
+    @Test
+    void shouldRenderOnlySelectedFieldsInRequestedOrder() {
+        Candidate candidate = Candidate.builder().id("1").name("John Doe").email("john.doe@example.com").positionId("7").isHired(true).build();
+
+        Map<String, Object> rendered = Projections.CANDIDATE.select("name, id,hired").render(candidate);
+
+        assertEquals(Map.of("name", "John Doe", "id", "1", "hired", true), rendered);
+        assertEquals("name", rendered.keySet().iterator().next());
+    }
+
+    @Test
+    void shouldProjectQueryOnStoredPropertyNames() {
+        Query query = Projections.CANDIDATE.select("name,hired").applyTo(new Query(), "id");
+
+        assertEquals(new Document("name", 1).append("isHired", 1).append("id", 1), query.getFieldsObject());
+    }
+
+    @Test
+    void shouldRejectUnknownFields() {
+        InvalidFieldsException exception = assertThrows(InvalidFieldsException.class,
+                () -> Projections.CANDIDATE.select("id,salary,nickname"));
+
+        assertTrue(exception.getMessage().startsWith("Unknown fields [salary, nickname]"));
+        assertThrows(InvalidFieldsException.class, () -> Projections.POSITION.select(" "));
+    }
+}
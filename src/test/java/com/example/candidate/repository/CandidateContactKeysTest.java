@@ -0,0 +1,41 @@
+package com.example.candidate.repository;
+
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CandidateContactKeysTest {
+    @Test
+    void shouldNormalizeEmail() {
+        assertThat(CandidateContactKeys.email(" John.Doe@Example.COM ")).isEqualTo("john.doe@example.com");
+        assertThat(CandidateContactKeys.email(null)).isNull();
+        assertThat(CandidateContactKeys.email(" ")).isNull();
+    }
+
+    @Test
+    void shouldNormalizePhoneNumber() {
+        assertThat(CandidateContactKeys.phoneNumber("+40712 345-678")).isEqualTo("0712345678");
+        assertThat(CandidateContactKeys.phoneNumber("0712.345.678")).isEqualTo("0712345678");
+        assertThat(CandidateContactKeys.phoneNumber("0712345678")).isEqualTo("0712345678");
+        assertThat(CandidateContactKeys.phoneNumber(null)).isNull();
+    }
+
+    @Test
+    void shouldTellWhichContactKeyWasDuplicated() {
+        assertThat(CandidateContactKeys.duplicatedKey(duplicateKey(CandidateContactKeys.EMAIL_INDEX))).isEqualTo(CandidateContactKeys.EMAIL);
+        assertThat(CandidateContactKeys.duplicatedKey(duplicateKey(CandidateContactKeys.PHONE_NUMBER_INDEX))).isEqualTo(CandidateContactKeys.PHONE_NUMBER);
+        assertThat(CandidateContactKeys.duplicatedKey(duplicateKey("_id_"))).isNull();
+        assertThat(CandidateContactKeys.duplicatedKey(duplicateKey(CandidateContactKeys.EMAIL_INDEX + "_old"))).isNull();
+        assertThat(CandidateContactKeys.duplicatedKey(new DuplicateKeyException("index: " + CandidateContactKeys.EMAIL_INDEX))).isNull();
+    }
+
+    private static DuplicateKeyException duplicateKey(String index) {
+        String message = "E11000 duplicate key error collection: test.candidates index: " + index + " dup key: { : \"x\" }";
+        return new DuplicateKeyException(message, new MongoWriteException(new WriteError(11000, message, new BsonDocument()), new ServerAddress()));
+    }
+}
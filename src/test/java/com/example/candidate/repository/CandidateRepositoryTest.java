@@ -1,13 +1,17 @@
 package com.example.candidate.repository;
 
 import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateSuggestion;
+import com.example.candidate.model.HiringStats;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -20,56 +24,118 @@ class CandidateRepositoryTest {
 
     @BeforeEach
     public void setUp() {
-        candidate = new Candidate("1", "John Doe", "1234567890", "http://example.com/cv", "john.doe@example.com", null, null, null, null, false);
-        candidate1 = new Candidate("2", "Jane Doe", "1234567890", "http://example.com/cv", "jane.doe@example.com", null, null, null, null, false);
-        candidateRepository.saveAll(List.of(candidate, candidate1));
+        candidate = new Candidate("1", "John Doe", "1234567890", "http://example.com/cv", "john.doe@example.com", null, null, null, null, false, null);
+        candidate1 = new Candidate("2", "Jane Doe", "1234567890", "http://example.com/cv", "jane.doe@example.com", null, null, null, null, false, null);
+        candidateRepository.saveAll(List.of(candidate, candidate1)).blockLast();
     }
 
     @AfterEach
     public void tearDown() {
-        candidateRepository.delete(candidate);
-        candidateRepository.delete(candidate1);
+        candidateRepository.delete(candidate).block();
+        candidateRepository.delete(candidate1).block();
     }
 
     @Test
-    void shouldCheckIfCandidateExistsByPhoneNumber() {
-        boolean exists = candidateRepository.existsByPhoneNumber("1234567890");
-        assertThat(exists).isTrue();
-    }
-
-    @Test
-    void shouldCheckIfCandidateExistsByEmail() {
-        boolean exists = candidateRepository.existsByEmail("jane.doe@example.com");
-        assertThat(exists).isTrue();
+    void shouldFindCandidateByNameIgnoringCase() {
+        List<Candidate> candidates = candidateRepository.findByName("john doe").collectList().block();
+        assertThat(candidates).hasSize(1);
     }
 
     @Test
-    void shouldFindCandidateByNameIgnoreCase() {
-        List<Candidate> candidates = candidateRepository.findByNameIgnoreCase("john doe");
-        assertThat(candidates).hasSize(1);
+    void shouldSuggestCandidateNamesByPrefixIgnoringCase() {
+        List<CandidateSuggestion> suggestions = candidateRepository.findNameSuggestions("ja", 10).collectList().block();
+        assertThat(suggestions).extracting(CandidateSuggestion::getName).containsExactly("Jane Doe");
     }
 
     @Test
     void shouldFindCandidatesByAssignedTo() {
-        List<Candidate> candidates = candidateRepository.findCandidatesByAssignedTo("1");
+        List<Candidate> candidates = candidateRepository.findCandidatesByAssignedTo("1").collectList().block();
         assertThat(candidates).isEmpty();
     }
 
     @Test
     void shouldFindCandidatesByPositionId() {
-        List<Candidate> candidates = candidateRepository.findCandidatesByPositionId("1");
+        List<Candidate> candidates = candidateRepository.findCandidatesByPositionId("1").collectList().block();
         assertThat(candidates).isEmpty();
     }
 
     @Test
     void shouldCountCandidatesByPositionId() {
-        int count = candidateRepository.countCandidatesByPositionId("1");
+        Long count = candidateRepository.countCandidatesByPositionId("1").block();
         assertThat(count).isZero();
     }
 
     @Test
     void shouldFindCandidateByDocumentId() {
-        Candidate candidate = candidateRepository.findCandidateByDocumentId("1");
+        Candidate candidate = candidateRepository.findCandidateByDocumentId("1").block();
         assertThat(candidate).isNull();
     }
+
+    @Test
+    void shouldUpdateAllMatchingCandidates() {
+        Long updated = candidateRepository.updateAll(Criteria.where("phoneNumber").is("1234567890"), new Update().set("assignedTo", "dev-b")).block();
+        assertThat(updated).isEqualTo(2);
+        assertThat(candidateRepository.findVersion("1").block()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldBumpVersionWhenMarkedHired() {
+        assertThat(candidateRepository.markHired("1").block()).isTrue();
+        assertThat(candidateRepository.findVersion("1").block()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldUpdateCandidatesOneBatchAtATime() {
+        Criteria unassigned = Criteria.where("assignedTo").ne("dev-b");
+        Update assign = new Update().set("assignedTo", "dev-b");
+
+        assertThat(candidateRepository.updateBatch(unassigned, assign, 1).block().count()).isEqualTo(1);
+        assertThat(candidateRepository.updateBatch(unassigned, assign, 1).block().count()).isEqualTo(1);
+        assertThat(candidateRepository.updateBatch(unassigned, assign, 1).block()).isEqualTo(BatchWriteResult.EMPTY);
+    }
+
+    @Test
+    void shouldDeleteCandidatesOneBatchAtATime() {
+        Criteria filter = Criteria.where("phoneNumber").is("1234567890");
+
+        assertThat(candidateRepository.countMatching(filter).block()).isEqualTo(2);
+        assertThat(candidateRepository.deleteBatch(filter, 1).block().ids()).hasSize(1);
+        assertThat(candidateRepository.deleteAll(filter).block()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldUpdateOnlyWhileVersionMatches() {
+        Update rename = new Update().set("name", "Johnny Doe").inc("version", 1);
+
+        Candidate updated = candidateRepository.updateIfVersion("1", 0L, rename).block();
+        Candidate stale = candidateRepository.updateIfVersion("1", 0L, rename).block();
+
+        assertThat(updated).isNotNull();
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(stale).isNull();
+    }
+
+    @Test
+    void shouldFindVersionAlone() {
+        assertThat(candidateRepository.findVersion("1").block()).isEqualTo(0L);
+        assertThat(candidateRepository.findVersion("missing").block()).isNull();
+    }
+
+    @Test
+    void shouldAggregateHiringStatsWithinInterviewDateRange() {
+        candidate.setInterviewDate(LocalDate.of(2024, 3, 1));
+        candidate.setPositionId("p1");
+        candidate.setAssignedTo("dev1");
+        candidate1.setInterviewDate(LocalDate.of(2024, 5, 1));
+        candidate1.setPositionId("p1");
+        candidateRepository.saveAll(List.of(candidate, candidate1)).blockLast();
+
+        HiringStats stats = candidateRepository.aggregateHiringStats(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)).block();
+
+        assertThat(stats).isNotNull();
+        assertThat(stats.getTotalCandidates()).isEqualTo(1);
+        assertThat(stats.getNotHiredCandidates()).isEqualTo(1);
+        assertThat(stats.getCandidatesByPosition()).containsEntry("p1", 1L);
+        assertThat(stats.getCandidatesByDeveloper()).containsEntry("dev1", 1L);
+    }
 }
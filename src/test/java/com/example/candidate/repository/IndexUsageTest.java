@@ -0,0 +1,136 @@
+package com.example.candidate.repository;
+
+import com.example.candidate.config.mongo.IndexCatalogue;
+import com.example.candidate.config.mongo.MongoIndexInitializer;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.Status;
+import com.example.candidate.model.SubStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Collation;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import(MongoIndexInitializer.class)
+class IndexUsageTest {
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+    @Autowired
+    private MongoIndexInitializer mongoIndexInitializer;
+
+    @Test
+    void retiredIndexesShouldBeDropped() {
+        mongoTemplate.indexOps("candidates")
+                .ensureIndex(new Index().named("email_unique").on("email", Sort.Direction.ASC).unique().sparse())
+                .block();
+
+        mongoIndexInitializer.ensureIndexes().block();
+
+        List<String> names = mongoTemplate.indexOps("candidates").getIndexInfo().map(IndexInfo::getName).collectList().block();
+        assertThat(names).doesNotContainAnyElementsOf(IndexCatalogue.retiredIndexes().get(Candidate.class));
+    }
+
+    @Test
+    void findByContactKeysShouldUseIndexes() {
+        Document filter = new Document("$or", List.of(
+                new Document(CandidateContactKeys.EMAIL, new Document("$in", List.of("john.doe@example.com"))),
+                new Document(CandidateContactKeys.PHONE_NUMBER, new Document("$in", List.of("0712345678")))
+        ));
+        assertIndexed("candidates", filter, null);
+    }
+
+    @Test
+    void findAllSortedByNameShouldUseIndex() {
+        assertIndexed("candidates", new Document(), new Document("name", 1));
+    }
+
+    @Test
+    void findByNameShouldUseCollationIndex() {
+        assertIndexed("candidates", new Document("name", "john doe"), null, IndexCatalogue.CASE_INSENSITIVE);
+    }
+
+    @Test
+    void findNameSuggestionsShouldUseCollationIndex() {
+        Document range = new Document("name", new Document("$gte", "jo").append("$lt", "jo\uffff"));
+        assertIndexed("candidates", range, new Document("name", 1), IndexCatalogue.CASE_INSENSITIVE);
+    }
+
+    @Test
+    void findCandidatesByAssignedToShouldUseIndex() {
+        assertIndexed("candidates", new Document("assignedTo", "1"), null);
+    }
+
+    @Test
+    void findCandidatesByPositionIdShouldUseIndex() {
+        assertIndexed("candidates", new Document("positionId", "1"), null);
+    }
+
+    @Test
+    void countCandidatesByPositionIdShouldUseIndex() {
+        assertIndexed("candidates", new Document("positionId", "1"), null);
+    }
+
+    @Test
+    void findCandidateByDocumentIdShouldUseIndex() {
+        assertIndexed("candidates", new Document("documentId", "1"), null);
+    }
+
+    @Test
+    void hiringStatsInterviewDateRangeShouldUseIndex() {
+        Document range = new Document("$gte", new Date(0)).append("$lte", new Date());
+        assertIndexed("candidates", new Document("interviewDate", range), null);
+    }
+
+    @Test
+    void findPositionsByNameShouldUseIndex() {
+        assertIndexed("positions", new Document("name", "Developer"), null);
+    }
+
+    @Test
+    void findPositionsByStatusShouldUseIndex() {
+        assertIndexed("positions", new Document("status", Status.OPEN.name()), null);
+    }
+
+    @Test
+    void findPositionsByStatusAndSubStatusShouldUseIndex() {
+        assertIndexed("positions", new Document("status", Status.CLOSED.name()).append("subStatus", SubStatus.FILLED.name()), null);
+    }
+
+    @Test
+    void findPositionsByStatusesShouldUseIndex() {
+        Document filter = new Document("$or", List.of(
+                new Document("status", Status.OPEN.name()),
+                new Document("status", Status.IN_PROGRESS.name())
+        ));
+        assertIndexed("positions", filter, null);
+    }
+
+    private void assertIndexed(String collection, Document filter, Document sort) {
+        assertIndexed(collection, filter, sort, null);
+    }
+
+    private void assertIndexed(String collection, Document filter, Document sort, Collation collation) {
+        Document explain = mongoTemplate.getCollection(collection)
+                .flatMap(mongoCollection -> Mono.from(mongoCollection.find(filter)
+                        .sort(sort)
+                        .collation(collation == null ? null : collation.toMongoCollation())
+                        .explain()))
+                .block();
+
+        assertThat(explain).isNotNull();
+        Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        assertThat(winningPlan.toJson()).doesNotContain("COLLSCAN");
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.candidate.repository;
 
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateSummary;
 import com.example.candidate.model.Position;
+import com.example.candidate.model.PositionWithCandidates;
 import com.example.candidate.model.Status;
+import com.example.candidate.model.SubStatus;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -23,26 +31,26 @@ class PositionsRepositoryTest {
 
     @BeforeEach
     public void setUp() {
-        position = new Position("1", "Project Manager", Status.OPEN, null, null);
-        position1 = new Position("2", "Developer", Status.OPEN, null, null);
-        positionsRepository.saveAll(List.of(position, position1));
+        position = new Position("1", "Project Manager", Status.OPEN, null, null, null);
+        position1 = new Position("2", "Developer", Status.OPEN, null, null, null);
+        positionsRepository.saveAll(List.of(position, position1)).blockLast();
     }
 
     @AfterEach
     public void tearDown() {
-        positionsRepository.delete(position);
-        positionsRepository.delete(position1);
+        // By id, since some tests write the positions behind the entities' backs and so move their versions on.
+        positionsRepository.deleteAllById(List.of(position.getId(), position1.getId())).block();
     }
 
     @Test
     void shouldReturnTrueIfPositionExistsByName() {
-        boolean exists = positionsRepository.existsByName("Developer");
+        Boolean exists = positionsRepository.existsByName("Developer").block();
         assertThat(exists).isTrue();
     }
 
     @Test
     void shouldReturnPositionByName() {
-        Optional<Position> optionalPosition = positionsRepository.findByName("Developer");
+        Optional<Position> optionalPosition = positionsRepository.findByName("Developer").blockOptional();
         assertThat(optionalPosition).isPresent();
         Position position = optionalPosition.orElseThrow(() -> new NoSuchElementException("Position not found"));
         assertThat(position).isEqualTo(position1);
@@ -50,28 +58,103 @@ class PositionsRepositoryTest {
 
     @Test
     void shouldReturnListOfPositionsByStatus() {
-        List<Position> positions = positionsRepository.findPositionsByStatus(Status.OPEN);
+        List<Position> positions = positionsRepository.findPositionsByStatus(Status.OPEN).collectList().block();
         assertTrue(positions.contains(position));
         assertTrue(positions.contains(position1));
     }
 
     @Test
     void shouldReturnListOfPositionsByStatusAndSubStatus() {
-        List<Position> positions = positionsRepository.findPositionsByStatusAndSubStatus(Status.OPEN, null);
+        List<Position> positions = positionsRepository.findPositionsByStatusAndSubStatus(Status.OPEN, null).collectList().block();
         assertTrue(positions.contains(position));
         assertTrue(positions.contains(position1));
     }
 
     @Test
     void shouldReturnListOfPositionsByName() {
-        List<Position> positions = positionsRepository.findPositionsByName("Developer");
+        List<Position> positions = positionsRepository.findPositionsByName("Developer").collectList().block();
         assertTrue(positions.contains(position1));
     }
 
     @Test
     void shouldReturnListOfPositionsByStatuses() {
-        List<Position> positions = positionsRepository.findPositionsByStatuses(Status.OPEN, Status.CLOSED);
+        List<Position> positions = positionsRepository.findPositionsByStatuses(Status.OPEN, Status.CLOSED).collectList().block();
         assertTrue(positions.contains(position));
         assertTrue(positions.contains(position1));
     }
+
+    @Test
+    void shouldEmbedFirstCandidatesOfPosition(@Autowired CandidateRepository candidateRepository) {
+        List<Candidate> candidates = List.of(
+                new Candidate("c1", "Bob", null, null, null, null, null, null, "2", false, null),
+                new Candidate("c2", "Ann", null, null, null, null, null, null, "2", false, null),
+                new Candidate("c3", "Cid", null, null, null, null, null, null, "2", false, null));
+        candidateRepository.saveAll(candidates).blockLast();
+        try {
+            PositionWithCandidates withCandidates = positionsRepository.findWithCandidates(Criteria.where("id").is("2"), 1, 2).blockFirst();
+
+            assertThat(withCandidates).isNotNull();
+            assertThat(withCandidates.getPosition()).isEqualTo(position1);
+            assertThat(withCandidates.getCandidateCount()).isEqualTo(3L);
+            assertThat(withCandidates.getCandidates().stream().map(CandidateSummary::getName).toList()).isEqualTo(List.of("Ann", "Bob"));
+        } finally {
+            candidateRepository.deleteAll(candidates).block();
+        }
+    }
+
+    @Test
+    void shouldRejectStaleVersionAfterHire() {
+        Long before = positionsRepository.findById("2").map(Position::getVersion).block();
+        positionsRepository.claimForHire("2", "c1").block();
+
+        Update reopen = new Update().set("status", Status.OPEN).unset("subStatus").unset("hiredCandidateId").inc("version", 1);
+        Position stale = positionsRepository.updateIfVersion("2", before, reopen).block();
+        Position hired = positionsRepository.findById("2").block();
+
+        assertThat(stale).isNull();
+        assertThat(hired.getStatus()).isEqualTo(Status.CLOSED);
+        assertThat(hired.getHiredCandidateId()).isEqualTo("c1");
+        assertThat(hired.getVersion()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void shouldBumpVersionAgainWhenHireIsReleased() {
+        Position previous = positionsRepository.claimForHire("2", "c1").block();
+
+        Position restored = positionsRepository.releaseHire(previous, "c1").block();
+
+        assertThat(restored.getStatus()).isEqualTo(Status.OPEN);
+        assertThat(restored.getVersion()).isEqualTo(previous.getVersion() + 2);
+    }
+
+    @Test
+    void shouldLetExactlyOneConcurrentHireWin() {
+        List<String> winners = Flux.range(0, 8)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(contender -> positionsRepository.claimForHire("2", "candidate-" + contender)
+                        .map(previous -> "candidate-" + contender))
+                .sequential()
+                .collectList()
+                .block();
+
+        assertThat(winners.size()).isEqualTo(1);
+        Position filled = positionsRepository.findById("2").block();
+        assertThat(filled.getStatus()).isEqualTo(Status.CLOSED);
+        assertThat(filled.getSubStatus()).isEqualTo(SubStatus.FILLED);
+        assertThat(filled.getHiredCandidateId()).isEqualTo(winners.get(0));
+    }
+
+    @Test
+    void releasedHireShouldReopenThePosition() {
+        position1.setStatus(Status.IN_PROGRESS);
+        positionsRepository.save(position1).block();
+        Position previous = positionsRepository.claimForHire("2", "candidate-1").block();
+
+        Position restored = positionsRepository.releaseHire(previous, "candidate-1").block();
+
+        assertThat(restored.getStatus()).isEqualTo(Status.IN_PROGRESS);
+        assertThat(restored.getSubStatus()).isNull();
+        assertThat(restored.getHiredCandidateId()).isNull();
+    }
 }
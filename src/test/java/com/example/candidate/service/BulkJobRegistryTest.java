@@ -0,0 +1,83 @@
+package com.example.candidate.service;
+
+import com.example.candidate.model.BulkJob;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkJobRegistryTest {
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    private BulkJobRegistry bulkJobRegistry;
+    private BulkJob job;
+
+    @BeforeEach
+    void setUp() {
+        bulkJobRegistry = new BulkJobRegistry(mongoTemplate, new CandidateBulkProperties());
+        job = new BulkJob("DELETE");
+    }
+
+    @Test
+    void cancellingShouldStopTheWorkRunningHere() {
+        PublisherProbe<Void> work = PublisherProbe.of(Mono.never());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BulkJob.class))).thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(mongoTemplate.findById(job.getId(), BulkJob.class)).thenReturn(Mono.just(job));
+
+        bulkJobRegistry.run(job.getId(), work.mono());
+        StepVerifier.create(bulkJobRegistry.cancel(job.getId()))
+                .expectNext(job)
+                .verifyComplete();
+
+        work.assertWasCancelled();
+        assertEquals(0, bulkJobRegistry.runningCount());
+    }
+
+    @Test
+    void finishedWorkShouldBeForgotten() {
+        bulkJobRegistry.run(job.getId(), Mono.empty());
+
+        assertEquals(0, bulkJobRegistry.runningCount());
+    }
+
+    @Test
+    void progressShouldReportWhetherTheJobWasCancelledElsewhere() {
+        BulkJob cancelled = new BulkJob("DELETE");
+        cancelled.complete();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(BulkJob.class)))
+                .thenReturn(Mono.just(job), Mono.just(cancelled), Mono.empty());
+
+        StepVerifier.create(bulkJobRegistry.advance(job.getId(), 10)).expectNext(true).verifyComplete();
+        StepVerifier.create(bulkJobRegistry.advance(job.getId(), 10)).expectNext(false).verifyComplete();
+        StepVerifier.create(bulkJobRegistry.advance(job.getId(), 10)).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void stoppingShouldMarkTheJobsRunningHereAsInterrupted() {
+        PublisherProbe<Void> work = PublisherProbe.of(Mono.never());
+        PublisherProbe<UpdateResult> interrupted = PublisherProbe.of(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BulkJob.class))).thenReturn(interrupted.mono());
+
+        bulkJobRegistry.run(job.getId(), work.mono());
+        bulkJobRegistry.stop();
+
+        work.assertWasCancelled();
+        interrupted.assertWasSubscribed();
+        assertEquals(0, bulkJobRegistry.runningCount());
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.candidate.service;
+
+import com.example.candidate.cache.CandidateCacheProperties;
+import com.example.candidate.cache.CandidateNearCache;
+import com.example.candidate.changes.ChangeFeedHub;
+import com.example.candidate.exception.BulkJobNotFoundException;
+import com.example.candidate.exception.PositionNotFoundException;
+import com.example.candidate.model.BulkJob;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.Position;
+import com.example.candidate.repository.BatchWriteResult;
+import com.example.candidate.repository.CandidateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.bson.Document;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateBulkServiceTest {
+    @Mock
+    private CandidateRepository candidateRepository;
+    @Mock
+    private PositionsService positionsService;
+    @Spy
+    private CandidateBulkProperties bulkProperties = new CandidateBulkProperties();
+    @Mock
+    private BulkJobRegistry bulkJobRegistry;
+    private final ChangeFeedHub changeFeedHub = mock(ChangeFeedHub.class);
+    @Spy
+    private CandidateNearCache candidateNearCache = new CandidateNearCache(
+            changeFeedHub, new CandidateCacheProperties(), new SimpleMeterRegistry());
+    @InjectMocks
+    private CandidateBulkServiceImpl candidateBulkService;
+
+    @AfterEach
+    void tearDown() {
+        candidateNearCache.stop();
+    }
+
+    private void startNearCache() {
+        when(changeFeedHub.events(null)).thenReturn(Flux.never());
+        when(changeFeedHub.isOpen()).thenReturn(true);
+        candidateNearCache.start();
+    }
+
+    private static Mono<BatchWriteResult> batch(long count, String... ids) {
+        return Mono.just(new BatchWriteResult(List.of(ids), count));
+    }
+
+    /**
+     * Registers jobs as they are and runs their work right away, on the calling thread.
+     */
+    private void runJobsInPlace() {
+        when(bulkJobRegistry.register(any(BulkJob.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        doAnswer(invocation -> invocation.<Mono<Void>>getArgument(1).block()).when(bulkJobRegistry).run(anyString(), any());
+        when(bulkJobRegistry.start(anyString(), anyLong())).thenReturn(Mono.just(true));
+        when(bulkJobRegistry.finish(anyString(), any(BulkJob.State.class), any())).thenReturn(Mono.just(true));
+    }
+
+    @Test
+    void testReassignCandidatesRunsSingleUpdate() {
+        when(candidateRepository.updateAll(any(Criteria.class), any(Update.class))).thenReturn(Mono.just(12L));
+
+        StepVerifier.create(candidateBulkService.reassignCandidates("dev-a", "dev-b", false))
+                .assertNext(job -> {
+                    assertEquals(BulkJob.State.COMPLETED, job.getState());
+                    assertEquals(12, job.getProcessed());
+                    assertEquals(12, job.getTotal());
+                })
+                .verifyComplete();
+
+        verify(candidateRepository, never()).updateBatch(any(), any(), anyInt());
+    }
+
+    @Test
+    void testReassignCandidatesToSameDeveloperDoesNothing() {
+        StepVerifier.create(candidateBulkService.reassignCandidates("dev-a", "dev-a", false))
+                .assertNext(job -> {
+                    assertEquals(BulkJob.State.COMPLETED, job.getState());
+                    assertEquals(0, job.getProcessed());
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(candidateRepository);
+    }
+
+    @Test
+    void testMoveCandidatesRequiresTargetPosition() {
+        when(positionsService.getPositionById("missing")).thenReturn(Mono.error(new PositionNotFoundException("Position with id missing not found")));
+
+        StepVerifier.create(candidateBulkService.moveCandidates("p1", "missing", false))
+                .expectError(PositionNotFoundException.class)
+                .verify();
+
+        verify(candidateRepository, never()).updateAll(any(), any());
+    }
+
+    @Test
+    void testMoveCandidatesRunsSingleUpdate() {
+        when(positionsService.getPositionById("p2")).thenReturn(Mono.just(new Position()));
+        when(candidateRepository.updateAll(any(Criteria.class), any(Update.class))).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(candidateBulkService.moveCandidates("p1", "p2", false))
+                .assertNext(job -> assertEquals(3, job.getProcessed()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testDeleteCandidatesByPositionIdRunsSingleDeleteSparingHiredCandidates() {
+        when(candidateRepository.deleteAll(any(Criteria.class))).thenReturn(Mono.just(4L));
+
+        StepVerifier.create(candidateBulkService.deleteCandidatesByPositionId("p1", false))
+                .assertNext(job -> {
+                    assertEquals("DELETE", job.getOperation());
+                    assertEquals(4, job.getProcessed());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<Criteria> filter = ArgumentCaptor.forClass(Criteria.class);
+        verify(candidateRepository).deleteAll(filter.capture());
+        assertEquals(new Document("positionId", "p1").append("isHired", false), filter.getValue().getCriteriaObject());
+    }
+
+    @Test
+    void testAsyncDeleteReportsProgressUntilNothingIsLeft() {
+        runJobsInPlace();
+        bulkProperties.setBatchSize(2);
+        when(candidateRepository.countMatching(any(Criteria.class))).thenReturn(Mono.just(5L));
+        when(candidateRepository.deleteBatch(any(Criteria.class), anyInt()))
+                .thenReturn(batch(2, "1", "2"), batch(2, "3", "4"), batch(1, "5"), Mono.just(BatchWriteResult.EMPTY));
+        when(bulkJobRegistry.advance(anyString(), anyLong())).thenReturn(Mono.just(true));
+
+        BulkJob job = candidateBulkService.deleteCandidatesByPositionId("p1", true).block();
+
+        assert job != null;
+        verify(bulkJobRegistry).start(job.getId(), 5);
+        verify(bulkJobRegistry, times(2)).advance(job.getId(), 2);
+        verify(bulkJobRegistry).advance(job.getId(), 1);
+        verify(bulkJobRegistry).finish(job.getId(), BulkJob.State.COMPLETED, null);
+        verify(candidateRepository, times(4)).deleteBatch(any(Criteria.class), anyInt());
+    }
+
+    @Test
+    void testCandidateReadRightAfterAsyncMoveSeesNewPosition() {
+        startNearCache();
+        runJobsInPlace();
+        Candidate beforeMove = Candidate.builder().id("1").positionId("p1").version(0L).build();
+        Candidate afterMove = beforeMove.toBuilder().positionId("p2").version(1L).build();
+        candidateNearCache.getById("1", () -> Mono.just(beforeMove)).block();
+        when(positionsService.getPositionById("p2")).thenReturn(Mono.just(new Position()));
+        when(candidateRepository.countMatching(any(Criteria.class))).thenReturn(Mono.just(1L));
+        when(candidateRepository.updateBatch(any(Criteria.class), any(Update.class), anyInt()))
+                .thenReturn(batch(1, "1"), Mono.just(BatchWriteResult.EMPTY));
+        when(bulkJobRegistry.advance(anyString(), anyLong())).thenReturn(Mono.just(true));
+
+        candidateBulkService.moveCandidates("p1", "p2", true).block();
+
+        StepVerifier.create(candidateNearCache.getById("1", () -> Mono.just(afterMove)))
+                .expectNext(afterMove)
+                .verifyComplete();
+    }
+
+    @Test
+    void testCandidateReadRightAfterMoveSeesNewPosition() {
+        startNearCache();
+        Candidate beforeMove = Candidate.builder().id("1").positionId("p1").version(0L).build();
+        Candidate afterMove = beforeMove.toBuilder().positionId("p2").version(1L).build();
+        candidateNearCache.getById("1", () -> Mono.just(beforeMove)).block();
+        when(positionsService.getPositionById("p2")).thenReturn(Mono.just(new Position()));
+        when(candidateRepository.updateAll(any(Criteria.class), any(Update.class))).thenReturn(Mono.just(1L));
+
+        candidateBulkService.moveCandidates("p1", "p2", false).block();
+
+        StepVerifier.create(candidateNearCache.getById("1", () -> Mono.just(afterMove)))
+                .expectNext(afterMove)
+                .verifyComplete();
+    }
+
+    @Test
+    void testAsyncJobStopsOnceCancelled() {
+        runJobsInPlace();
+        when(candidateRepository.countMatching(any(Criteria.class))).thenReturn(Mono.just(5L));
+        when(candidateRepository.updateBatch(any(Criteria.class), any(Update.class), anyInt())).thenReturn(batch(1, "1"));
+        when(bulkJobRegistry.advance(anyString(), anyLong())).thenReturn(Mono.just(true), Mono.just(false));
+
+        candidateBulkService.reassignCandidates("dev-a", "dev-b", true).block();
+
+        verify(candidateRepository, times(2)).updateBatch(any(Criteria.class), any(Update.class), anyInt());
+    }
+
+    @Test
+    void testAsyncJobRecordsFailure() {
+        runJobsInPlace();
+        when(candidateRepository.countMatching(any(Criteria.class))).thenReturn(Mono.just(5L));
+        when(candidateRepository.updateBatch(any(Criteria.class), any(Update.class), anyInt()))
+                .thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        BulkJob job = candidateBulkService.reassignCandidates("dev-a", "dev-b", true).block();
+
+        assert job != null;
+        verify(bulkJobRegistry).finish(job.getId(), BulkJob.State.FAILED, "boom");
+        verify(bulkJobRegistry, never()).finish(job.getId(), BulkJob.State.COMPLETED, null);
+    }
+
+    @Test
+    void testGetJobFailsForUnknownJob() {
+        when(bulkJobRegistry.find("missing")).thenReturn(Mono.empty());
+
+        StepVerifier.create(candidateBulkService.getJob("missing"))
+                .expectError(BulkJobNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void testCancelJobFailsForUnknownJob() {
+        when(bulkJobRegistry.cancel("missing")).thenReturn(Mono.empty());
+
+        StepVerifier.create(candidateBulkService.cancelJob("missing"))
+                .expectError(BulkJobNotFoundException.class)
+                .verify();
+    }
+}
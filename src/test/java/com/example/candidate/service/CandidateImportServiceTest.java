@@ -0,0 +1,261 @@
+package com.example.candidate.service;
+
+import com.example.candidate.cache.CandidateCacheProperties;
+import com.example.candidate.cache.CandidateNearCache;
+import com.example.candidate.changes.ChangeFeedHub;
+import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateImportResult;
+import com.example.candidate.model.CandidateImportResult.Outcome;
+import com.example.candidate.model.Position;
+import com.example.candidate.repository.BulkInsertResult;
+import com.example.candidate.repository.CandidateRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateImportServiceTest {
+    @Mock
+    private CandidateRepository candidateRepository;
+    @Mock
+    private PositionsService positionsService;
+    @Spy
+    private CandidateImportProperties importProperties = new CandidateImportProperties();
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @Spy
+    private CandidateNearCache candidateNearCache = new CandidateNearCache(
+            mock(ChangeFeedHub.class), new CandidateCacheProperties(), new SimpleMeterRegistry());
+    @InjectMocks
+    private CandidateImportServiceImpl candidateImportService;
+
+    private Position position;
+
+    @BeforeEach
+    void setUp() {
+        position = new Position();
+        position.setId("p1");
+    }
+
+    private static Candidate candidate(String email, String phoneNumber) {
+        return Candidate.builder()
+                .name("John Doe")
+                .email(email)
+                .phoneNumber(phoneNumber)
+                .cvLink("http://example.com/cv")
+                .positionId("p1")
+                .build();
+    }
+
+    private Flux<String> lines(Candidate... candidates) {
+        return Flux.just(candidates).map(candidate -> {
+            try {
+                return objectMapper.writeValueAsString(candidate);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void givenInsertSucceeds() {
+        when(candidateRepository.insertUnordered(anyList()))
+                .thenAnswer(invocation -> Mono.just(new BulkInsertResult(invocation.<List<?>>getArgument(0).size(), List.of())));
+    }
+
+    @Test
+    void testImportCandidatesCreatesEveryValidRow() {
+        when(positionsService.getPositionsByIds(anyCollection())).thenReturn(Flux.just(position));
+        when(candidateRepository.findByContactKeys(anyCollection(), anyCollection())).thenReturn(Flux.empty());
+        givenInsertSucceeds();
+
+        StepVerifier.create(candidateImportService.importCandidates(lines(
+                        candidate("a@example.com", "0712345678"),
+                        candidate("b@example.com", "0712345679"))))
+                .assertNext(result -> {
+                    assertEquals(1, result.getRow());
+                    assertEquals(Outcome.CREATED, result.getOutcome());
+                    assertNotNull(result.getCandidateId());
+                })
+                .assertNext(result -> {
+                    assertEquals(2, result.getRow());
+                    assertEquals(Outcome.CREATED, result.getOutcome());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportCandidatesRejectsInvalidAndInBatchDuplicates() {
+        when(positionsService.getPositionsByIds(anyCollection())).thenReturn(Flux.just(position));
+        when(candidateRepository.findByContactKeys(anyCollection(), anyCollection())).thenReturn(Flux.empty());
+        givenInsertSucceeds();
+
+        StepVerifier.create(candidateImportService.importCandidates(lines(
+                        candidate("not-an-email", "0712345678"),
+                        candidate("a@example.com", "0712345679"),
+                        candidate("a@example.com", "0712345670"))))
+                .assertNext(result -> assertEquals(Outcome.INVALID, result.getOutcome()))
+                .assertNext(result -> assertEquals(Outcome.CREATED, result.getOutcome()))
+                .assertNext(result -> assertEquals(Outcome.DUPLICATE, result.getOutcome()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportCandidatesComparesNormalizedContactDetails() {
+        when(positionsService.getPositionsByIds(anyCollection())).thenReturn(Flux.just(position));
+        when(candidateRepository.findByContactKeys(anyCollection(), anyCollection())).thenReturn(Flux.empty());
+        givenInsertSucceeds();
+
+        StepVerifier.create(candidateImportService.importCandidates(lines(
+                        candidate("a@example.com", "0712345678"),
+                        candidate("A@Example.com", "0712345679"),
+                        candidate("b@example.com", "0712 345 678"))))
+                .assertNext(result -> assertEquals(Outcome.CREATED, result.getOutcome()))
+                .assertNext(result -> assertEquals(Outcome.DUPLICATE, result.getOutcome()))
+                .assertNext(result -> assertEquals(Outcome.DUPLICATE, result.getOutcome()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportCandidatesRejectsExistingCandidatesAndUnknownPositions() {
+        Candidate existing = candidate("a@example.com", "0700000000");
+        Candidate unknownPosition = candidate("c@example.com", "0712345670");
+        unknownPosition.setPositionId("missing");
+        when(positionsService.getPositionsByIds(anyCollection())).thenReturn(Flux.just(position));
+        when(candidateRepository.findByContactKeys(anyCollection(), anyCollection())).thenReturn(Flux.just(existing));
+        givenInsertSucceeds();
+
+        StepVerifier.create(candidateImportService.importCandidates(lines(
+                        candidate("a@example.com", "0712345678"),
+                        candidate("b@example.com", "0712345679"),
+                        unknownPosition)))
+                .assertNext(result -> assertEquals(Outcome.DUPLICATE, result.getOutcome()))
+                .assertNext(result -> assertEquals(Outcome.CREATED, result.getOutcome()))
+                .assertNext(result -> assertEquals(Outcome.INVALID, result.getOutcome()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportCandidatesMapsBulkWriteFailuresToRows() {
+        when(positionsService.getPositionsByIds(anyCollection())).thenReturn(Flux.just(position));
+        when(candidateRepository.findByContactKeys(anyCollection(), anyCollection())).thenReturn(Flux.empty());
+        when(candidateRepository.insertUnordered(anyList())).thenReturn(Mono.just(new BulkInsertResult(1,
+                List.of(new BulkInsertResult.Failure(0, BulkInsertResult.DUPLICATE_KEY, "E11000 duplicate key")))));
+
+        StepVerifier.create(candidateImportService.importCandidates(lines(
+                        candidate("a@example.com", "0712345678"),
+                        candidate("b@example.com", "0712345679"))))
+                .assertNext(result -> assertEquals(Outcome.DUPLICATE, result.getOutcome()))
+                .assertNext(result -> assertEquals(Outcome.CREATED, result.getOutcome()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportCandidatesQueriesOncePerBatch() {
+        importProperties.setBatchSize(2);
+        when(positionsService.getPositionsByIds(anyCollection())).thenReturn(Flux.just(position));
+        when(candidateRepository.findByContactKeys(anyCollection(), anyCollection())).thenReturn(Flux.empty());
+        givenInsertSucceeds();
+
+        StepVerifier.create(candidateImportService.importCandidates(lines(
+                        candidate("a@example.com", "0712345671"),
+                        candidate("b@example.com", "0712345672"),
+                        candidate("c@example.com", "0712345673"))))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        verify(candidateRepository, times(2)).findByContactKeys(anyCollection(), anyCollection());
+        verify(candidateRepository, times(2)).insertUnordered(anyList());
+    }
+
+    @Test
+    void testImportCandidatesSkipsLookupsWhenNothingIsValid() {
+        StepVerifier.create(candidateImportService.importCandidates(lines(candidate("not-an-email", "123"))))
+                .assertNext(result -> assertEquals(Outcome.INVALID, result.getOutcome()))
+                .verifyComplete();
+
+        verify(candidateRepository, never()).findByContactKeys(anyCollection(), anyCollection());
+        verify(candidateRepository, never()).insertUnordered(any());
+    }
+
+    @Test
+    void testImportCandidatesReportsMalformedLinesAndKeepsGoing() {
+        when(positionsService.getPositionsByIds(anyCollection())).thenReturn(Flux.just(position));
+        when(candidateRepository.findByContactKeys(anyCollection(), anyCollection())).thenReturn(Flux.empty());
+        givenInsertSucceeds();
+
+        Flux<String> lines = Flux.concat(
+                lines(candidate("a@example.com", "0712345678")),
+                Flux.just("{\"name\": \"Jane", ""),
+                lines(candidate("b@example.com", "0712345679")));
+
+        StepVerifier.create(candidateImportService.importCandidates(lines))
+                .assertNext(result -> {
+                    assertEquals(1, result.getRow());
+                    assertEquals(Outcome.CREATED, result.getOutcome());
+                })
+                .assertNext(result -> {
+                    assertEquals(2, result.getRow());
+                    assertEquals(Outcome.INVALID, result.getOutcome());
+                })
+                .assertNext(result -> {
+                    assertEquals(3, result.getRow());
+                    assertEquals(Outcome.CREATED, result.getOutcome());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportCandidatesFromCsv() {
+        when(positionsService.getPositionsByIds(anyCollection())).thenReturn(Flux.just(position));
+        when(candidateRepository.findByContactKeys(anyCollection(), anyCollection())).thenReturn(Flux.empty());
+        givenInsertSucceeds();
+
+        Flux<String> lines = Flux.just(
+                "name,email,phoneNumber,cvLink,positionId,interviewDate",
+                "\"Doe, John\",a@example.com,0712345678,http://example.com/cv,p1,2024-05-01",
+                "Jane Doe,b@example.com,0712345679,http://example.com/cv,p1,not-a-date");
+
+        StepVerifier.create(candidateImportService.importCandidatesFromCsv(lines))
+                .assertNext(result -> {
+                    assertEquals(1, result.getRow());
+                    assertEquals(Outcome.CREATED, result.getOutcome());
+                })
+                .assertNext(result -> {
+                    assertEquals(2, result.getRow());
+                    assertEquals(Outcome.INVALID, result.getOutcome());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testCsvSplitHandlesQuotedFields() {
+        assertEquals(List.of("a", "b, \"c\"", ""), CandidateCsvParser.split("a,\"b, \"\"c\"\"\","));
+    }
+}
@@ -1,30 +1,71 @@
 package com.example.candidate.service;
 
+import com.example.candidate.cache.CandidateCacheProperties;
+import com.example.candidate.cache.CandidateNearCache;
+import com.example.candidate.changes.ChangeFeedHub;
 import com.example.candidate.exception.CandidateNotFoundException;
+import com.example.candidate.exception.CandidateVersionConflictException;
 import com.example.candidate.exception.DuplicateCandidateException;
+import com.example.candidate.exception.InvalidBatchLookupException;
+import com.example.candidate.exception.InvalidPageCursorException;
+import com.example.candidate.exception.InvalidPatchException;
 import com.example.candidate.exception.PositionNotFoundException;
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateSuggestion;
+import com.example.candidate.model.HiringStats;
 import com.example.candidate.model.Position;
 import com.example.candidate.model.Status;
+import com.example.candidate.pagination.PageCursor;
+import com.example.candidate.pagination.PaginationProperties;
+import com.example.candidate.projection.FieldSelection;
+import com.example.candidate.projection.Projections;
+import com.example.candidate.repository.CandidateContactKeys;
 import com.example.candidate.repository.CandidateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import org.bson.BsonDocument;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Sort;
-
-import java.util.Collections;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,13 +75,23 @@ class CandidateServiceTest {
     private CandidateRepository candidateRepository;
     @InjectMocks
     private CandidateServiceImpl candidateService;
+    @Spy
+    private BatchLookupProperties batchLookupProperties = new BatchLookupProperties();
     private Candidate candidate;
     @Mock
     private PositionsService positionsService;
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+    @Spy
+    private MergePatchTranslator mergePatchTranslator = new MergePatchTranslator(
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper().findAndRegisterModules());
+    @Spy
+    private CandidateNearCache candidateNearCache = new CandidateNearCache(
+            mock(ChangeFeedHub.class), new CandidateCacheProperties(), new SimpleMeterRegistry());
 
     @BeforeEach
     void setUp() {
-        candidate = new Candidate("1", "John Doe", "1234567890", "http://example.com/cv", "john.doe@example.com", null, null, null, "1", false);
+        candidate = new Candidate("1", "John Doe", "1234567890", "http://example.com/cv", "john.doe@example.com", null, null, null, "1", false, null);
     }
 
     @AfterEach
@@ -51,184 +102,460 @@ class CandidateServiceTest {
     @Test
     void shouldAddCandidate(){
         Position position = Position.builder().id(candidate.getPositionId()).status(Status.OPEN).name("Software Engineer").build();
-        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(position);
-        when(positionsService.getPositionsByName(position.getName())).thenReturn(Collections.singletonList(position));
-        when(candidateRepository.existsByPhoneNumber(candidate.getPhoneNumber())).thenReturn(false);
-        when(candidateRepository.existsByEmail(candidate.getEmail())).thenReturn(false);
-        when(candidateRepository.save(any(Candidate.class))).thenReturn(candidate);
+        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(Mono.just(position));
+        when(candidateRepository.insert(any(Candidate.class))).thenReturn(Mono.just(candidate));
 
-        Candidate addedCandidate = candidateService.addCandidate(candidate);
+        StepVerifier.create(candidateService.addCandidate(candidate))
+                .expectNext(candidate)
+                .verifyComplete();
 
-        assertNotNull(addedCandidate);
-        verify(candidateRepository).save(candidate);
+        verify(candidateRepository).insert(candidate);
     }
 
     @Test
-    void addCandidateShouldThrowExceptionWhenPositionNameNotFound(){
-        Position position = Position.builder().id(candidate.getPositionId()).status(Status.OPEN).name("Software Engineer").build();
-        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(position);
-        when(positionsService.getPositionsByName(position.getName())).thenReturn(Collections.emptyList());
+    void addCandidateShouldThrowExceptionWhenPositionNotFound(){
+        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(Mono.error(new PositionNotFoundException("Position with id 1 not found")));
 
-        assertThrows(PositionNotFoundException.class, () -> candidateService.addCandidate(candidate));
+        StepVerifier.create(candidateService.addCandidate(candidate))
+                .expectError(PositionNotFoundException.class)
+                .verify();
+        verify(candidateRepository, never()).insert(any(Candidate.class));
     }
 
     @Test
     void addCandidateShouldThrowExceptionWhenCandidateWithPhoneNumberAlreadyExist(){
         Position position = Position.builder().id(candidate.getPositionId()).status(Status.OPEN).name("Software Engineer").build();
-        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(position);
-        when(positionsService.getPositionsByName(position.getName())).thenReturn(Collections.singletonList(position));
-        when(candidateRepository.existsByPhoneNumber(candidate.getPhoneNumber())).thenReturn(true);
-
-        assertThrows(DuplicateCandidateException.class, () -> candidateService.addCandidate(candidate));
+        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(Mono.just(position));
+        when(candidateRepository.insert(any(Candidate.class))).thenReturn(Mono.error(duplicateKey(CandidateContactKeys.PHONE_NUMBER_INDEX)));
+
+        StepVerifier.create(candidateService.addCandidate(candidate))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(DuplicateCandidateException.class, error.getClass());
+                    assertEquals("Candidate with this phone number already exist", error.getMessage());
+                })
+                .verify();
     }
 
     @Test
     void addCandidateShouldThrowExceptionWhenCandidateWithEmailAlreadyExist(){
         Position position = Position.builder().id(candidate.getPositionId()).status(Status.OPEN).name("Software Engineer").build();
-        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(position);
-        when(positionsService.getPositionsByName(position.getName())).thenReturn(Collections.singletonList(position));
-        when(candidateRepository.existsByPhoneNumber(candidate.getPhoneNumber())).thenReturn(false);
-        when(candidateRepository.existsByEmail(candidate.getEmail())).thenReturn(true);
+        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(Mono.just(position));
+        when(candidateRepository.insert(any(Candidate.class))).thenReturn(Mono.error(duplicateKey(CandidateContactKeys.EMAIL_INDEX)));
+
+        StepVerifier.create(candidateService.addCandidate(candidate))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(DuplicateCandidateException.class, error.getClass());
+                    assertEquals("Candidate with this email already exist", error.getMessage());
+                })
+                .verify();
+    }
 
-        assertThrows(DuplicateCandidateException.class, () -> candidateService.addCandidate(candidate));
+    @Test
+    void addCandidateShouldNotGuessTheDuplicateFromTheTranslatedMessage(){
+        Position position = Position.builder().id(candidate.getPositionId()).status(Status.OPEN).name("Software Engineer").build();
+        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(Mono.just(position));
+        when(candidateRepository.insert(any(Candidate.class))).thenReturn(Mono.error(new DuplicateKeyException(
+                "Write operation error on server; index: " + CandidateContactKeys.EMAIL_INDEX)));
+
+        StepVerifier.create(candidateService.addCandidate(candidate))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(DuplicateCandidateException.class, error.getClass());
+                    assertEquals("Candidate already exist", error.getMessage());
+                })
+                .verify();
     }
 
     @Test
     void shouldGetAllCandidates(){
-        when(candidateRepository.findAll(any(Sort.class))).thenReturn(Collections.singletonList(candidate));
+        when(candidateRepository.findAll(any(Sort.class))).thenReturn(Flux.just(candidate));
 
-        List<Candidate> candidates = candidateService.getAllCandidates();
-        assertFalse(candidates.isEmpty());
-        assertNotNull(candidates);
+        StepVerifier.create(candidateService.getAllCandidates())
+                .expectNext(candidate)
+                .verifyComplete();
 
         verify(candidateRepository).findAll(any(Sort.class));
     }
 
+    @Test
+    void shouldStreamAllCandidates(){
+        when(candidateRepository.streamAllBy(any(Sort.class))).thenReturn(Flux.just(candidate));
+
+        StepVerifier.create(candidateService.streamAllCandidates())
+                .expectNext(candidate)
+                .verifyComplete();
+
+        verify(candidateRepository).streamAllBy(any(Sort.class));
+    }
+
     @Test
     void shouldGetCandidateById(){
-        when(candidateRepository.findById(candidate.getId())).thenReturn(Optional.ofNullable(candidate));
+        when(candidateRepository.findById(candidate.getId())).thenReturn(Mono.just(candidate));
 
-        Candidate foundCandidate = candidateService.getCandidateById(candidate.getId());
-        assertNotNull(foundCandidate);
+        StepVerifier.create(candidateService.getCandidateById(candidate.getId()))
+                .expectNext(candidate)
+                .verifyComplete();
 
         verify(candidateRepository).findById(candidate.getId());
     }
 
     @Test
     void getCandidateByIdShouldThrowExceptionWhenCandidateNotFound() {
-        when(candidateRepository.findById(candidate.getId())).thenReturn(Optional.empty());
+        when(candidateRepository.findById(candidate.getId())).thenReturn(Mono.empty());
 
-        assertThrows(CandidateNotFoundException.class, () -> candidateService.getCandidateById(candidate.getId()));
+        StepVerifier.create(candidateService.getCandidateById(candidate.getId()))
+                .expectError(CandidateNotFoundException.class)
+                .verify();
     }
 
     @Test
     void shouldUpdateCandidate(){
-        when(candidateRepository.findById(candidate.getId())).thenReturn(Optional.ofNullable(candidate));
-        when(candidateRepository.save(candidate)).thenReturn(candidate);
+        when(candidateRepository.updateIfVersion(eq(candidate.getId()), isNull(), any(Update.class))).thenReturn(Mono.just(candidate));
 
-        Candidate updatedCandidate = candidateService.updateCandidate(candidate.getId(), candidate);
-        assertNotNull(updatedCandidate);
+        StepVerifier.create(candidateService.updateCandidate(candidate.getId(), candidate, null))
+                .expectNext(candidate)
+                .verifyComplete();
 
-        verify(candidateRepository).save(candidate);
+        verify(candidateRepository, never()).findById(anyString());
+        verify(candidateRepository, never()).save(any(Candidate.class));
+    }
+
+    @Test
+    void updateCandidateShouldWriteNormalizedContactKeysAndBumpVersion(){
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(candidateRepository.updateIfVersion(eq(candidate.getId()), eq(3L), update.capture())).thenReturn(Mono.just(candidate));
+
+        StepVerifier.create(candidateService.updateCandidate(candidate.getId(), candidate, 3L))
+                .expectNext(candidate)
+                .verifyComplete();
+
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("john.doe@example.com", set.get(CandidateContactKeys.EMAIL));
+        assertEquals(1, update.getValue().getUpdateObject().get("$inc", Document.class).get("version"));
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("interviewDate"));
     }
 
     @Test
     void updateCandidateShouldThrowExceptionWhenCandidateNotFound(){
-        when(candidateRepository.findById(candidate.getId())).thenReturn(Optional.empty());
+        when(candidateRepository.updateIfVersion(eq(candidate.getId()), isNull(), any(Update.class))).thenReturn(Mono.empty());
+        when(candidateRepository.existsById(candidate.getId())).thenReturn(Mono.just(false));
+
+        StepVerifier.create(candidateService.updateCandidate(candidate.getId(), candidate, null))
+                .expectError(CandidateNotFoundException.class)
+                .verify();
+    }
 
-        assertThrows(RuntimeException.class, () -> candidateService.updateCandidate(candidate.getId(), candidate));
+    @Test
+    void updateCandidateShouldThrowVersionConflictWhenVersionChanged(){
+        when(candidateRepository.updateIfVersion(eq(candidate.getId()), eq(2L), any(Update.class))).thenReturn(Mono.empty());
+        when(candidateRepository.existsById(candidate.getId())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(candidateService.updateCandidate(candidate.getId(), candidate, 2L))
+                .expectError(CandidateVersionConflictException.class)
+                .verify();
+    }
+
+    @Test
+    void patchCandidateShouldSetAndUnsetOnlyPatchedFields(){
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("email", "Jane.Doe@Example.com");
+        patch.put("interviewDate", "2024-05-01");
+        patch.put("documentId", null);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(candidateRepository.updateIfVersion(eq(candidate.getId()), eq(4L), update.capture())).thenReturn(Mono.just(candidate));
+
+        StepVerifier.create(candidateService.patchCandidate(candidate.getId(), patch, 4L))
+                .expectNext(candidate)
+                .verifyComplete();
+
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(Set.of("email", CandidateContactKeys.EMAIL, "interviewDate"), set.keySet());
+        assertEquals("jane.doe@example.com", set.get(CandidateContactKeys.EMAIL));
+        assertEquals(LocalDate.of(2024, 5, 1), set.get("interviewDate"));
+        assertEquals(Set.of("documentId"), update.getValue().getUpdateObject().get("$unset", Document.class).keySet());
+        assertEquals(1, update.getValue().getUpdateObject().get("$inc", Document.class).get("version"));
+        verify(candidateRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void patchCandidateShouldRejectFieldsThatCannotBePatched(){
+        StepVerifier.create(candidateService.patchCandidate(candidate.getId(), Map.of("isHired", true), null))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(InvalidPatchException.class, error.getClass());
+                    assertEquals("Field isHired cannot be patched", error.getMessage());
+                })
+                .verify();
+        verify(candidateRepository, never()).updateIfVersion(anyString(), any(), any(Update.class));
+    }
+
+    @Test
+    void patchCandidateShouldValidateOnlyPatchedFields(){
+        StepVerifier.create(candidateService.patchCandidate(candidate.getId(), Map.of("email", "not-an-email"), null))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(InvalidPatchException.class, error.getClass());
+                    assertEquals("Please provide a valid email address", error.getMessage());
+                })
+                .verify();
+        verify(candidateRepository, never()).updateIfVersion(anyString(), any(), any(Update.class));
+    }
+
+    @Test
+    void patchCandidateShouldReturnCurrentCandidateForEmptyPatch(){
+        when(candidateRepository.findById(candidate.getId())).thenReturn(Mono.just(candidate));
+
+        StepVerifier.create(candidateService.patchCandidate(candidate.getId(), Map.of(), null))
+                .expectNext(candidate)
+                .verifyComplete();
+        verify(candidateRepository, never()).updateIfVersion(anyString(), any(), any(Update.class));
+    }
+
+    @Test
+    void patchCandidateShouldThrowVersionConflictWhenVersionChanged(){
+        when(candidateRepository.updateIfVersion(eq(candidate.getId()), eq(2L), any(Update.class))).thenReturn(Mono.empty());
+        when(candidateRepository.existsById(candidate.getId())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(candidateService.patchCandidate(candidate.getId(), Map.of("name", "Jane Doe"), 2L))
+                .expectError(CandidateVersionConflictException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldReadOnlySelectedFieldsOfAllCandidates(){
+        FieldSelection<Candidate> fields = Projections.CANDIDATE.select("id,name");
+        when(candidateRepository.findSelected(null, Sort.by(Sort.Direction.ASC, "name"), fields)).thenReturn(Flux.just(candidate));
+
+        StepVerifier.create(candidateService.getAllCandidates(fields))
+                .expectNext(candidate)
+                .verifyComplete();
+        verify(candidateRepository, never()).findAll(any(Sort.class));
+    }
+
+    @Test
+    void shouldPageSelectedFields(){
+        FieldSelection<Candidate> fields = Projections.CANDIDATE.select("positionId");
+        when(candidateRepository.findPage(isNull(), isNull(), eq(51), eq(fields))).thenReturn(Flux.just(candidate));
+
+        StepVerifier.create(candidateService.getCandidatesPage(null, null, fields))
+                .expectNextMatches(page -> page.getContent().equals(List.of(candidate)) && page.getNextCursor() == null)
+                .verifyComplete();
     }
 
     @Test
     void shouldGetCandidateByName(){
-        when(candidateRepository.findByNameIgnoreCase(candidate.getName())).thenReturn(Collections.singletonList(candidate));
+        when(candidateRepository.findByName(candidate.getName())).thenReturn(Flux.just(candidate));
+
+        StepVerifier.create(candidateService.getCandidateByName(candidate.getName()))
+                .expectNext(candidate)
+                .verifyComplete();
+
+        verify(candidateRepository).findByName(candidate.getName());
+    }
+
+    @Test
+    void shouldSuggestCandidateNamesWithBoundedLimit(){
+        CandidateSuggestion suggestion = new CandidateSuggestion(candidate.getId(), candidate.getName());
+        when(candidateRepository.findNameSuggestions("Jo", 50)).thenReturn(Flux.just(suggestion));
+
+        StepVerifier.create(candidateService.suggestCandidateNames(" Jo ", 1000))
+                .expectNext(suggestion)
+                .verifyComplete();
 
-        List<Candidate> candidates = candidateService.getCandidateByName(candidate.getName());
-        assertFalse(candidates.isEmpty());
-        assertNotNull(candidates);
+        verify(candidateRepository).findNameSuggestions("Jo", 50);
+    }
+
+    @Test
+    void suggestCandidateNamesShouldNotQueryForBlankPrefix(){
+        StepVerifier.create(candidateService.suggestCandidateNames(" ", 10))
+                .verifyComplete();
 
-        verify(candidateRepository).findByNameIgnoreCase(candidate.getName());
+        verify(candidateRepository, never()).findNameSuggestions(anyString(), anyInt());
     }
 
     @Test
     void shouldFindCandidatesByAssignedTo(){
-        when(candidateRepository.findCandidatesByAssignedTo(candidate.getAssignedTo())).thenReturn(Collections.singletonList(candidate));
+        when(candidateRepository.findCandidatesByAssignedTo(candidate.getAssignedTo())).thenReturn(Flux.just(candidate));
 
-        List<Candidate> candidates = candidateService.findCandidatesByAssignedTo(candidate.getAssignedTo());
-        assertFalse(candidates.isEmpty());
-        assertNotNull(candidates);
+        StepVerifier.create(candidateService.findCandidatesByAssignedTo(candidate.getAssignedTo()))
+                .expectNext(candidate)
+                .verifyComplete();
 
         verify(candidateRepository).findCandidatesByAssignedTo(candidate.getAssignedTo());
     }
 
     @Test
     void findCandidatesByAssignedToShouldThrowExceptionWhenNoCandidatesFound(){
-        when(candidateRepository.findCandidatesByAssignedTo(candidate.getAssignedTo())).thenReturn(Collections.emptyList());
+        when(candidateRepository.findCandidatesByAssignedTo(candidate.getAssignedTo())).thenReturn(Flux.empty());
 
-        assertThrows(CandidateNotFoundException.class, () -> candidateService.findCandidatesByAssignedTo(candidate.getAssignedTo()));
+        StepVerifier.create(candidateService.findCandidatesByAssignedTo(candidate.getAssignedTo()))
+                .expectError(CandidateNotFoundException.class)
+                .verify();
     }
 
     @Test
     void shouldDeleteCandidate(){
-        when(candidateRepository.existsById(candidate.getId())).thenReturn(true);
+        when(candidateRepository.existsById(candidate.getId())).thenReturn(Mono.just(true));
+        when(candidateRepository.deleteById(candidate.getId())).thenReturn(Mono.empty());
 
-        candidateService.deleteCandidate(candidate.getId());
+        StepVerifier.create(candidateService.deleteCandidate(candidate.getId()))
+                .verifyComplete();
 
         verify(candidateRepository).deleteById(candidate.getId());
     }
 
     @Test
     void deleteCandidateShouldThrowExceptionWhenCandidateNotFound(){
-        when(candidateRepository.existsById(candidate.getId())).thenReturn(false);
+        when(candidateRepository.existsById(candidate.getId())).thenReturn(Mono.just(false));
 
-        assertThrows(CandidateNotFoundException.class, () -> candidateService.deleteCandidate(candidate.getId()));
+        StepVerifier.create(candidateService.deleteCandidate(candidate.getId()))
+                .expectError(CandidateNotFoundException.class)
+                .verify();
+        verify(candidateRepository, never()).deleteById(anyString());
     }
 
     @Test
     void shouldGetCandidatesByPositionId(){
-        when(candidateRepository.findCandidatesByPositionId(candidate.getPositionId())).thenReturn(Collections.singletonList(candidate));
+        when(candidateRepository.findCandidatesByPositionId(candidate.getPositionId())).thenReturn(Flux.just(candidate));
 
-        List<Candidate> candidates = candidateService.getCandidatesByPositionId(candidate.getPositionId());
-        assertFalse(candidates.isEmpty());
-        assertNotNull(candidates);
+        StepVerifier.create(candidateService.getCandidatesByPositionId(candidate.getPositionId()))
+                .expectNext(candidate)
+                .verifyComplete();
 
         verify(candidateRepository).findCandidatesByPositionId(candidate.getPositionId());
     }
 
     @Test
     void shouldFindCandidateByDocumentId(){
-        when(candidateRepository.findCandidateByDocumentId(candidate.getDocumentId())).thenReturn(candidate);
+        when(candidateRepository.findCandidateByDocumentId(candidate.getDocumentId())).thenReturn(Mono.just(candidate));
 
-        Candidate foundCandidate = candidateService.findCandidateByDocumentId(candidate.getDocumentId());
-        assertNotNull(foundCandidate);
+        StepVerifier.create(candidateService.findCandidateByDocumentId(candidate.getDocumentId()))
+                .expectNext(candidate)
+                .verifyComplete();
 
         verify(candidateRepository).findCandidateByDocumentId(candidate.getDocumentId());
     }
 
     @Test
     void shouldHireCandidate(){
-        Position position = Position.builder().id(candidate.getPositionId()).status(Status.OPEN).name("Software Engineer").build();
-        when(candidateRepository.findById(candidate.getId())).thenReturn(Optional.ofNullable(candidate));
-        when(positionsService.getPositionById(candidate.getPositionId())).thenReturn(position);
-        when(candidateRepository.save(candidate)).thenReturn(candidate);
+        when(positionsService.fillPosition(candidate.getPositionId(), candidate.getId())).thenReturn(Mono.empty());
 
-        candidateService.hireCandidate(candidate.getId(), candidate.getPositionId());
+        StepVerifier.create(candidateService.hireCandidate(candidate.getId(), candidate.getPositionId()))
+                .verifyComplete();
 
-        verify(candidateRepository).save(candidate);
+        verify(positionsService).fillPosition(candidate.getPositionId(), candidate.getId());
+        verify(candidateRepository, never()).save(any(Candidate.class));
     }
 
     @Test
     void hireCandidateShouldThrowExceptionWhenCandidateNotFound(){
-        when(candidateRepository.findById(candidate.getId())).thenReturn(Optional.empty());
+        when(positionsService.fillPosition(candidate.getPositionId(), candidate.getId()))
+                .thenReturn(Mono.error(new CandidateNotFoundException("not found")));
 
-        assertThrows(CandidateNotFoundException.class, () -> candidateService.hireCandidate(candidate.getId(), candidate.getPositionId()));
+        StepVerifier.create(candidateService.hireCandidate(candidate.getId(), candidate.getPositionId()))
+                .expectError(CandidateNotFoundException.class)
+                .verify();
     }
 
     @Test
     void hireCandidateShouldThrowExceptionWhenPositionNotFound(){
-        when(candidateRepository.findById(candidate.getId())).thenReturn(Optional.ofNullable(candidate));
-        when(positionsService.getPositionById(candidate.getPositionId())).thenThrow(PositionNotFoundException.class);
+        when(positionsService.fillPosition(candidate.getPositionId(), candidate.getId()))
+                .thenReturn(Mono.error(new PositionNotFoundException("not found")));
+
+        StepVerifier.create(candidateService.hireCandidate(candidate.getId(), candidate.getPositionId()))
+                .expectError(PositionNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldLookUpCandidatesByIdsInRequestOrder(){
+        Candidate other = new Candidate("2", "Jane Doe", "1234567891", "http://example.com/cv", "jane.doe@example.com", null, null, null, null, false, null);
+        when(candidateRepository.findAllById(Set.of("2", "missing", candidate.getId()))).thenReturn(Flux.just(candidate, other));
+
+        StepVerifier.create(candidateService.lookupCandidates(new BatchLookupRequest(List.of("2", "missing", candidate.getId(), "2"), null)))
+                .expectNext(List.of(
+                        BatchLookupResult.found("2", other),
+                        BatchLookupResult.notFound("missing"),
+                        BatchLookupResult.found(candidate.getId(), candidate),
+                        BatchLookupResult.found("2", other)))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldLookUpCandidatesByDocumentIds(){
+        candidate.setDocumentId("doc1");
+        when(candidateRepository.findCandidatesByDocumentIdIn(Set.of("doc1", "doc2"))).thenReturn(Flux.just(candidate));
+
+        StepVerifier.create(candidateService.lookupCandidates(new BatchLookupRequest(null, List.of("doc2", "doc1"))))
+                .expectNext(List.of(BatchLookupResult.notFound("doc2"), BatchLookupResult.found("doc1", candidate)))
+                .verifyComplete();
+    }
+
+    @Test
+    void lookupCandidatesShouldRejectBothKindsOfKeys(){
+        StepVerifier.create(candidateService.lookupCandidates(new BatchLookupRequest(List.of("1"), List.of("doc1"))))
+                .expectError(InvalidBatchLookupException.class)
+                .verify();
+    }
+
+    @Test
+    void lookupCandidatesShouldRejectTooManyKeys(){
+        List<String> ids = IntStream.rangeClosed(0, new BatchLookupProperties().getMaxKeys()).mapToObj(String::valueOf).toList();
+
+        StepVerifier.create(candidateService.lookupCandidates(new BatchLookupRequest(ids, null)))
+                .expectError(InvalidBatchLookupException.class)
+                .verify();
+
+        verify(candidateRepository, never()).findAllById(any(Iterable.class));
+    }
+
+    @Test
+    void shouldGetHiringStatsForInterviewDateRange(){
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        HiringStats stats = new HiringStats(3, 1, 2, Map.of("1", 3L), Map.of("dev", 2L),
+                List.of(new HiringStats.PositionStatusCount(Status.OPEN, null, 4)));
+        when(candidateRepository.aggregateHiringStats(from, to)).thenReturn(Mono.just(stats));
+
+        StepVerifier.create(candidateService.getHiringStats(from, to))
+                .expectNext(stats)
+                .verifyComplete();
+
+        verify(candidateRepository, never()).findCandidatesByPositionId(anyString());
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenMoreCandidatesExist(){
+        Candidate next = new Candidate("2", "Jane Doe", "1234567891", "http://example.com/cv", "jane.doe@example.com", null, null, null, "1", false, null);
+        when(candidateRepository.findPage(isNull(), isNull(), eq(2))).thenReturn(Flux.just(candidate, next));
+
+        StepVerifier.create(candidateService.getCandidatesPage(null, 1))
+                .assertNext(page -> {
+                    assertEquals(1, page.getContent().size());
+                    assertEquals(new PageCursor(candidate.getName(), candidate.getId()), PageCursor.decode(page.getNextCursor()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReturnLastPageWithoutCursor(){
+        PageCursor after = new PageCursor("Adam", "0");
+        when(candidateRepository.findPage(any(Criteria.class), eq(after), eq(51))).thenReturn(Flux.just(candidate));
+
+        StepVerifier.create(candidateService.getCandidatesPageByPositionId(candidate.getPositionId(), after.encode(), null))
+                .assertNext(page -> {
+                    assertEquals(1, page.getContent().size());
+                    assertNull(page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getCandidatesPageShouldThrowExceptionWhenCursorIsInvalid(){
+        StepVerifier.create(candidateService.getCandidatesPageByAssignedTo("1", "not-a-cursor", 10))
+                .expectError(InvalidPageCursorException.class)
+                .verify();
+    }
 
-        assertThrows(PositionNotFoundException.class, () -> candidateService.hireCandidate(candidate.getId(), candidate.getPositionId()));
+    private static DuplicateKeyException duplicateKey(String index) {
+        String message = "E11000 duplicate key error collection: test.candidates index: " + index + " dup key: { : \"x\" }";
+        return new DuplicateKeyException("Write operation error on server", new MongoWriteException(new WriteError(11000, message, new BsonDocument()), new ServerAddress()));
     }
 }
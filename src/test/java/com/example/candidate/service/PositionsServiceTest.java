@@ -1,34 +1,60 @@
 package com.example.candidate.service;
 
+import com.example.candidate.cache.CandidateCacheProperties;
+import com.example.candidate.cache.CandidateNearCache;
+import com.example.candidate.cache.PositionsReplica;
+import com.example.candidate.changes.ChangeFeedHub;
 import com.example.candidate.exception.*;
+import com.example.candidate.model.BatchLookupRequest;
+import com.example.candidate.model.BatchLookupResult;
 import com.example.candidate.model.Candidate;
+import com.example.candidate.model.CandidateSummary;
 import com.example.candidate.model.Position;
+import com.example.candidate.model.PositionWithCandidates;
 import com.example.candidate.model.Status;
 import com.example.candidate.model.SubStatus;
+import com.example.candidate.pagination.PaginationProperties;
 import com.example.candidate.repository.CandidateRepository;
 import com.example.candidate.repository.PositionsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class PositionsServiceTest {
@@ -36,6 +62,19 @@ class PositionsServiceTest {
     private PositionsRepository positionsRepository;
     @Mock
     private CandidateRepository candidateRepository;
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+    @Spy
+    private PositionsReplica positionsReplica = new PositionsReplica();
+    @Spy
+    private MergePatchTranslator mergePatchTranslator = new MergePatchTranslator(
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper().findAndRegisterModules());
+    @Spy
+    private BatchLookupProperties batchLookupProperties = new BatchLookupProperties();
+    private final ChangeFeedHub changeFeedHub = mock(ChangeFeedHub.class);
+    @Spy
+    private CandidateNearCache candidateNearCache = new CandidateNearCache(
+            changeFeedHub, new CandidateCacheProperties(), new SimpleMeterRegistry());
     @InjectMocks
     private PositionsServiceImpl positionsService;
     private Position position;
@@ -44,244 +83,623 @@ class PositionsServiceTest {
 
     @BeforeEach
     void setUp() {
-        position = new Position("1", "Project Manager", Status.OPEN, null, null);
-        closedPosition = new Position("1", "Developer", Status.CLOSED, SubStatus.CANCELLED, null);
+        position = new Position("1", "Project Manager", Status.OPEN, null, null, null);
+        closedPosition = new Position("1", "Developer", Status.CLOSED, SubStatus.CANCELLED, null, null);
     }
 
     @AfterEach
     void tearDown() {
+        candidateNearCache.stop();
         position = null;
         closedPosition = null;
     }
 
     @Test
     void shouldGetAllPositions(){
-        when(positionsRepository.findAll()).thenReturn(Collections.singletonList(position));
+        when(positionsRepository.findAll()).thenReturn(Flux.just(position));
 
-        List<Position> positions = positionsService.getAllPositions();
-        assertFalse(positions.isEmpty());
-        assertNotNull(positions);
+        StepVerifier.create(positionsService.getAllPositions())
+                .expectNext(position)
+                .verifyComplete();
 
         verify(positionsRepository).findAll();
     }
 
+    @Test
+    void shouldGetPositionWithCandidates() {
+        PositionWithCandidates withCandidates = new PositionWithCandidates(position, 3,
+                List.of(new CandidateSummary("c1", "Ann", null, null, false)));
+        when(positionsRepository.findWithCandidates(any(Criteria.class), eq(1), eq(2))).thenReturn(Flux.just(withCandidates));
+
+        StepVerifier.create(positionsService.getPositionWithCandidates(position.getId(), 2))
+                .expectNext(withCandidates)
+                .verifyComplete();
+    }
+
+    @Test
+    void getPositionWithCandidatesShouldThrowWhenPositionNotFound() {
+        when(positionsRepository.findWithCandidates(any(Criteria.class), eq(1), anyInt())).thenReturn(Flux.empty());
+
+        StepVerifier.create(positionsService.getPositionWithCandidates("missing", null))
+                .expectError(PositionNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldCapCandidatesEmbeddedInPositions() {
+        when(positionsRepository.findWithCandidates(any(Criteria.class), anyInt(), anyInt())).thenReturn(Flux.empty());
+
+        StepVerifier.create(positionsService.getPositionsWithCandidates(Status.OPEN, 10, 100_000))
+                .verifyComplete();
+
+        verify(positionsRepository).findWithCandidates(Criteria.where("status").is(Status.OPEN), 10, paginationProperties.getMaxPageSize());
+    }
+
+    @Test
+    void shouldLookUpPositionsInRequestOrder() {
+        Position other = new Position("2", "Developer", Status.OPEN, null, null, null);
+        when(positionsRepository.findAllById(Set.of("1", "2", "3"))).thenReturn(Flux.just(other, position));
+
+        StepVerifier.create(positionsService.lookupPositions(new BatchLookupRequest(List.of("3", "1", "2"), null)))
+                .expectNext(List.of(BatchLookupResult.notFound("3"), BatchLookupResult.found("1", position), BatchLookupResult.found("2", other)))
+                .verifyComplete();
+    }
+
+    @Test
+    void lookupPositionsShouldRejectDocumentIds() {
+        StepVerifier.create(positionsService.lookupPositions(new BatchLookupRequest(null, List.of("doc"))))
+                .expectError(InvalidBatchLookupException.class)
+                .verify();
+
+        verifyNoInteractions(positionsRepository);
+    }
+
     @Test
     void shouldGetPositionById() {
-        when(positionsRepository.findById(position.getId())).thenReturn(java.util.Optional.of(position));
+        when(positionsRepository.findById(position.getId())).thenReturn(Mono.just(position));
 
-        Position positionById = positionsService.getPositionById(position.getId());
+        StepVerifier.create(positionsService.getPositionById(position.getId()))
+                .expectNext(position)
+                .verifyComplete();
 
-        assertNotNull(positionById);
         verify(positionsRepository).findById(position.getId());
     }
 
     @Test
     void getPositionByIdShouldThrowExceptionWhenPositionNotFound(){
-        when(positionsRepository.findById(position.getId())).thenReturn(Optional.empty());
+        when(positionsRepository.findById(position.getId())).thenReturn(Mono.empty());
 
-        assertThrows(PositionNotFoundException.class, () -> positionsService.getPositionById(position.getId()));
+        StepVerifier.create(positionsService.getPositionById(position.getId()))
+                .expectError(PositionNotFoundException.class)
+                .verify();
     }
 
     @Test
     void shouldGetPositionsByName(){
-        when(positionsRepository.findPositionsByName(position.getName())).thenReturn(Collections.singletonList(position));
+        when(positionsRepository.findPositionsByName(position.getName())).thenReturn(Flux.just(position));
 
-        List<Position> positionsByName = positionsService.getPositionsByName(position.getName());
-        assertFalse(positionsByName.isEmpty());
-        assertNotNull(positionsByName);
+        StepVerifier.create(positionsService.getPositionsByName(position.getName()))
+                .expectNext(position)
+                .verifyComplete();
 
         verify(positionsRepository).findPositionsByName(position.getName());
     }
 
     @Test
     void shouldAddPositionWhenNotExisting() {
-        when(positionsRepository.findPositionsByName("Developer")).thenReturn(Collections.emptyList());
-        when(positionsRepository.save(any(Position.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(positionsRepository.findPositionsByName("Developer")).thenReturn(Flux.empty());
+        when(positionsRepository.save(any(Position.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
-        Position newPosition = new Position("1", "Developer", Status.OPEN, null, null);
-        Position savedPosition = positionsService.addPosition(newPosition);
+        Position newPosition = new Position("1", "Developer", Status.OPEN, null, null, null);
 
-        assertNotNull(savedPosition);
-        assertEquals(Status.OPEN, savedPosition.getStatus());
-        assertNull(savedPosition.getSubStatus());
+        StepVerifier.create(positionsService.addPosition(newPosition))
+                .assertNext(savedPosition -> {
+                    assertEquals(Status.OPEN, savedPosition.getStatus());
+                    assertNull(savedPosition.getSubStatus());
+                })
+                .verifyComplete();
         verify(positionsRepository).save(newPosition);
     }
 
     @Test
     void shouldThrowExceptionWhenPositionExistsAndNotClosed() {
-        when(positionsRepository.findPositionsByName("Developer")).thenReturn(Collections.singletonList(position));
+        when(positionsRepository.findPositionsByName("Developer")).thenReturn(Flux.just(position));
 
-        Position newPosition = new Position("1", "Developer", Status.OPEN, null, null);
-        assertThrows(PositionAlreadyExistsException.class, () -> positionsService.addPosition(newPosition));
+        Position newPosition = new Position("1", "Developer", Status.OPEN, null, null, null);
+        StepVerifier.create(positionsService.addPosition(newPosition))
+                .expectError(PositionAlreadyExistsException.class)
+                .verify();
 
         verify(positionsRepository, never()).save(newPosition);
     }
 
     @Test
     void shouldAddPositionWhenExistingPositionIsClosed() {
-        when(positionsRepository.findPositionsByName("Developer")).thenReturn(Collections.singletonList(closedPosition));
-        when(positionsRepository.save(any(Position.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(positionsRepository.findPositionsByName("Developer")).thenReturn(Flux.just(closedPosition));
+        when(positionsRepository.save(any(Position.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
-        Position newPosition = new Position("1", "Developer", Status.OPEN, null, null);
-        Position savedPosition = positionsService.addPosition(newPosition);
+        Position newPosition = new Position("1", "Developer", Status.OPEN, null, null, null);
 
-        assertNotNull(savedPosition);
-        assertEquals(Status.OPEN, savedPosition.getStatus());
-        assertNull(savedPosition.getSubStatus());
+        StepVerifier.create(positionsService.addPosition(newPosition))
+                .assertNext(savedPosition -> {
+                    assertEquals(Status.OPEN, savedPosition.getStatus());
+                    assertNull(savedPosition.getSubStatus());
+                })
+                .verifyComplete();
         verify(positionsRepository).save(newPosition);
     }
 
     @Test
     void shouldUpdatePosition(){
-        Position updatedPosition = new Position("1", "Software Developer", Status.CLOSED, SubStatus.CANCELLED, null);
-        when(positionsRepository.findById(position.getId())).thenReturn(Optional.of(position));
-        when(positionsRepository.save(position)).thenReturn(updatedPosition);
-
-        Position positionToUpdate = positionsService.updatePosition(position.getId(), updatedPosition);
-        assertNotNull(positionToUpdate);
-
-        verify(positionsRepository).save(position);
+        Position updatedPosition = new Position("1", "Software Developer", Status.CLOSED, SubStatus.CANCELLED, null, null);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(positionsRepository.updateIfVersion(eq(position.getId()), eq(4L), update.capture())).thenReturn(Mono.just(updatedPosition));
+
+        StepVerifier.create(positionsService.updatePosition(position.getId(), updatedPosition, 4L))
+                .expectNext(updatedPosition)
+                .verifyComplete();
+
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(SubStatus.CANCELLED, set.get("subStatus"));
+        verify(positionsRepository, never()).findById(anyString());
+        verify(positionsRepository, never()).save(any(Position.class));
     }
 
     @Test
     void updatePositionShouldThrowExceptionWhenPositionNotFound(){
-        Position updatedPosition = new Position("1", "Software Developer", Status.OPEN, null, null);
-        when(positionsRepository.findById(position.getId())).thenReturn(Optional.empty());
+        Position updatedPosition = new Position("1", "Software Developer", Status.OPEN, null, null, null);
+        when(positionsRepository.updateIfVersion(eq(position.getId()), isNull(), any(Update.class))).thenReturn(Mono.empty());
+        when(positionsRepository.existsById(position.getId())).thenReturn(Mono.just(false));
 
-        assertThrows(PositionNotFoundException.class, () -> positionsService.updatePosition(position.getId(), updatedPosition));
+        StepVerifier.create(positionsService.updatePosition(position.getId(), updatedPosition, null))
+                .expectError(PositionNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void updatePositionShouldThrowVersionConflictWhenVersionChanged(){
+        Position updatedPosition = new Position("1", "Software Developer", Status.OPEN, null, null, null);
+        when(positionsRepository.updateIfVersion(eq(position.getId()), eq(1L), any(Update.class))).thenReturn(Mono.empty());
+        when(positionsRepository.existsById(position.getId())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(positionsService.updatePosition(position.getId(), updatedPosition, 1L))
+                .expectError(PositionVersionConflictException.class)
+                .verify();
     }
 
     @Test
     void shouldGetPositionsByStatus(){
-        when(positionsRepository.findPositionsByStatus(Status.OPEN)).thenReturn(Collections.singletonList(position));
+        when(positionsRepository.findPositionsByStatus(Status.OPEN)).thenReturn(Flux.just(position));
 
-        List<Position> positionsByStatus = positionsService.getPositionsByStatus(Status.OPEN);
-        assertFalse(positionsByStatus.isEmpty());
-        assertNotNull(positionsByStatus);
+        StepVerifier.create(positionsService.getPositionsByStatus(Status.OPEN))
+                .expectNext(position)
+                .verifyComplete();
 
         verify(positionsRepository).findPositionsByStatus(Status.OPEN);
     }
 
     @Test
     void shouldGetPositionsByStatusAndSubStatus(){
-        when(positionsRepository.findPositionsByStatusAndSubStatus(Status.OPEN, SubStatus.CANCELLED)).thenReturn(Collections.singletonList(position));
+        when(positionsRepository.findPositionsByStatusAndSubStatus(Status.OPEN, SubStatus.CANCELLED)).thenReturn(Flux.just(position));
 
-        List<Position> positionsByStatusAndSubStatus = positionsService.getPositionsByStatusAndSubStatus(Status.OPEN, SubStatus.CANCELLED);
-        assertFalse(positionsByStatusAndSubStatus.isEmpty());
-        assertNotNull(positionsByStatusAndSubStatus);
+        StepVerifier.create(positionsService.getPositionsByStatusAndSubStatus(Status.OPEN, SubStatus.CANCELLED))
+                .expectNext(position)
+                .verifyComplete();
 
         verify(positionsRepository).findPositionsByStatusAndSubStatus(Status.OPEN, SubStatus.CANCELLED);
     }
 
     @Test
     void cancelPositionShouldThrowNotFoundException() {
-        when(positionsRepository.findById("1")).thenReturn(Optional.empty());
-        assertThrows(PositionNotFoundException.class,
-                () -> positionsService.cancelPosition("1"));
+        when(positionsRepository.findById("1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(positionsService.cancelPosition("1", null))
+                .expectError(PositionNotFoundException.class)
+                .verify();
     }
 
     @Test
     void cancelPositionShouldThrowAlreadyDeactivatedException() {
-        when(positionsRepository.findById("1")).thenReturn(Optional.of(closedPosition));
-        assertThrows(PositionAlreadyDeactivatedException.class,
-                () -> positionsService.cancelPosition("1"));
+        when(positionsRepository.findById("1")).thenReturn(Mono.just(closedPosition));
+
+        StepVerifier.create(positionsService.cancelPosition("1", null))
+                .expectError(PositionAlreadyDeactivatedException.class)
+                .verify();
     }
 
     @Test
     void cancelPositionShouldThrowDeactivationNotAllowedException() {
-        when(positionsRepository.findById("1")).thenReturn(Optional.of(position));
-        when(candidateRepository.countCandidatesByPositionId("1")).thenReturn(1);
-        assertThrows(DeactivationNotAllowedException.class,
-                () -> positionsService.cancelPosition("1"));
+        when(positionsRepository.findById("1")).thenReturn(Mono.just(position));
+        when(candidateRepository.countCandidatesByPositionId("1")).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(positionsService.cancelPosition("1", null))
+                .expectError(DeactivationNotAllowedException.class)
+                .verify();
     }
 
     @Test
     void shouldCancelPositionSuccessfully() {
-        when(positionsRepository.findById("1")).thenReturn(Optional.of(position));
-        when(candidateRepository.countCandidatesByPositionId("1")).thenReturn(0);
-        positionsService.cancelPosition("1");
-        assertEquals(Status.CLOSED, position.getStatus());
-        assertEquals(SubStatus.CANCELLED, position.getSubStatus());
-        verify(positionsRepository).save(position);
+        Position cancelled = position.toBuilder().status(Status.CLOSED).subStatus(SubStatus.CANCELLED).version(1L).build();
+        when(positionsRepository.findById("1")).thenReturn(Mono.just(position));
+        when(candidateRepository.countCandidatesByPositionId("1")).thenReturn(Mono.just(0L));
+        when(positionsRepository.cancelIfOpen("1", null)).thenReturn(Mono.just(cancelled));
+
+        StepVerifier.create(positionsService.cancelPosition("1", null))
+                .verifyComplete();
+
+        verify(positionsRepository, never()).save(any(Position.class));
+    }
+
+    @Test
+    void cancelPositionShouldRefreshReplicaFromConditionalWrite() {
+        positionsReplica.completeLoad(List.of(position));
+        Position cancelled = position.toBuilder().status(Status.CLOSED).subStatus(SubStatus.CANCELLED).version(4L).build();
+        when(candidateRepository.countCandidatesByPositionId("1")).thenReturn(Mono.just(0L));
+        when(positionsRepository.cancelIfOpen("1", null)).thenReturn(Mono.just(cancelled));
+
+        StepVerifier.create(positionsService.cancelPosition("1", null))
+                .verifyComplete();
+
+        assertEquals(cancelled, positionsReplica.findById("1").orElseThrow());
+        verify(positionsRepository, never()).save(any(Position.class));
+    }
+
+    @Test
+    void cancelPositionShouldThrowAlreadyDeactivatedWhenClosedElsewhere() {
+        positionsReplica.completeLoad(List.of(position));
+        when(candidateRepository.countCandidatesByPositionId("1")).thenReturn(Mono.just(0L));
+        when(positionsRepository.cancelIfOpen("1", null)).thenReturn(Mono.empty());
+        when(positionsRepository.findById("1")).thenReturn(Mono.just(closedPosition));
+
+        StepVerifier.create(positionsService.cancelPosition("1", null))
+                .expectError(PositionAlreadyDeactivatedException.class)
+                .verify();
+    }
+
+    @Test
+    void cancelPositionShouldThrowVersionConflictOnlyForStaleIfMatch() {
+        when(positionsRepository.findById("1")).thenReturn(Mono.just(position));
+        when(candidateRepository.countCandidatesByPositionId("1")).thenReturn(Mono.just(0L));
+        when(positionsRepository.cancelIfOpen("1", 2L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(positionsService.cancelPosition("1", 2L))
+                .expectError(PositionVersionConflictException.class)
+                .verify();
     }
 
     @Test
     void fillPositionShouldThrowNotFoundException() {
-        when(positionsRepository.findById("1")).thenReturn(Optional.empty());
-        assertThrows(PositionNotFoundException.class,
-                () -> positionsService.fillPosition("1", candidateId));
+        when(positionsRepository.claimForHire("1", candidateId)).thenReturn(Mono.empty());
+        when(positionsRepository.existsById("1")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(positionsService.fillPosition("1", candidateId))
+                .expectError(PositionNotFoundException.class)
+                .verify();
     }
 
     @Test
     void fillPositionShouldThrowAlreadyDeactivatedException() {
-        when(positionsRepository.findById("1")).thenReturn(Optional.of(closedPosition));
-        assertThrows(PositionAlreadyDeactivatedException.class,
-                () -> positionsService.fillPosition("1", candidateId));
+        when(positionsRepository.claimForHire("1", candidateId)).thenReturn(Mono.empty());
+        when(positionsRepository.existsById("1")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(positionsService.fillPosition("1", candidateId))
+                .expectError(PositionAlreadyDeactivatedException.class)
+                .verify();
+        verify(candidateRepository, never()).markHired(anyString());
     }
 
     @Test
-    void fillPositionShouldThrowCandidateNotFoundException() {
-        when(positionsRepository.findById("1")).thenReturn(Optional.of(position));
-        when(candidateRepository.findById(candidateId)).thenReturn(Optional.empty());
-        assertThrows(CandidateNotFoundException.class,
-                () -> positionsService.fillPosition("1", candidateId));
+    void fillPositionShouldReleaseClaimWhenCandidateNotFound() {
+        when(positionsRepository.claimForHire("1", candidateId)).thenReturn(Mono.just(position));
+        when(candidateRepository.markHired(candidateId)).thenReturn(Mono.just(false));
+        when(positionsRepository.releaseHire(position, candidateId)).thenReturn(Mono.just(position));
+
+        StepVerifier.create(positionsService.fillPosition("1", candidateId))
+                .expectError(CandidateNotFoundException.class)
+                .verify();
+        verify(positionsRepository).releaseHire(position, candidateId);
+    }
+
+    @Test
+    void fillPositionShouldReleaseClaimWhenCandidateUpdateFails() {
+        when(positionsRepository.claimForHire("1", candidateId)).thenReturn(Mono.just(position));
+        when(candidateRepository.markHired(candidateId)).thenReturn(Mono.error(new IllegalStateException("write failed")));
+        when(positionsRepository.releaseHire(position, candidateId)).thenReturn(Mono.just(position));
+
+        StepVerifier.create(positionsService.fillPosition("1", candidateId))
+                .expectError(IllegalStateException.class)
+                .verify();
+        verify(positionsRepository).releaseHire(position, candidateId);
     }
 
     @Test
     void shouldFillPositionSuccessfully() {
-        when(positionsRepository.findById("1")).thenReturn(Optional.of(position));
-        when(candidateRepository.findById(candidateId)).thenReturn(Optional.of(new Candidate(candidateId, "John Doe", "","","", null,null,null, null, false)));
+        positionsReplica.completeLoad(List.of(position));
+        when(positionsRepository.claimForHire("1", candidateId)).thenReturn(Mono.just(position));
+        when(candidateRepository.markHired(candidateId)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(positionsService.fillPosition("1", candidateId))
+                .verifyComplete();
+
+        Position filled = positionsReplica.findById("1").orElseThrow();
+        assertEquals(Status.CLOSED, filled.getStatus());
+        assertEquals(SubStatus.FILLED, filled.getSubStatus());
+        assertEquals(candidateId, filled.getHiredCandidateId());
+        verify(positionsRepository, never()).save(any(Position.class));
+        verify(positionsRepository, never()).releaseHire(any(Position.class), anyString());
+    }
 
-        positionsService.fillPosition("1", candidateId);
-        assertEquals(Status.CLOSED, position.getStatus());
-        assertEquals(SubStatus.FILLED, position.getSubStatus());
-        assertEquals(candidateId, position.getHiredCandidateId());
-        verify(positionsRepository).save(position);
+    @Test
+    void candidateReadRightAfterFillPositionShouldSeeTheHire() {
+        when(changeFeedHub.events(null)).thenReturn(Flux.never());
+        when(changeFeedHub.isOpen()).thenReturn(true);
+        candidateNearCache.start();
+        Candidate beforeHire = Candidate.builder().id(candidateId).assignedTo("dev-a").isHired(false).version(0L).build();
+        Candidate afterHire = beforeHire.toBuilder().assignedTo(null).isHired(true).version(1L).build();
+        candidateNearCache.getById(candidateId, () -> Mono.just(beforeHire)).block();
+        when(positionsRepository.claimForHire("1", candidateId)).thenReturn(Mono.just(position));
+        when(candidateRepository.markHired(candidateId)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(positionsService.fillPosition("1", candidateId))
+                .verifyComplete();
+
+        StepVerifier.create(candidateNearCache.getById(candidateId, () -> Mono.just(afterHire)))
+                .expectNext(afterHire)
+                .verifyComplete();
+    }
+
+    @Test
+    void updatePositionShouldRejectIfMatchTakenBeforeFillPosition() {
+        position.setVersion(3L);
+        positionsReplica.completeLoad(List.of(position));
+        when(positionsRepository.claimForHire("1", candidateId)).thenReturn(Mono.just(position));
+        when(candidateRepository.markHired(candidateId)).thenReturn(Mono.just(true));
+        StepVerifier.create(positionsService.fillPosition("1", candidateId))
+                .verifyComplete();
+        assertEquals(4L, positionsReplica.findById("1").orElseThrow().getVersion());
+
+        Position reopened = new Position("1", "Project Manager", Status.OPEN, null, null, null);
+        when(positionsRepository.updateIfVersion(eq("1"), eq(3L), any(Update.class))).thenReturn(Mono.empty());
+        when(positionsRepository.existsById("1")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(positionsService.updatePosition("1", reopened, 3L))
+                .expectError(PositionVersionConflictException.class)
+                .verify();
+        assertEquals(Status.CLOSED, positionsReplica.findById("1").orElseThrow().getStatus());
     }
 
     @Test
     void shouldGetPositionsByStatuses(){
-        when(positionsRepository.findPositionsByStatuses(Status.OPEN, Status.CLOSED)).thenReturn(Collections.singletonList(position));
+        when(positionsRepository.findPositionsByStatuses(Status.OPEN, Status.CLOSED)).thenReturn(Flux.just(position));
 
-        List<Position> positionsByStatuses = positionsService.getPositionsByStatuses(Status.OPEN, Status.CLOSED);
-        assertFalse(positionsByStatuses.isEmpty());
-        assertNotNull(positionsByStatuses);
+        StepVerifier.create(positionsService.getPositionsByStatuses(Status.OPEN, Status.CLOSED))
+                .expectNext(position)
+                .verifyComplete();
 
         verify(positionsRepository).findPositionsByStatuses(Status.OPEN, Status.CLOSED);
     }
 
     @Test
     void updatePositionWithStatusClosedAndNullSubStatus(){
-        Position updatedPosition = new Position("1", "Software Developer", Status.CLOSED, null, null);
-        when(positionsRepository.findById(position.getId())).thenReturn(Optional.of(position));
-        when(positionsRepository.save(position)).thenReturn(updatedPosition);
+        Position updatedPosition = new Position("1", "Software Developer", Status.CLOSED, null, null, null);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(positionsRepository.updateIfVersion(eq(position.getId()), isNull(), update.capture())).thenReturn(Mono.just(updatedPosition));
 
-        Position positionToUpdate = positionsService.updatePosition(position.getId(), updatedPosition);
-        assertNotNull(positionToUpdate);
+        StepVerifier.create(positionsService.updatePosition(position.getId(), updatedPosition, null))
+                .expectNext(updatedPosition)
+                .verifyComplete();
 
-        verify(positionsRepository).save(position);
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("subStatus"));
     }
 
     @Test
     void updatePositionWithStatusOpenAndNullSubStatus(){
-        Position updatedPosition = new Position("1", "Software Developer", Status.OPEN, null, null);
-        when(positionsRepository.findById(position.getId())).thenReturn(Optional.of(position));
-        when(positionsRepository.save(position)).thenReturn(updatedPosition);
+        Position updatedPosition = new Position("1", "Software Developer", Status.OPEN, null, null, null);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(positionsRepository.updateIfVersion(eq(position.getId()), isNull(), update.capture())).thenReturn(Mono.just(updatedPosition));
 
-        Position positionToUpdate = positionsService.updatePosition(position.getId(), updatedPosition);
-        assertNotNull(positionToUpdate);
+        StepVerifier.create(positionsService.updatePosition(position.getId(), updatedPosition, null))
+                .expectNext(updatedPosition)
+                .verifyComplete();
 
-        verify(positionsRepository).save(position);
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("subStatus"));
+    }
+
+    @Test
+    void updatePositionInProgressShouldKeepStoredSubStatus(){
+        Position updatedPosition = new Position("1", "Software Developer", Status.IN_PROGRESS, null, null, null);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(positionsRepository.updateIfVersion(eq(position.getId()), isNull(), update.capture())).thenReturn(Mono.just(updatedPosition));
+
+        StepVerifier.create(positionsService.updatePosition(position.getId(), updatedPosition, null))
+                .expectNext(updatedPosition)
+                .verifyComplete();
+
+        assertFalse(update.getValue().modifies("subStatus"));
+    }
+
+    @Test
+    void patchPositionReopeningShouldClearSubStatus(){
+        Position reopened = new Position("1", "Software Developer", Status.OPEN, null, null, 3L);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(positionsRepository.updateIfVersion(eq(position.getId()), eq(2L), update.capture())).thenReturn(Mono.just(reopened));
+
+        StepVerifier.create(positionsService.patchPosition(position.getId(), Map.of("status", "OPEN"), 2L))
+                .expectNext(reopened)
+                .verifyComplete();
+
+        assertEquals(Status.OPEN, update.getValue().getUpdateObject().get("$set", Document.class).get("status"));
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("subStatus"));
+        assertFalse(update.getValue().modifies("name"));
+        verify(positionsReplica).upsert(reopened);
+    }
+
+    @Test
+    void patchPositionShouldRejectRemovingRequiredField(){
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("name", null);
+
+        StepVerifier.create(positionsService.patchPosition(position.getId(), patch, null))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(InvalidPatchException.class, error.getClass());
+                    assertEquals("Field name cannot be removed", error.getMessage());
+                })
+                .verify();
+        verify(positionsRepository, never()).updateIfVersion(anyString(), any(), any(Update.class));
+    }
+
+    @Test
+    void patchPositionShouldRejectUnknownStatus(){
+        StepVerifier.create(positionsService.patchPosition(position.getId(), Map.of("status", "ARCHIVED"), null))
+                .expectError(InvalidPatchException.class)
+                .verify();
     }
 
     @Test
     void getUniquePositionNames(){
-        when(positionsRepository.findAll()).thenReturn(List.of(position));
+        when(positionsRepository.findAll()).thenReturn(Flux.just(position));
 
-        Set<String> uniquePositionNames = positionsService.getUniquePositionNames();
-        assertFalse(uniquePositionNames.isEmpty());
-        assertNotNull(uniquePositionNames);
+        StepVerifier.create(positionsService.getUniquePositionNames())
+                .expectNext(Set.of(position.getName()))
+                .verifyComplete();
 
         verify(positionsRepository).findAll();
     }
+
+    @Test
+    void shouldGetPositionsPageByStatus(){
+        Position next = new Position("2", "Tester", Status.OPEN, null, null, null);
+        when(positionsRepository.findPage(any(Criteria.class), isNull(), eq(2))).thenReturn(Flux.just(position, next));
+
+        StepVerifier.create(positionsService.getPositionsPage(Status.OPEN, null, 1))
+                .assertNext(page -> {
+                    assertEquals(List.of(position), page.getContent());
+                    assertNotNull(page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldServePositionReadsFromLoadedReplica(){
+        Position filled = new Position("2", "Developer", Status.CLOSED, SubStatus.FILLED, "3", null);
+        positionsReplica.completeLoad(List.of(position, filled));
+
+        StepVerifier.create(positionsService.getPositionById("2"))
+                .expectNext(filled)
+                .verifyComplete();
+        StepVerifier.create(positionsService.getPositionsByStatus(Status.OPEN))
+                .expectNext(position)
+                .verifyComplete();
+        StepVerifier.create(positionsService.getPositionsByStatusAndSubStatus(Status.CLOSED, SubStatus.FILLED))
+                .expectNext(filled)
+                .verifyComplete();
+        StepVerifier.create(positionsService.getPositionsByStatuses(Status.OPEN, Status.CLOSED))
+                .expectNext(position, filled)
+                .verifyComplete();
+
+        verifyNoInteractions(positionsRepository);
+    }
+
+    @Test
+    void getPositionsByIdsShouldQueryRepositoryWhenReplicaNotLoaded(){
+        when(positionsRepository.findAllById(List.of("1"))).thenReturn(Flux.just(position));
+
+        StepVerifier.create(positionsService.getPositionsByIds(List.of("1")))
+                .expectNext(position)
+                .verifyComplete();
+    }
+
+    @Test
+    void getPositionsByIdsShouldSkipIdsMissingFromLoadedReplica(){
+        positionsReplica.completeLoad(List.of(position));
+
+        StepVerifier.create(positionsService.getPositionsByIds(List.of("1", "missing")))
+                .expectNext(position)
+                .verifyComplete();
+
+        verifyNoInteractions(positionsRepository);
+    }
+
+    @Test
+    void getPositionByIdShouldThrowExceptionWhenPositionMissingFromReplicaAndCollection(){
+        positionsReplica.completeLoad(List.of(position));
+        when(positionsRepository.findById("missing")).thenReturn(Mono.empty());
+
+        StepVerifier.create(positionsService.getPositionById("missing"))
+                .expectError(PositionNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void getPositionByIdShouldReadCollectionWhenPositionMissingFromLoadedReplica(){
+        Position createdElsewhere = new Position("2", "Developer", Status.OPEN, null, null, null);
+        positionsReplica.completeLoad(List.of(position));
+        when(positionsRepository.findById("2")).thenReturn(Mono.just(createdElsewhere));
+
+        StepVerifier.create(positionsService.getPositionById("2"))
+                .expectNext(createdElsewhere)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRefreshReplicaWhenPositionIsUpdated(){
+        positionsReplica.completeLoad(List.of(position));
+        Position updatedPosition = new Position("1", "Software Developer", Status.OPEN, null, null, null);
+        when(positionsRepository.updateIfVersion(eq(position.getId()), isNull(), any(Update.class))).thenReturn(Mono.just(updatedPosition));
+
+        StepVerifier.create(positionsService.updatePosition(position.getId(), updatedPosition, null))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals("Software Developer", positionsReplica.findById("1").orElseThrow().getName());
+        assertEquals("Project Manager", position.getName());
+    }
+
+    @Test
+    void shouldGetUniquePositionNamesFromLoadedReplica(){
+        positionsReplica.completeLoad(List.of(position, new Position("2", "Developer", Status.CLOSED, SubStatus.CANCELLED, null, null)));
+
+        StepVerifier.create(positionsService.getUniquePositionNames())
+                .expectNext(Set.of("Developer", "Project Manager"))
+                .verifyComplete();
+
+        verifyNoInteractions(positionsRepository);
+    }
+
+    @Test
+    void shouldListUniquePositionNamesInTheSameOrderWithOrWithoutReplica(){
+        List<Position> positions = List.of(
+                new Position("1", "developer", Status.OPEN, null, null, null),
+                new Position("2", "Analyst", Status.OPEN, null, null, null),
+                new Position("3", "Developer", Status.OPEN, null, null, null),
+                new Position("4", "architect", Status.OPEN, null, null, null));
+        when(positionsRepository.findAll()).thenReturn(Flux.fromIterable(positions));
+
+        List<String> fromDatabase = List.copyOf(positionsService.getUniquePositionNames().block());
+        positionsReplica.completeLoad(positions);
+        List<String> fromReplica = List.copyOf(positionsService.getUniquePositionNames().block());
+
+        assertEquals(List.of("Analyst", "architect", "Developer", "developer"), fromDatabase);
+        assertEquals(fromDatabase, fromReplica);
+    }
+
+    @Test
+    void shouldAutocompletePositionNamesFromLoadedReplica(){
+        positionsReplica.completeLoad(List.of(position, new Position("2", "Developer", Status.CLOSED, SubStatus.CANCELLED, null, null)));
+
+        StepVerifier.create(positionsService.getPositionNamesStartingWith("pro", 10))
+                .expectNext("Project Manager")
+                .verifyComplete();
+
+        verifyNoInteractions(positionsRepository);
+    }
+
+    @Test
+    void shouldAutocompletePositionNamesFromDatabaseWhenReplicaNotLoaded(){
+        when(positionsRepository.findAll()).thenReturn(Flux.just(position, closedPosition));
+
+        StepVerifier.create(positionsService.getPositionNamesStartingWith("DEV", 10))
+                .expectNext("Developer")
+                .verifyComplete();
+    }
 }
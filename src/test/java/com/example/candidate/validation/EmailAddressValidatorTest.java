@@ -0,0 +1,94 @@
+package com.example.candidate.validation;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Pattern;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+import net.jqwik.api.statistics.Statistics;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailAddressValidatorTest {
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final EmailAddressValidator emailAddressValidator = new EmailAddressValidator();
+
+    @Property(tries = 10000)
+    void shouldAcceptWhatThePatternAccepts(@ForAll("emailAddresses") String value) {
+        boolean expected = matchesPattern(value);
+        Statistics.collect(expected);
+        assertEquals(expected, emailAddressValidator.isValid(value, null), value);
+        Statistics.coverage(coverage -> coverage.check(true).percentage(percentage -> percentage > 10));
+    }
+
+    @Example
+    void shouldAcceptAddressesWithADottedDomain() {
+        assertTrue(isEmailAddress("jane.doe@example.com"));
+        assertTrue(isEmailAddress("\"jane doe\"@mail.example.ro"));
+        assertTrue(isEmailAddress("ion@münchen.de"));
+        assertTrue(isEmailAddress(null));
+    }
+
+    @Example
+    void shouldRejectAddressesEmailOrTheDotRuleRejects() {
+        assertFalse(isEmailAddress("jane@localhost"));
+        assertFalse(isEmailAddress("jane..doe@example.com"));
+        assertFalse(isEmailAddress("jane@-example.com"));
+        assertFalse(isEmailAddress("a".repeat(65) + "@example.com"));
+        assertFalse(isEmailAddress("jane@example.com\n"));
+        assertFalse(isEmailAddress("not-an-email"));
+        assertFalse(isEmailAddress(""));
+    }
+
+    @Example
+    void shouldReportASingleViolation() {
+        Set<ConstraintViolation<Holder>> violations = VALIDATOR.validateValue(Holder.class, "email", "jane..doe@localhost");
+
+        assertEquals(1, violations.size());
+        assertEquals("Please provide a valid email address", violations.iterator().next().getMessage());
+    }
+
+    @Provide
+    Arbitrary<String> emailAddresses() {
+        Arbitrary<String> word = Arbitraries.strings().withChars("abcXYZ019").ofMinLength(0).ofMaxLength(6);
+        Arbitrary<String> localPart = word.list().ofMinSize(1).ofMaxSize(3).map(words -> String.join(".", words));
+        Arbitrary<String> domain = word.list().ofMinSize(1).ofMaxSize(4).map(words -> String.join(".", words));
+        Arbitrary<String> emailAddresses = Combinators.combine(localPart, Arbitraries.of("@", "@", "@", "@@", ""), domain)
+                .as((local, at, dom) -> local + at + dom);
+        return Mutations.mutated(emailAddresses, "aZ0.@ \n\r\u0085 é😀");
+    }
+
+    private boolean isEmailAddress(String value) {
+        return VALIDATOR.validateValue(Holder.class, "email", value).isEmpty();
+    }
+
+    private static boolean matchesPattern(String value) {
+        return VALIDATOR.validateValue(Reference.class, "email", value).isEmpty();
+    }
+
+    static class Holder {
+        @EmailAddress
+        String email;
+    }
+
+    /**
+     * The expression {@code Candidate.email} was checked against on top of {@code @Email} before
+     * {@link EmailAddress}.
+     */
+    static class Reference {
+        @Pattern(regexp = ".+@.+\\..+")
+        String email;
+    }
+}
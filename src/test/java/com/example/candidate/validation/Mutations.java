@@ -0,0 +1,49 @@
+package com.example.candidate.validation;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Tuple;
+import net.jqwik.api.Tuple.Tuple2;
+
+/**
+ * Strings near the edges of a grammar: well-formed samples with a character inserted, replaced or removed
+ * somewhere, which is where a hand-written scanner and the expression it replaces are most likely to disagree.
+ */
+final class Mutations {
+    private Mutations() {
+    }
+
+    static Arbitrary<String> mutated(Arbitrary<String> samples, String alphabet) {
+        Arbitrary<String> mutations = Combinators.combine(
+                samples,
+                Arbitraries.integers().between(0, Integer.MAX_VALUE),
+                Arbitraries.of(alphabet.chars().mapToObj(c -> String.valueOf((char) c)).toList()),
+                Arbitraries.of(Edit.values())
+        ).as(Mutations::apply);
+        return Arbitraries.frequencyOf(
+                tuple(3, samples),
+                tuple(2, mutations),
+                tuple(1, Arbitraries.strings().withChars(alphabet).ofMaxLength(40)));
+    }
+
+    private static String apply(String sample, int position, String character, Edit edit) {
+        if (sample.isEmpty()) {
+            return edit == Edit.REMOVE ? sample : character;
+        }
+        int index = position % sample.length();
+        return switch (edit) {
+            case INSERT -> sample.substring(0, index) + character + sample.substring(index);
+            case REPLACE -> sample.substring(0, index) + character + sample.substring(index + 1);
+            case REMOVE -> sample.substring(0, index) + sample.substring(index + 1);
+        };
+    }
+
+    private static Tuple2<Integer, Arbitrary<? extends String>> tuple(int frequency, Arbitrary<String> arbitrary) {
+        return Tuple.of(frequency, arbitrary);
+    }
+
+    private enum Edit {
+        INSERT, REPLACE, REMOVE
+    }
+}
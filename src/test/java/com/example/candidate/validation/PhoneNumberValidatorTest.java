@@ -0,0 +1,84 @@
+package com.example.candidate.validation;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Pattern;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+import net.jqwik.api.statistics.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhoneNumberValidatorTest {
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final PhoneNumberValidator phoneNumberValidator = new PhoneNumberValidator();
+
+    @Property(tries = 5000)
+    void shouldAcceptWhatThePatternAccepts(@ForAll("phoneNumbers") String value) {
+        boolean expected = matchesPattern(value);
+        Statistics.collect(expected);
+        assertEquals(expected, phoneNumberValidator.isValid(value, null), value);
+        Statistics.coverage(coverage -> coverage.check(true).percentage(percentage -> percentage > 10));
+    }
+
+    @Example
+    void shouldAcceptRomanianMobileAndLandlineNumbers() {
+        assertTrue(phoneNumberValidator.isValid("0722 123 456", null));
+        assertTrue(phoneNumberValidator.isValid("+40722123456", null));
+        assertTrue(phoneNumberValidator.isValid("0264.123.456.", null));
+        assertTrue(phoneNumberValidator.isValid("0312-123-456", null));
+        assertTrue(phoneNumberValidator.isValid(null, null));
+    }
+
+    @Example
+    void shouldRejectOtherPrefixesAndGroupings() {
+        assertFalse(phoneNumberValidator.isValid("0792 123 456", null));
+        assertFalse(phoneNumberValidator.isValid("0422 123 456", null));
+        assertFalse(phoneNumberValidator.isValid("+0722 123 456", null));
+        assertFalse(phoneNumberValidator.isValid("0722  123 456", null));
+        assertFalse(phoneNumberValidator.isValid("0722 1234 56", null));
+        assertFalse(phoneNumberValidator.isValid("", null));
+    }
+
+    @Provide
+    Arbitrary<String> phoneNumbers() {
+        Arbitrary<String> country = Arbitraries.frequencyOf(
+                Tuple.of(5, Arbitraries.just("")),
+                Tuple.of(4, Arbitraries.just("+4")),
+                Tuple.of(1, Arbitraries.of("+", "+40", "4")));
+        Arbitrary<String> prefix = Arbitraries.frequencyOf(
+                Tuple.of(4, Arbitraries.integers().between(700, 789).map(number -> "0" + number)),
+                Tuple.of(4, Arbitraries.integers().between(200, 399).map(number -> "0" + number)),
+                Tuple.of(1, Arbitraries.strings().withChars("0123456789").ofMinLength(3).ofMaxLength(5)));
+        Arbitrary<String> separator = Arbitraries.frequencyOf(
+                Tuple.of(6, Arbitraries.of("", " ", ".", "-", "\t")),
+                Tuple.of(1, Arbitraries.of("/", "  ", "\n", "_")));
+        Arbitrary<String> group = Arbitraries.frequencyOf(
+                Tuple.of(8, Arbitraries.strings().withChars("0123456789").ofLength(3)),
+                Tuple.of(1, Arbitraries.strings().withChars("0123456789").ofMinLength(2).ofMaxLength(4)));
+        Arbitrary<String> phoneNumbers = Combinators.combine(country, prefix, separator, group, separator, group, separator)
+                .as((c, p, s1, g1, s2, g2, s3) -> c + p + s1 + g1 + s2 + g2 + s3);
+        return Mutations.mutated(phoneNumbers, "0123456789+4 .-\t\nx");
+    }
+
+    private static boolean matchesPattern(String value) {
+        return VALIDATOR.validateValue(Reference.class, "phoneNumber", value).isEmpty();
+    }
+
+    /**
+     * The constraint {@code Candidate.phoneNumber} had before {@link PhoneNumber}.
+     */
+    static class Reference {
+        @Pattern(regexp = "^(\\+4|)?(07[0-8]{1}[0-9]{1}|02[0-9]{2}|03[0-9]{2}){1}?(\\s|\\.|\\-)?([0-9]{3}(\\s|\\.|\\-|)){2}$")
+        String phoneNumber;
+    }
+}